@@ -8,6 +8,7 @@ import GuestList from './pages/GuestList';
 import RoomList from './pages/RoomList';
 import DashboardHome from './pages/DashboardHome';
 import EarningsReport from './pages/EarningsReport';
+import EmailCampaigns from './pages/EmailCampaigns';
 import ReservationList from './pages/ReservationList';
 import HousekeepingList from './pages/HousekeepingList';
 import RoomServiceList from './pages/RoomServiceList';
@@ -32,6 +33,7 @@ function App() {
           <Route element={<RoleBasedRoute allowedRoles={adminRoles} />}>
             <Route path="employees" element={<EmployeeList />} />
             <Route path="reports" element={<EarningsReport />} />
+            <Route path="campaigns" element={<EmailCampaigns />} />
           </Route>
 
           <Route element={<RoleBasedRoute allowedRoles={roomServiceRoles} />}>
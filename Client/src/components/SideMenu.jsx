@@ -11,6 +11,7 @@ import ListAltIcon from '@mui/icons-material/ListAltOutlined';
 import CleaningServicesIcon from '@mui/icons-material/CleaningServicesOutlined';
 import RoomServiceIcon from '@mui/icons-material/RoomService';
 import BuildIcon from '@mui/icons-material/Build';
+import MailIcon from '@mui/icons-material/MailOutline';
 import { motion } from 'framer-motion';
 import { useAuth } from '../context/AuthContext';
 
@@ -26,6 +27,7 @@ const menuItems = [
     { text: 'Room Service', icon: <RoomServiceIcon />, path: '/room-service', roles: ['ROLE_Admin', 'ROLE_Manager', 'ROLE_Chef'] },
     { text: 'Cereri Curățenie', icon: <BuildIcon />, path: '/housekeeping-requests', roles: ['ROLE_Admin', 'ROLE_Manager', 'ROLE_Cleaner'] },
     { text: 'Rapoarte', icon: <AssessmentIcon />, path: '/reports', roles: ['ROLE_Admin'] },
+    { text: 'Campanii Email', icon: <MailIcon />, path: '/campaigns', roles: ['ROLE_Admin'] },
 ];
 
 function SideMenu() {
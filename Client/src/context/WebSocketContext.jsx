@@ -1,56 +1,82 @@
 import { createContext, useContext, useEffect, useRef } from 'react';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
+import axios from 'axios';
 import { useAuth } from './AuthContext';
 import { useToast } from './ToastContext';
 import { useNotifications } from './NotificationContext';
 
 const WebSocketContext = createContext();
 
+const FRONT_DESK_ROLES = ['ROLE_Admin', 'ROLE_Manager', 'ROLE_Receptionist'];
+const MISSED_URL = 'http://localhost:8080/api/notifications/missed';
+const SEEN_LIMIT = 500;
+// Sequence numbers are taken when an event is written, not when it is delivered, so concurrent
+// events can arrive out of order: after N+1, N may still be on its way. Replays re-ask this far back
+// and the seen set drops what already arrived; it must stay larger than the overlap.
+const REPLAY_OVERLAP = 100;
+
 export function WebSocketProvider({ children }) {
     const stompClientRef = useRef(null);
-    const { user } = useAuth();
+    // Highest sequence number received; on reconnect, what was missed is asked for from a bit before it.
+    const lastSeqRef = useRef(null);
+    const seenSeqsRef = useRef(new Set());
+    const { user, token } = useAuth();
     const { showToast } = useToast();
     const { addNotification } = useNotifications(); 
 
     useEffect(() => {
-        if (!user) return;
+        if (!user || !token) return;
 
         const stompClient = new Client({
             webSocketFactory: () => new SockJS('http://localhost:8080/ws'),
+            connectHeaders: { Authorization: `Bearer ${token}` },
             reconnectDelay: 5000,
             onConnect: () => {
                 console.log('WebSocket Connected');
 
-                stompClient.subscribe('/topic/reservations', (message) => {
+                // Live events and replayed ones may overlap right after a reconnect; each is handled once.
+                const track = (handler) => (message) => {
+                    const seq = Number(message.headers.seq);
+                    if (seq) {
+                        const seen = seenSeqsRef.current;
+                        if (seen.has(seq)) return;
+                        seen.add(seq);
+                        if (seen.size > SEEN_LIMIT) seen.delete(seen.values().next().value);
+                        lastSeqRef.current = Math.max(lastSeqRef.current ?? 0, seq);
+                    }
+                    handler(message);
+                };
+
+                const handleReservation = (message) => {
                     const reservation = JSON.parse(message.body);
-                    
+                
                     showToast(
                         `Rezervare nouă: ${reservation.guestName} - Camera ${reservation.roomNumber}`,
                         'success'
                     );
-                    
+                
                     addNotification({
                         type: 'reservation',
                         title: 'Rezervare Nouă',
                         message: `${reservation.guestName} - Camera ${reservation.roomNumber}`,
                         severity: 'success'
                     });
-                });
+                };
 
-                stompClient.subscribe('/topic/notifications', (message) => {
+                const handleNotification = (message) => {
                     const notification = JSON.parse(message.body);
 
                     if (notification.type === 'NEW_GUEST_REGISTRATION') {
                         showToast(
-                            `🎉 ${notification.guestName} s-a înregistrat din aplicația mobilă!`,
+                            `🎉 ${notification.data?.guestName} s-a înregistrat din aplicația mobilă!`,
                             'info'
                         );
 
                         addNotification({
                             type: 'NEW_GUEST_REGISTRATION',
                             title: notification.title || 'Oaspete Nou',
-                            message: notification.message || `${notification.guestName} s-a înregistrat`,
+                            message: notification.message || `${notification.data?.guestName} s-a înregistrat`,
                             severity: 'info'
                         });
                     } else if (notification.type === 'RESERVATION_CANCELLED') {
@@ -102,6 +128,30 @@ export function WebSocketProvider({ children }) {
                             severity: 'info'
                         });
                     }
+                };
+
+                // Each role only receives the events it acts on, see NotificationAudience on the server.
+                if (FRONT_DESK_ROLES.includes(user.role)) {
+                    stompClient.subscribe('/topic/reservations', track(handleReservation));
+                }
+                stompClient.subscribe(`/topic/role.${user.role.replace('ROLE_', '')}`, track(handleNotification));
+                stompClient.subscribe('/user/queue/notifications', track(handleNotification));
+
+                const after = lastSeqRef.current != null ? Math.max(0, lastSeqRef.current - REPLAY_OVERLAP) : null;
+                axios.get(MISSED_URL, {
+                    headers: { 'Authorization': `Bearer ${token}` },
+                    params: after != null ? { after } : {}
+                }).then(({ data }) => {
+                    data.events.forEach((event) => {
+                        const handler = event.destination === '/topic/reservations' ? handleReservation : handleNotification;
+                        track(handler)({ headers: { seq: String(event.seq) }, body: JSON.stringify(event.payload) });
+                    });
+                    lastSeqRef.current = Math.max(lastSeqRef.current ?? 0, data.latestSeq);
+                    if (!data.complete) {
+                        showToast('Unele notificări din timpul deconectării nu mai pot fi recuperate. Reîncărcați pagina.', 'warning');
+                    }
+                }).catch((error) => {
+                    console.error('Missed notifications could not be loaded:', error);
                 });
             },
             onStompError: (frame) => {
@@ -117,7 +167,7 @@ export function WebSocketProvider({ children }) {
                 stompClientRef.current.deactivate();
             }
         };
-    }, [user, showToast, addNotification]);
+    }, [user, token, showToast, addNotification]);
 
     return (
         <WebSocketContext.Provider value={{}}>
@@ -0,0 +1,189 @@
+import React, { useState, useEffect, useCallback } from 'react';
+import {
+    Paper, Typography, Box, Button, Chip, TextField, LinearProgress,
+    Table, TableBody, TableCell, TableHead, TableRow,
+} from '@mui/material';
+import { useAuth } from '../context/AuthContext';
+import { useToast } from '../context/ToastContext';
+import { motion } from 'framer-motion';
+import axios from 'axios';
+import SendIcon from '@mui/icons-material/Send';
+
+const API_URL = 'http://localhost:8080/api/staff/campaigns';
+
+const statusColors = {
+    DRAFT: 'default',
+    RUNNING: 'info',
+    PAUSED: 'warning',
+    COMPLETED: 'success',
+    CANCELLED: 'error',
+};
+
+const statusLabels = {
+    DRAFT: 'Ciornă',
+    RUNNING: 'În desfășurare',
+    PAUSED: 'Suspendată',
+    COMPLETED: 'Finalizată',
+    CANCELLED: 'Anulată',
+};
+
+function EmailCampaigns() {
+    const [campaigns, setCampaigns] = useState([]);
+    const [form, setForm] = useState({ name: '', subject: '', body: '' });
+    const auth = useAuth();
+    const { showToast } = useToast();
+
+    const headers = { 'Authorization': `Bearer ${auth.token}` };
+
+    const fetchCampaigns = useCallback(async () => {
+        try {
+            const response = await axios.get(API_URL, {
+                headers: { 'Authorization': `Bearer ${auth.token}` }
+            });
+            setCampaigns(response.data);
+        } catch (error) {
+            console.error("Eroare la preluarea campaniilor:", error);
+            showToast('Eroare la preluarea campaniilor', 'error');
+        }
+    }, [auth.token, showToast]);
+
+    useEffect(() => {
+        if (!auth.token) return;
+        fetchCampaigns();
+        // Progress comes from the checkpoints written after each batch.
+        const interval = setInterval(fetchCampaigns, 5000);
+        return () => clearInterval(interval);
+    }, [auth.token, fetchCampaigns]);
+
+    const handleCreate = async () => {
+        try {
+            await axios.post(API_URL, form, { headers });
+            setForm({ name: '', subject: '', body: '' });
+            showToast('Campania a fost creată', 'success');
+            fetchCampaigns();
+        } catch (error) {
+            showToast(error.response?.data?.message || 'Eroare la crearea campaniei', 'error');
+        }
+    };
+
+    const handleAction = async (id, action) => {
+        try {
+            await axios.post(`${API_URL}/${id}/${action}`, {}, { headers });
+            fetchCampaigns();
+        } catch (error) {
+            showToast(error.response?.data?.message || 'Eroare la actualizarea campaniei', 'error');
+        }
+    };
+
+    const progress = (campaign) => {
+        if (!campaign.totalRecipients) return 0;
+        const done = campaign.sentCount + campaign.failedCount;
+        return Math.min(100, (done / campaign.totalRecipients) * 100);
+    };
+
+    return (
+        <motion.div
+            initial={{ opacity: 0, y: 30 }}
+            animate={{ opacity: 1, y: 0 }}
+            transition={{ duration: 0.6, type: "spring" }}
+        >
+            <Paper sx={{ p: 4, mb: 3 }}>
+                <Typography variant="h5" sx={{ fontWeight: 'bold', mb: 1 }}>
+                    ✉️ Campanie nouă
+                </Typography>
+                <Typography variant="body2" color="text.secondary" sx={{ mb: 2 }}>
+                    Se trimite tuturor oaspeților. Puteți folosi {'{{guestName}}'} și {'{{guestEmail}}'} în subiect și conținut.
+                </Typography>
+                <Box sx={{ display: 'flex', flexDirection: 'column', gap: 2 }}>
+                    <TextField
+                        label="Nume campanie"
+                        value={form.name}
+                        onChange={(e) => setForm({ ...form, name: e.target.value })}
+                    />
+                    <TextField
+                        label="Subiect"
+                        value={form.subject}
+                        onChange={(e) => setForm({ ...form, subject: e.target.value })}
+                    />
+                    <TextField
+                        label="Conținut"
+                        multiline
+                        minRows={6}
+                        value={form.body}
+                        onChange={(e) => setForm({ ...form, body: e.target.value })}
+                    />
+                    <Box>
+                        <Button
+                            variant="contained"
+                            startIcon={<SendIcon />}
+                            disabled={!form.name || !form.subject || !form.body}
+                            onClick={handleCreate}
+                        >
+                            Salvează ciorna
+                        </Button>
+                    </Box>
+                </Box>
+            </Paper>
+
+            <Paper sx={{ p: 4 }}>
+                <Typography variant="h5" sx={{ fontWeight: 'bold', mb: 2 }}>
+                    Campanii
+                </Typography>
+                <Table>
+                    <TableHead>
+                        <TableRow>
+                            <TableCell>Nume</TableCell>
+                            <TableCell>Status</TableCell>
+                            <TableCell>Progres</TableCell>
+                            <TableCell>Trimise / Eșuate</TableCell>
+                            <TableCell align="right">Acțiuni</TableCell>
+                        </TableRow>
+                    </TableHead>
+                    <TableBody>
+                        {campaigns.map((campaign) => (
+                            <TableRow key={campaign.id}>
+                                <TableCell>
+                                    <Typography sx={{ fontWeight: 'bold' }}>{campaign.name}</Typography>
+                                    <Typography variant="body2" color="text.secondary">{campaign.subject}</Typography>
+                                    {campaign.lastError && (
+                                        <Typography variant="caption" color="error">{campaign.lastError}</Typography>
+                                    )}
+                                </TableCell>
+                                <TableCell>
+                                    <Chip
+                                        label={statusLabels[campaign.status] || campaign.status}
+                                        color={statusColors[campaign.status] || 'default'}
+                                        size="small"
+                                    />
+                                </TableCell>
+                                <TableCell sx={{ minWidth: 160 }}>
+                                    <LinearProgress variant="determinate" value={progress(campaign)} />
+                                    <Typography variant="caption" color="text.secondary">
+                                        {campaign.totalRecipients != null ? `din ${campaign.totalRecipients}` : '-'}
+                                    </Typography>
+                                </TableCell>
+                                <TableCell>{campaign.sentCount} / {campaign.failedCount}</TableCell>
+                                <TableCell align="right">
+                                    {campaign.status === 'DRAFT' && (
+                                        <Button size="small" onClick={() => handleAction(campaign.id, 'start')}>Pornește</Button>
+                                    )}
+                                    {campaign.status === 'RUNNING' && (
+                                        <Button size="small" onClick={() => handleAction(campaign.id, 'pause')}>Suspendă</Button>
+                                    )}
+                                    {campaign.status === 'PAUSED' && (
+                                        <Button size="small" onClick={() => handleAction(campaign.id, 'resume')}>Reia</Button>
+                                    )}
+                                    {['DRAFT', 'RUNNING', 'PAUSED'].includes(campaign.status) && (
+                                        <Button size="small" color="error" onClick={() => handleAction(campaign.id, 'cancel')}>Anulează</Button>
+                                    )}
+                                </TableCell>
+                            </TableRow>
+                        ))}
+                    </TableBody>
+                </Table>
+            </Paper>
+        </motion.div>
+    );
+}
+
+export default EmailCampaigns;
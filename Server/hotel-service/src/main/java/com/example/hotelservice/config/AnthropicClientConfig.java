@@ -0,0 +1,43 @@
+package com.example.hotelservice.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AnthropicClientConfig {
+
+    @Bean
+    public OkHttpClient anthropicHttpClient(
+            @Value("${anthropic.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${anthropic.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${anthropic.http.call-timeout-ms:45000}") long callTimeoutMs,
+            @Value("${anthropic.http.max-idle-connections:10}") int maxIdleConnections,
+            @Value("${anthropic.http.keep-alive-seconds:300}") long keepAliveSeconds,
+            @Value("${anthropic.max-concurrent-calls:16}") int maxConcurrentCalls) {
+
+        // All calls go to a single host, so the per-host limit is the real cap.
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrentCalls);
+        dispatcher.setMaxRequestsPerHost(maxConcurrentCalls);
+
+        return new OkHttpClient.Builder()
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .writeTimeout(Duration.ofMillis(readTimeoutMs))
+                .callTimeout(Duration.ofMillis(callTimeoutMs))
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+}
@@ -1,9 +1,173 @@
 package com.example.hotelservice.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executors for background work, one per kind of work so a burst in one cannot starve the
+ * others. Each is configured under {@code async.<name>.*}; unqualified {@code @Async} methods use the
+ * default executor sized by {@code spring.task.execution.pool.*}.
+ *
+ * <p>Rejection policies: mail and the STOMP outbound executor run the task on the caller
+ * (back-pressure, never lost); the WebSocket writer (see {@link #websocketWriterExecutor()}), reports,
+ * campaigns and the default executor reject.
+ * Every executor can instead run on virtual threads with {@code async.<name>.virtual-threads=true};
+ * {@code max-size} then caps concurrency. That needs Java 21+; older runtimes fall back to the pool.
+ */
+@Slf4j
 @Configuration
 @EnableAsync
-public class AsyncConfig {
-}
\ No newline at end of file
+public class AsyncConfig implements AsyncConfigurer {
+
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+    public static final String REPORT_EXECUTOR = "reportExecutor";
+    public static final String CAMPAIGN_EXECUTOR = "campaignExecutor";
+    public static final String REVIEW_SUMMARY_EXECUTOR = "reviewSummaryExecutor";
+    public static final String WEBSOCKET_OUTBOUND_EXECUTOR = "websocketOutboundExecutor";
+    public static final String WEBSOCKET_WRITER_EXECUTOR = "websocketWriterExecutor";
+
+    private final Environment environment;
+    // Resolved lazily: AsyncConfigurer beans are created before the registry is fully configured.
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public AsyncConfig(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(name = MAIL_EXECUTOR)
+    public AsyncTaskExecutor mailExecutor() {
+        return build("mail", "async.mail", 2, 4, 200, "caller-runs");
+    }
+
+    @Bean(name = REPORT_EXECUTOR)
+    public AsyncTaskExecutor reportExecutor() {
+        return build("report", "async.report", 1, 2, 20, "abort");
+    }
+
+    /**
+     * One thread per running email campaign and no queue: a campaign either starts sending now or is
+     * refused and picked up later, it never waits in a queue while its heartbeat goes stale.
+     */
+    @Bean(name = CAMPAIGN_EXECUTOR)
+    public AsyncTaskExecutor campaignExecutor() {
+        return build("campaign", "async.campaign", 2, 2, 0, "abort");
+    }
+
+    /**
+     * Model calls of the nightly review summary job. When the queue is full the job's own thread
+     * summarizes the room, which slows the job down instead of dropping rooms.
+     */
+    @Bean(name = REVIEW_SUMMARY_EXECUTOR)
+    public AsyncTaskExecutor reviewSummaryExecutor() {
+        return build("review-summary", "async.review-summary", 4, 4, 100, "caller-runs");
+    }
+
+    /** Runs the STOMP outbound channel: encodes frames and queues them on the sessions. */
+    @Bean(name = WEBSOCKET_OUTBOUND_EXECUTOR)
+    public AsyncTaskExecutor websocketOutboundExecutor() {
+        return build("websocket-outbound", "async.websocket-outbound", 2, 8, 1000, "caller-runs");
+    }
+
+    /**
+     * Writes queued frames to the sockets; a slow client holds one of these threads, not the broker.
+     * No queue, so the pool grows instead of parking healthy sessions behind stalled writes. When every
+     * thread is taken the task is rejected and the session keeps its frames for the next attempt; they
+     * are never written on the caller's thread.
+     */
+    @Bean(name = WEBSOCKET_WRITER_EXECUTOR)
+    public AsyncTaskExecutor websocketWriterExecutor() {
+        return build("websocket-writer", "async.websocket-writer", 4, 128, 0, "abort");
+    }
+
+    /** Also picked up by Spring MVC for async request handling. */
+    @Bean(name = {"taskExecutor", "applicationTaskExecutor"})
+    public AsyncTaskExecutor taskExecutor() {
+        return build("task", "spring.task.execution.pool", 2, 5, 100, "abort");
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return taskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> {
+            meterRegistry.getObject().counter("async.task.errors").increment();
+            log.error("Sarcina asincronă {}.{} a eșuat: {}", method.getDeclaringClass().getSimpleName(),
+                    method.getName(), ex.getMessage(), ex);
+        };
+    }
+
+    private AsyncTaskExecutor build(String name, String prefix, int coreSize, int maxSize, int queueCapacity,
+                                    String rejection) {
+        int core = environment.getProperty(prefix + ".core-size", Integer.class, coreSize);
+        int max = Math.max(core, environment.getProperty(prefix + ".max-size", Integer.class, maxSize));
+        int queue = environment.getProperty(prefix + ".queue-capacity", Integer.class, queueCapacity);
+        String policy = environment.getProperty(prefix + ".rejection", rejection);
+        boolean virtual = environment.getProperty(prefix + ".virtual-threads", Boolean.class, false);
+        MeterRegistry registry = meterRegistry.getObject();
+        InstrumentedTaskDecorator decorator = new InstrumentedTaskDecorator(registry, name);
+
+        if (virtual) {
+            if (Runtime.version().feature() >= 21) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-vt-");
+                executor.setVirtualThreads(true);
+                executor.setConcurrencyLimit(max);
+                executor.setTaskDecorator(decorator);
+                log.info("Executorul '{}' rulează pe fire virtuale, cel mult {} sarcini simultane", name, max);
+                return executor;
+            }
+            log.warn("Firele virtuale necesită Java 21+ (rulează {}); executorul '{}' folosește un pool de fire",
+                    Runtime.version().feature(), name);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(core);
+        executor.setMaxPoolSize(max);
+        executor.setQueueCapacity(queue);
+        executor.setTaskDecorator(decorator);
+        executor.setRejectedExecutionHandler(countingRejections(registry, name, policy));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(environment.getProperty(prefix + ".await-termination-seconds", Integer.class, 10));
+
+        Gauge.builder("async.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("executor", name).register(registry);
+        Gauge.builder("async.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("executor", name).register(registry);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler countingRejections(MeterRegistry registry, String name, String policy) {
+        RejectedExecutionHandler delegate = switch (policy) {
+            case "caller-runs" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "discard-oldest" -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case "discard" -> new ThreadPoolExecutor.DiscardPolicy();
+            case "abort" -> new ThreadPoolExecutor.AbortPolicy();
+            default -> throw new IllegalArgumentException("Unknown rejection policy for executor " + name + ": " + policy);
+        };
+        Counter rejected = registry.counter("async.rejected", "executor", name, "policy", policy);
+        return (task, pool) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.hotelservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures, per executor, how long tasks wait before a thread picks them up and how long they run,
+ * and how many are running right now. Works the same for pooled and virtual-thread executors.
+ */
+class InstrumentedTaskDecorator implements TaskDecorator {
+
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final AtomicInteger active = new AtomicInteger();
+
+    InstrumentedTaskDecorator(MeterRegistry meterRegistry, String executorName) {
+        this.waitTimer = Timer.builder("async.task.wait").tag("executor", executorName)
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.runTimer = Timer.builder("async.task.duration").tag("executor", executorName)
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("async.executor.active", active, AtomicInteger::get)
+                .tag("executor", executorName).register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                active.decrementAndGet();
+                runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.hotelservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Queues the frames of one session and writes them from the writer pool, so the outbound channel never
+ * waits on a client's socket and a slow tablet only holds up its own queue. Frames that pile up while a
+ * write is in progress leave together as one WebSocket message; STOMP frames are NUL-terminated, so
+ * the client splits them again.
+ *
+ * <p>When the queue grows past the buffer limit, or the write in progress has taken longer than the
+ * time limit, the overflow strategy applies: {@code DROP} discards the oldest frames, {@code TERMINATE}
+ * closes the session. A terminated client reconnects and asks for what it missed. The factory's
+ * periodic {@link #sweep} applies the time limit to sessions that receive nothing new as well.
+ *
+ * <p>When every writer is busy the session's frames wait for the next free one: a writer that finishes
+ * takes over a waiting session before going back to the pool, and the sweep catches any left over.
+ */
+@Slf4j
+class OutboundSession extends WebSocketSessionDecorator {
+
+    private record Frame(WebSocketMessage<?> message, int size) {
+    }
+
+    private final OutboundSessionDecoratorFactory owner;
+    private final Executor writer;
+
+    // Guarded by itself, like queuedBytes.
+    private final Deque<Frame> queue = new ArrayDeque<>();
+    private int queuedBytes;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private volatile long writeStartedAt;
+    private volatile boolean closed;
+
+    OutboundSession(WebSocketSession delegate, OutboundSessionDecoratorFactory owner, Executor writer) {
+        super(delegate);
+        this.owner = owner;
+        this.writer = writer;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closed) {
+            return;
+        }
+        int size = message.getPayloadLength();
+        synchronized (queue) {
+            queue.addLast(new Frame(message, size));
+            queuedBytes += size;
+            owner.queued(size);
+            enforceLimits();
+        }
+        if (writing.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    private void enforceLimits() {
+        long startedAt = writeStartedAt;
+        boolean stalled = startedAt != 0 && System.currentTimeMillis() - startedAt > owner.getSendTimeLimit();
+        if (!stalled && queuedBytes <= owner.getSendBufferSizeLimit()) {
+            return;
+        }
+        String reason = stalled ? "time" : "buffer";
+        if (owner.getOverflowStrategy() == OverflowStrategy.TERMINATE) {
+            closed = true;
+            discardQueued();
+            owner.terminated(reason);
+            // Closes the session through SubProtocolWebSocketHandler, which cleans up after it.
+            throw new SessionLimitExceededException("Sesiunea " + getId() + " nu mai poate primi mesaje (" + reason + ")",
+                    CloseStatus.SESSION_NOT_RELIABLE);
+        }
+        // A stalled client gets nothing that is queued; an over-full queue loses its oldest frames.
+        int dropped = 0;
+        while (!queue.isEmpty() && (stalled || queuedBytes > owner.getSendBufferSizeLimit())) {
+            Frame frame = queue.removeFirst();
+            queuedBytes -= frame.size();
+            owner.dequeued(frame.size());
+            dropped++;
+        }
+        if (dropped > 0) {
+            owner.dropped(reason, dropped);
+        }
+    }
+
+    private void schedule() {
+        try {
+            writer.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Every writer is busy. The frames stay queued, under the session's limits, until a writer
+            // frees up; writing them here would block the outbound channel on this socket.
+            writing.set(false);
+            owner.writerRejected(this);
+        }
+    }
+
+    /** Reserves the session for the calling writer; false when it is closed or already being written. */
+    boolean claimWrite() {
+        return !closed && writing.compareAndSet(false, true);
+    }
+
+    /**
+     * Applies the limits to a write that hangs without waiting for the next frame, and restarts a
+     * queue left without a writer.
+     */
+    void sweep() {
+        if (closed) {
+            return;
+        }
+        try {
+            synchronized (queue) {
+                enforceLimits();
+            }
+        } catch (SessionLimitExceededException e) {
+            closeQuietly();
+            return;
+        }
+        if (hasQueued() && writing.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    private void drain() {
+        OutboundSession session = this;
+        while (session != null) {
+            session.writeQueued();
+            // This writer is free now; a session whose write was rejected while all were busy goes next.
+            session = owner.takeStranded();
+        }
+    }
+
+    private void writeQueued() {
+        try {
+            WebSocketMessage<?> batch;
+            while (!closed && (batch = nextBatch()) != null) {
+                writeStartedAt = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(batch);
+                } finally {
+                    writeStartedAt = 0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Sesiunea {} închisă după o eroare de trimitere: {}", getId(), e.getMessage());
+            closed = true;
+            discardQueued();
+            closeQuietly();
+        } finally {
+            writing.set(false);
+        }
+        // Covers a frame queued after the last poll but before writing was cleared.
+        if (!closed && hasQueued() && writing.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    // Consecutive text frames up to the batch size, or a single frame of any other kind.
+    private WebSocketMessage<?> nextBatch() {
+        synchronized (queue) {
+            Frame first = poll();
+            if (first == null) {
+                return null;
+            }
+            if (!(first.message() instanceof TextMessage text) || !nextIsText()) {
+                owner.written(1);
+                return first.message();
+            }
+            ByteArrayOutputStream batch = new ByteArrayOutputStream(Math.min(owner.getBatchMaxBytes(), queuedBytes + first.size()));
+            batch.writeBytes(text.asBytes());
+            int size = first.size();
+            int frames = 1;
+            while (nextIsText() && size + queue.peekFirst().size() <= owner.getBatchMaxBytes()) {
+                Frame next = poll();
+                batch.writeBytes(((TextMessage) next.message()).asBytes());
+                size += next.size();
+                frames++;
+            }
+            owner.written(frames);
+            return frames == 1 ? first.message() : new TextMessage(batch.toByteArray());
+        }
+    }
+
+    private Frame poll() {
+        Frame frame = queue.pollFirst();
+        if (frame != null) {
+            queuedBytes -= frame.size();
+            owner.dequeued(frame.size());
+        }
+        return frame;
+    }
+
+    private boolean nextIsText() {
+        Frame next = queue.peekFirst();
+        return next != null && next.message() instanceof TextMessage;
+    }
+
+    private boolean hasQueued() {
+        synchronized (queue) {
+            return !queue.isEmpty();
+        }
+    }
+
+    void discardQueued() {
+        synchronized (queue) {
+            owner.dequeued(queuedBytes);
+            queue.clear();
+            queuedBytes = 0;
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closed = true;
+        discardQueued();
+        super.close(status);
+    }
+}
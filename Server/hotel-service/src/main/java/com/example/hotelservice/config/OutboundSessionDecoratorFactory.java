@@ -0,0 +1,175 @@
+package com.example.hotelservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps every STOMP session in an {@link OutboundSession} before the broker sees it, and keeps the
+ * limits and meters they share ({@code websocket.*}):
+ * <ul>
+ *   <li>{@code websocket.sessions} - open sessions</li>
+ *   <li>{@code websocket.outbound.queued.bytes} - frames waiting for a slow client, all sessions</li>
+ *   <li>{@code websocket.outbound.dropped} / {@code websocket.outbound.terminated} - by reason, buffer or time</li>
+ *   <li>{@code websocket.outbound.batch.frames} - frames per WebSocket message written</li>
+ *   <li>{@code websocket.outbound.writer.rejected} - writes postponed because every writer was busy</li>
+ * </ul>
+ * Every {@code websocket.sweep-interval-ms} the open sessions are swept, see {@link OutboundSession#sweep}.
+ */
+@Component
+public class OutboundSessionDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    private final Executor writer;
+    private final int sendTimeLimit;
+    private final int sendBufferSizeLimit;
+    private final int batchMaxBytes;
+    private final OverflowStrategy overflowStrategy;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Set<OutboundSession> live = ConcurrentHashMap.newKeySet();
+    // Sessions whose write was rejected, waiting for a free writer.
+    private final Set<OutboundSession> stranded = ConcurrentHashMap.newKeySet();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final DistributionSummary batchFrames;
+    private final Counter writerRejected;
+
+    public OutboundSessionDecoratorFactory(@Qualifier(AsyncConfig.WEBSOCKET_WRITER_EXECUTOR) Executor writer,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${websocket.send-time-limit-ms:10000}") int sendTimeLimit,
+                                           @Value("${websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                                           @Value("${websocket.batch-max-bytes:16384}") int batchMaxBytes,
+                                           @Value("${websocket.overflow:terminate}") String overflow) {
+        this.writer = writer;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.batchMaxBytes = batchMaxBytes;
+        this.overflowStrategy = OverflowStrategy.valueOf(overflow.toUpperCase(Locale.ROOT));
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("websocket.sessions", sessions, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("websocket.outbound.queued.bytes", queuedBytes, AtomicLong::get).register(meterRegistry);
+        this.batchFrames = meterRegistry.summary("websocket.outbound.batch.frames");
+        this.writerRejected = meterRegistry.counter("websocket.outbound.writer.rejected");
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+
+            private final Map<String, OutboundSession> open = new ConcurrentHashMap<>();
+
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                OutboundSession outbound = new OutboundSession(session, OutboundSessionDecoratorFactory.this, writer);
+                open.put(session.getId(), outbound);
+                live.add(outbound);
+                sessions.incrementAndGet();
+                super.afterConnectionEstablished(outbound);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                WebSocketSession outbound = open.get(session.getId());
+                super.handleMessage(outbound != null ? outbound : session, message);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                WebSocketSession outbound = open.get(session.getId());
+                super.handleTransportError(outbound != null ? outbound : session, exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                OutboundSession outbound = open.remove(session.getId());
+                if (outbound != null) {
+                    live.remove(outbound);
+                    stranded.remove(outbound);
+                    sessions.decrementAndGet();
+                    outbound.discardQueued();
+                }
+                super.afterConnectionClosed(outbound != null ? outbound : session, closeStatus);
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.sweep-interval-ms:1000}")
+    public void sweep() {
+        live.forEach(OutboundSession::sweep);
+        stranded.forEach(OutboundSession::sweep);
+    }
+
+    /** The next stranded session the calling writer may take over, or null. */
+    OutboundSession takeStranded() {
+        for (Iterator<OutboundSession> it = stranded.iterator(); it.hasNext(); ) {
+            OutboundSession session = it.next();
+            it.remove();
+            if (session.claimWrite()) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    int getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
+    int getSendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    int getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    void queued(int bytes) {
+        queuedBytes.addAndGet(bytes);
+    }
+
+    void dequeued(int bytes) {
+        queuedBytes.addAndGet(-bytes);
+    }
+
+    void written(int frames) {
+        batchFrames.record(frames);
+    }
+
+    void writerRejected(OutboundSession session) {
+        writerRejected.increment();
+        stranded.add(session);
+    }
+
+    void dropped(String reason, int frames) {
+        Counter.builder("websocket.outbound.dropped").tag("reason", reason).register(meterRegistry).increment(frames);
+    }
+
+    void terminated(String reason) {
+        Counter.builder("websocket.outbound.terminated").tag("reason", reason).register(meterRegistry).increment();
+    }
+}
@@ -23,10 +23,14 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final ChatRateLimitFilter chatRateLimitFilter;
     private final AuthenticationProvider authenticationProvider;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, AuthenticationProvider authenticationProvider) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter,
+                          ChatRateLimitFilter chatRateLimitFilter,
+                          AuthenticationProvider authenticationProvider) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.chatRateLimitFilter = chatRateLimitFilter;
         this.authenticationProvider = authenticationProvider;
     }
 
@@ -44,7 +48,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/rooms/{id}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/reviews/room/**").permitAll()
 
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_Admin")
+
                         .requestMatchers("/api/dashboard/**").authenticated()
+                        .requestMatchers("/api/notifications/**").authenticated()
 
                         .requestMatchers("/api/employees/**").hasAuthority("ROLE_Admin")
                         .requestMatchers("/api/reports/**").hasAuthority("ROLE_Admin")
@@ -62,20 +70,25 @@ public class SecurityConfig {
                         .requestMatchers("/api/staff/room-service-requests/**").hasAnyAuthority("ROLE_Admin", "ROLE_Manager", "ROLE_Chef")
                         .requestMatchers("/api/staff/housekeeping-requests/**").hasAnyAuthority("ROLE_Admin", "ROLE_Manager", "ROLE_Cleaner")
                         .requestMatchers("/api/staff/reviews/**").hasAnyAuthority("ROLE_Admin", "ROLE_Manager")
+                        .requestMatchers("/api/staff/chat/**").hasAnyAuthority("ROLE_Admin", "ROLE_Manager")
+                        .requestMatchers("/api/staff/campaigns/**").hasAuthority("ROLE_Admin")
 
                         .requestMatchers("/api/client/profile").hasAuthority("ROLE_GUEST")
                         .requestMatchers("/api/client/chat").hasAuthority("ROLE_GUEST")
+                        .requestMatchers(HttpMethod.GET, "/api/client/chat/history").hasAuthority("ROLE_GUEST")
                         .requestMatchers("/api/client/my-reservations").hasAuthority("ROLE_GUEST")
                         .requestMatchers(HttpMethod.DELETE, "/api/client/my-reservations/{id}").hasAuthority("ROLE_GUEST")
                         .requestMatchers("/api/client/reservations").hasAuthority("ROLE_GUEST")
                         .requestMatchers("/api/client/reviews").hasAuthority("ROLE_GUEST")
                         .requestMatchers("/api/client/my-reviews").hasAuthority("ROLE_GUEST")
+                        .requestMatchers(HttpMethod.GET, "/api/client/requests/changes").hasAuthority("ROLE_GUEST")
 
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(chatRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
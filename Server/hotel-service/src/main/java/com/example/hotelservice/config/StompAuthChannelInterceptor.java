@@ -0,0 +1,78 @@
+package com.example.hotelservice.config;
+
+import com.example.hotelservice.service.JwtService;
+import com.example.hotelservice.service.NotificationAudience;
+import io.jsonwebtoken.JwtException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Authenticates the STOMP CONNECT frame with the same JWT the REST API uses (sent as the
+ * {@code Authorization} native header) and checks every SUBSCRIBE: a role topic only for that role,
+ * {@code /topic/reservations} for the front desk, and user queues, which only ever resolve to the
+ * subscriber's own sessions. Anything else is refused, so a client cannot listen to another role.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    public StompAuthChannelInterceptor(JwtService jwtService, UserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            authorizeSubscription(accessor.getUser(), accessor.getDestination());
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Autentificare necesară");
+        }
+        try {
+            JwtService.VerifiedToken jwt = jwtService.verify(authHeader.substring(7));
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwt.username());
+            if (!jwtService.isTokenValid(jwt, userDetails)) {
+                throw new AccessDeniedException("Token invalid");
+            }
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            throw new AccessDeniedException("Token invalid");
+        }
+    }
+
+    private void authorizeSubscription(Principal principal, String destination) {
+        if (!(principal instanceof Authentication authentication) || destination == null) {
+            throw new AccessDeniedException("Abonare refuzată");
+        }
+        if (destination.startsWith("/user/") || NotificationAudience.allows(authentication, destination)) {
+            return;
+        }
+        throw new AccessDeniedException("Abonare refuzată pentru " + destination);
+    }
+}
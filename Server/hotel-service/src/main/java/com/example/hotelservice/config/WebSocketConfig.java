@@ -1,19 +1,100 @@
 package com.example.hotelservice.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final OutboundSessionDecoratorFactory outboundSessionDecoratorFactory;
+    private final Executor outboundExecutor;
+
+    // simple | relay | postgres, see NotificationPublisher
+    @Value("${notifications.broker:simple}")
+    private String broker;
+
+    @Value("${notifications.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${notifications.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${notifications.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${notifications.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           OutboundSessionDecoratorFactory outboundSessionDecoratorFactory,
+                           @Qualifier(AsyncConfig.WEBSOCKET_OUTBOUND_EXECUTOR) Executor outboundExecutor) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.outboundSessionDecoratorFactory = outboundSessionDecoratorFactory;
+        this.outboundExecutor = outboundExecutor;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equals(broker)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Lets a node deliver /user/ messages to sessions connected to another node.
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+        // The outbound channel runs on a pool; without this two events for one session could swap places.
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(outboundExecutor);
+    }
+
+    /**
+     * Slow clients are handled by {@link OutboundSession}; the limits set here also bound the session
+     * decorator Spring adds on top of it, which rarely buffers since the sessions below never block.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(outboundSessionDecoratorFactory);
     }
 
     @Override
@@ -22,4 +103,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("http://localhost:5173")
                 .withSockJS();
     }
-}
\ No newline at end of file
+}
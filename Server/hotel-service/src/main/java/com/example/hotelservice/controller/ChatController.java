@@ -1,12 +1,16 @@
 package com.example.hotelservice.controller;
 
+import com.example.hotelservice.dto.ChatHistoryPageDTO;
 import com.example.hotelservice.dto.ChatRequestDTO;
 import com.example.hotelservice.dto.ChatResponseDTO;
+import com.example.hotelservice.dto.GuestRequestChangesDTO;
 import com.example.hotelservice.dto.HousekeepingRequestDTO;
 import com.example.hotelservice.dto.RoomServiceRequestDTO;
 import com.example.hotelservice.entity.HousekeepingRequest;
 import com.example.hotelservice.entity.RoomServiceRequest;
+import com.example.hotelservice.service.ChatHistoryService;
 import com.example.hotelservice.service.ChatService;
+import com.example.hotelservice.service.GuestRequestTracker;
 import com.example.hotelservice.service.HousekeepingRequestService;
 import com.example.hotelservice.service.RoomServiceRequestService;
 import jakarta.validation.Valid;
@@ -24,15 +28,21 @@ import java.util.Map;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatHistoryService chatHistoryService;
     private final RoomServiceRequestService roomServiceRequestService;
     private final HousekeepingRequestService housekeepingRequestService;
+    private final GuestRequestTracker guestRequestTracker;
 
     public ChatController(ChatService chatService,
+                         ChatHistoryService chatHistoryService,
                          RoomServiceRequestService roomServiceRequestService,
-                         HousekeepingRequestService housekeepingRequestService) {
+                         HousekeepingRequestService housekeepingRequestService,
+                         GuestRequestTracker guestRequestTracker) {
         this.chatService = chatService;
+        this.chatHistoryService = chatHistoryService;
         this.roomServiceRequestService = roomServiceRequestService;
         this.housekeepingRequestService = housekeepingRequestService;
+        this.guestRequestTracker = guestRequestTracker;
     }
 
     @PostMapping("/chat")
@@ -46,6 +56,14 @@ public class ChatController {
         }
     }
 
+    @GetMapping("/chat/history")
+    public ResponseEntity<ChatHistoryPageDTO> getChatHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Principal principal) {
+        return ResponseEntity.ok(chatHistoryService.getHistory(principal.getName(), cursor, size));
+    }
+
     @PostMapping("/room-service-requests")
     public ResponseEntity<RoomServiceRequest> createRoomServiceRequest(
             @Valid @RequestBody RoomServiceRequestDTO request,
@@ -71,4 +89,11 @@ public class ChatController {
     public ResponseEntity<List<HousekeepingRequest>> getMyHousekeepingRequests(Principal principal) {
         return ResponseEntity.ok(housekeepingRequestService.getRequestsByGuest(principal.getName()));
     }
+
+    @GetMapping("/requests/changes")
+    public ResponseEntity<GuestRequestChangesDTO> getRequestChanges(
+            @RequestParam(required = false) Long since,
+            Principal principal) {
+        return ResponseEntity.ok(guestRequestTracker.changesSince(principal.getName(), since));
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.hotelservice.controller;
+
+import com.example.hotelservice.dto.ChatMetricsDTO;
+import com.example.hotelservice.service.LlmMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/staff/chat")
+public class ChatMetricsController {
+
+    private final LlmMetrics llmMetrics;
+
+    public ChatMetricsController(LlmMetrics llmMetrics) {
+        this.llmMetrics = llmMetrics;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<ChatMetricsDTO> getMetrics() {
+        return ResponseEntity.ok(llmMetrics.summarize());
+    }
+}
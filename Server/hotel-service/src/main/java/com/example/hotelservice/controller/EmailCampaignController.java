@@ -0,0 +1,60 @@
+package com.example.hotelservice.controller;
+
+import com.example.hotelservice.dto.EmailCampaignDTO;
+import com.example.hotelservice.dto.EmailCampaignRequestDTO;
+import com.example.hotelservice.service.EmailCampaignService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/staff/campaigns")
+public class EmailCampaignController {
+
+    private final EmailCampaignService campaignService;
+
+    public EmailCampaignController(EmailCampaignService campaignService) {
+        this.campaignService = campaignService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<EmailCampaignDTO>> getAllCampaigns() {
+        return ResponseEntity.ok(campaignService.getAllCampaigns());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EmailCampaignDTO> getCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.getCampaign(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<EmailCampaignDTO> createCampaign(
+            @Valid @RequestBody EmailCampaignRequestDTO request,
+            Principal principal) {
+        return new ResponseEntity<>(campaignService.createCampaign(request, principal.getName()), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{id}/start")
+    public ResponseEntity<EmailCampaignDTO> startCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.startCampaign(id));
+    }
+
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<EmailCampaignDTO> pauseCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.pauseCampaign(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<EmailCampaignDTO> resumeCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.resumeCampaign(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<EmailCampaignDTO> cancelCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.cancelCampaign(id));
+    }
+}
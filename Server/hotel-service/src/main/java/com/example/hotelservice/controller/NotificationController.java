@@ -0,0 +1,27 @@
+package com.example.hotelservice.controller;
+
+import com.example.hotelservice.dto.NotificationReplayDTO;
+import com.example.hotelservice.service.NotificationLog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationLog notificationLog;
+
+    public NotificationController(NotificationLog notificationLog) {
+        this.notificationLog = notificationLog;
+    }
+
+    @GetMapping("/missed")
+    public ResponseEntity<NotificationReplayDTO> getMissed(@RequestParam(required = false) Long after,
+                                                           Authentication authentication) {
+        return ResponseEntity.ok(notificationLog.replay(after, authentication));
+    }
+}
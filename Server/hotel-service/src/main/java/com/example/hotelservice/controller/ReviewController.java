@@ -2,7 +2,9 @@ package com.example.hotelservice.controller;
 
 import com.example.hotelservice.dto.ReviewDTO;
 import com.example.hotelservice.dto.ReviewRequestDTO;
+import com.example.hotelservice.dto.RoomReviewSummaryDTO;
 import com.example.hotelservice.service.ReviewService;
+import com.example.hotelservice.service.RoomReviewSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,9 +19,11 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final RoomReviewSummaryService roomReviewSummaryService;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, RoomReviewSummaryService roomReviewSummaryService) {
         this.reviewService = reviewService;
+        this.roomReviewSummaryService = roomReviewSummaryService;
     }
 
     @PostMapping("/client/reviews")
@@ -65,4 +69,14 @@ public class ReviewController {
     public ResponseEntity<List<ReviewDTO>> getAllReviews() {
         return ResponseEntity.ok(reviewService.getAllReviews());
     }
+
+    @GetMapping("/staff/reviews/summaries")
+    public ResponseEntity<List<RoomReviewSummaryDTO>> getReviewSummaries() {
+        return ResponseEntity.ok(roomReviewSummaryService.getAllSummaries());
+    }
+
+    @GetMapping("/staff/reviews/summaries/room/{roomId}")
+    public ResponseEntity<RoomReviewSummaryDTO> getReviewSummaryForRoom(@PathVariable Long roomId) {
+        return ResponseEntity.ok(roomReviewSummaryService.getSummaryForRoom(roomId));
+    }
 }
\ No newline at end of file
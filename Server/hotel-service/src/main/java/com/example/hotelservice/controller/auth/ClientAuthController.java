@@ -5,9 +5,11 @@ import com.example.hotelservice.dto.auth.AuthResponseDTO;
 import com.example.hotelservice.dto.auth.GuestRegisterDTO;
 import com.example.hotelservice.service.GuestAuthService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,8 +24,9 @@ public class ClientAuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponseDTO> register(@Valid @RequestBody GuestRegisterDTO request) {
-        return ResponseEntity.ok(guestAuthService.registerGuest(request));
+    public ResponseEntity<AuthResponseDTO> register(@Valid @RequestBody GuestRegisterDTO request,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage) {
+        return ResponseEntity.ok(guestAuthService.registerGuest(request, acceptLanguage));
     }
 
     @PostMapping("/login")
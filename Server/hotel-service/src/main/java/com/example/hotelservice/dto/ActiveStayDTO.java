@@ -0,0 +1,29 @@
+package com.example.hotelservice.dto;
+
+import com.example.hotelservice.entity.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveStayDTO {
+    private Long reservationId;
+    private String reservationCode;
+    private Long roomId;
+    private String roomNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public ActiveStayDTO(Reservation reservation) {
+        this.reservationId = reservation.getId();
+        this.reservationCode = reservation.getReservationCode();
+        this.roomId = reservation.getRoom().getId();
+        this.roomNumber = reservation.getRoom().getNumber();
+        this.startDate = reservation.getStartDate();
+        this.endDate = reservation.getEndDate();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.hotelservice.dto;
+
+import com.example.hotelservice.entity.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryItemDTO {
+    private Long id;
+    private String message;
+    private String response;
+    private LocalDateTime createdAt;
+
+    public ChatHistoryItemDTO(ChatMessage chatMessage) {
+        this.id = chatMessage.getId();
+        this.message = chatMessage.getMessage();
+        this.response = chatMessage.getResponse();
+        this.createdAt = chatMessage.getCreatedAt();
+    }
+}
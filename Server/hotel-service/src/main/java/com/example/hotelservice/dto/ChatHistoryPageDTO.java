@@ -0,0 +1,20 @@
+package com.example.hotelservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryPageDTO {
+    // Newest first
+    private List<ChatHistoryItemDTO> items;
+
+    // Pass back as ?cursor= to get the next (older) page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,62 @@
+package com.example.hotelservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatMetricsDTO {
+    private long totalCalls;
+    private long fallbackCalls;
+    private double fallbackRate;
+    private double totalCostUsd;
+    private double cacheHitRate;
+    private long localIntents;
+
+    // Upstream protection state, useful while load testing
+    private int bulkheadAvailable;
+    private boolean circuitOpen;
+
+    private List<CallStats> calls;
+    private List<UsageStats> usage;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CallStats {
+        private String endpoint;
+        private String cohort;
+        private String model;
+        private String outcome;
+        private long count;
+        private double meanMs;
+        private double p50Ms;
+        private double p95Ms;
+        private double p99Ms;
+        private double maxMs;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UsageStats {
+        private String endpoint;
+        private String cohort;
+        private String model;
+        private long inputTokens;
+        private long outputTokens;
+        private long cacheReadTokens;
+        private long cacheWriteTokens;
+        private double costUsd;
+        private double timeToFirstTokenP50Ms;
+        private double timeToFirstTokenP95Ms;
+    }
+}
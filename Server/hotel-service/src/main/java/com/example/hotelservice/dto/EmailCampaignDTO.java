@@ -0,0 +1,41 @@
+package com.example.hotelservice.dto;
+
+import com.example.hotelservice.entity.EmailCampaign;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EmailCampaignDTO {
+    private Long id;
+    private String name;
+    private String subject;
+    private String body;
+    private String status;
+    private Long totalRecipients;
+    private Long sentCount;
+    private Long failedCount;
+    private Long lastGuestId;
+    private String lastError;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public EmailCampaignDTO(EmailCampaign campaign) {
+        this.id = campaign.getId();
+        this.name = campaign.getName();
+        this.subject = campaign.getSubject();
+        this.body = campaign.getBody();
+        this.status = campaign.getStatus();
+        this.totalRecipients = campaign.getTotalRecipients();
+        this.sentCount = campaign.getSentCount();
+        this.failedCount = campaign.getFailedCount();
+        this.lastGuestId = campaign.getLastGuestId();
+        this.lastError = campaign.getLastError();
+        this.createdBy = campaign.getCreatedBy();
+        this.createdAt = campaign.getCreatedAt();
+        this.startedAt = campaign.getStartedAt();
+        this.completedAt = campaign.getCompletedAt();
+    }
+}
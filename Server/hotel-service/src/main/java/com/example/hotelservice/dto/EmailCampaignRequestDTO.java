@@ -0,0 +1,21 @@
+package com.example.hotelservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class EmailCampaignRequestDTO {
+
+    @NotBlank(message = "Numele campaniei este obligatoriu")
+    @Size(max = 255, message = "Numele campaniei poate avea maxim 255 caractere")
+    private String name;
+
+    @NotBlank(message = "Subiectul este obligatoriu")
+    @Size(max = 500, message = "Subiectul poate avea maxim 500 caractere")
+    private String subject;
+
+    @NotBlank(message = "Conținutul este obligatoriu")
+    @Size(max = 20000, message = "Conținutul poate avea maxim 20000 caractere")
+    private String body;
+}
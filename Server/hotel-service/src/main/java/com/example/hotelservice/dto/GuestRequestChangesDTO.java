@@ -0,0 +1,7 @@
+package com.example.hotelservice.dto;
+
+import java.util.List;
+
+/** The guest's requests that changed after the version the app asked with, oldest change first. */
+public record GuestRequestChangesDTO(long version, List<GuestRequestDTO> changes) {
+}
@@ -0,0 +1,27 @@
+package com.example.hotelservice.dto;
+
+import com.example.hotelservice.entity.HousekeepingRequest;
+import com.example.hotelservice.entity.RoomServiceRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * A room service or housekeeping request as the guest app tracks it. {@code version} is the guest's
+ * requests version at the request's last change.
+ */
+public record GuestRequestDTO(String kind, Long id, String summary, String status,
+                              LocalDateTime createdAt, LocalDateTime completedAt, Long version) {
+
+    public static final String ROOM_SERVICE = "ROOM_SERVICE";
+    public static final String HOUSEKEEPING = "HOUSEKEEPING";
+
+    public static GuestRequestDTO of(RoomServiceRequest request) {
+        return new GuestRequestDTO(ROOM_SERVICE, request.getId(), request.getRequest(), request.getStatus(),
+                request.getCreatedAt(), request.getCompletedAt(), request.getGuestVersion());
+    }
+
+    public static GuestRequestDTO of(HousekeepingRequest request) {
+        return new GuestRequestDTO(HOUSEKEEPING, request.getId(), request.getRequestType(), request.getStatus(),
+                request.getCreatedAt(), request.getCompletedAt(), request.getGuestVersion());
+    }
+}
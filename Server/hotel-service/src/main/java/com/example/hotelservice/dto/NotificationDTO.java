@@ -0,0 +1,34 @@
+package com.example.hotelservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A STOMP notification. {@code data} is one of the small records below, holding only the plain
+ * values the dashboard shows, so serializing it never walks an entity graph or touches a lazy proxy.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NotificationDTO(String type, String title, String message, Object data, String timestamp) {
+
+    public static NotificationDTO of(String type, String title, String message, Object data) {
+        return new NotificationDTO(type, title, message, data,
+                LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+    }
+
+    public record Housekeeping(Long id, String roomNumber, String requestType, String priority, String status) {
+    }
+
+    public record RoomService(Long id, String roomNumber, String request, String status) {
+    }
+
+    public record Reservation(String reservationCode, String guestName, String roomNumber) {
+    }
+
+    public record Review(Long reviewId, String guestName, String roomNumber, Integer rating) {
+    }
+
+    public record Guest(String guestName, String guestEmail) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.hotelservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.List;
+
+/**
+ * Notifications a client missed while disconnected, oldest first. {@code complete} is false when part
+ * of the gap is no longer kept (or was too large to send), in which case the client should reload.
+ */
+public record NotificationReplayDTO(long latestSeq, boolean complete, List<Event> events) {
+
+    // destination is the one the client subscribed to, e.g. /user/queue/notifications.
+    public record Event(long seq, String destination, @JsonRawValue String payload) {
+    }
+}
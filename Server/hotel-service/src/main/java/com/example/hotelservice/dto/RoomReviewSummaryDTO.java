@@ -0,0 +1,25 @@
+package com.example.hotelservice.dto;
+
+import com.example.hotelservice.entity.RoomReviewSummary;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RoomReviewSummaryDTO {
+    private Long roomId;
+    private String roomNumber;
+    private String summary;
+    private Long reviewCount;
+    private Double averageRating;
+    private LocalDateTime generatedAt;
+
+    public RoomReviewSummaryDTO(RoomReviewSummary summary) {
+        this.roomId = summary.getRoomId();
+        this.roomNumber = summary.getRoomNumber();
+        this.summary = summary.getSummary();
+        this.reviewCount = summary.getReviewCount();
+        this.averageRating = summary.getAverageRating();
+        this.generatedAt = summary.getGeneratedAt();
+    }
+}
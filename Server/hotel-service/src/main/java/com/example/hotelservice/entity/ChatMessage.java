@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_messages_guest_created", columnList = "guest_id, created_at, id"),
+        @Index(name = "idx_chat_messages_created", columnList = "created_at")
+})
 public class ChatMessage {
 
     @Id
@@ -0,0 +1,29 @@
+package com.example.hotelservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "chat_rate_limit_buckets")
+public class ChatRateLimitBucket {
+
+    @Id
+    @Column(name = "bucket_key", length = 255)
+    private String bucketKey;
+
+    @Column(name = "burst_tokens", nullable = false)
+    private double burstTokens;
+
+    @Column(name = "sustained_tokens", nullable = false)
+    private double sustainedTokens;
+
+    @Column(name = "updated_at_millis", nullable = false)
+    private long updatedAtMillis;
+}
@@ -0,0 +1,85 @@
+package com.example.hotelservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_coalesce_key", columnList = "coalesce_key"),
+        @Index(name = "idx_email_outbox_status_sent_at", columnList = "status, sent_at")
+})
+public class EmailOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // Rendered by the sender from template + templateParams when null.
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(length = 100)
+    private String template;
+
+    // JSON object of string parameters for the template.
+    @Column(name = "template_params", columnDefinition = "TEXT")
+    private String templateParams;
+
+    @Column(length = 10)
+    private String locale;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // Earliest time the sender may pick the email up; pushed forward while a send is in flight and on retry.
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set while the email is held for coalescing (e.g. "room_service:42"); cleared once the sender claims it.
+    @Column(name = "coalesce_key", length = 100)
+    private String coalesceKey;
+
+    // Comma-separated statuses folded into a coalesced status-update email, oldest first.
+    @Column(name = "status_trail", length = 500)
+    private String statusTrail;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
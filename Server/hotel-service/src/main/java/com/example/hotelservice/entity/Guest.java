@@ -42,6 +42,18 @@ public class Guest implements UserDetails {
     @Column
     private String password;
 
+    // Language of the guest's emails, null for the default one, see EmailTemplates.
+    @JsonIgnore
+    @Column(length = 8)
+    private String locale;
+
+    // Bumped on every change to the guest's room service and housekeeping requests, see GuestRequestTracker.
+    // Only GuestRepository.incrementRequestsVersion writes it, so saving a loaded guest cannot put back a stale value.
+    @JsonIgnore
+    @Column(name = "requests_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private Long requestsVersion = 0L;
+
     @JsonIgnore
     @OneToMany(mappedBy = "guest", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "housekeeping_requests")
+@Table(name = "housekeeping_requests", indexes = {
+        @Index(name = "idx_housekeeping_requests_guest_version", columnList = "guest_id, guest_version")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class HousekeepingRequest {
 
@@ -52,6 +54,10 @@ public class HousekeepingRequest {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // The guest's requests version when this request last changed.
+    @Column(name = "guest_version")
+    private Long guestVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
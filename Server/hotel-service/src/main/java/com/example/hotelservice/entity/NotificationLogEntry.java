@@ -0,0 +1,41 @@
+package com.example.hotelservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_log", indexes = {
+        @Index(name = "idx_notification_log_created_at", columnList = "created_at")
+})
+public class NotificationLogEntry {
+
+    // The sequence number clients see; shared by all nodes.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    // One broker destination per line.
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String destinations;
+
+    // The JSON exactly as it was sent.
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -14,7 +14,9 @@ import java.time.format.DateTimeFormatter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_guest_dates", columnList = "guest_id, start_date, end_date")
+})
 public class Reservation {
 
     @Id
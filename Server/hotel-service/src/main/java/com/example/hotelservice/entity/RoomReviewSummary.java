@@ -0,0 +1,50 @@
+package com.example.hotelservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "room_review_summaries")
+public class RoomReviewSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false, unique = true)
+    private Long roomId;
+
+    @Column(name = "room_number", nullable = false)
+    private String roomNumber;
+
+    @Column(nullable = false, length = 2000)
+    private String summary;
+
+    // Review count and newest review id at generation time; a mismatch means reviews were added or deleted.
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount;
+
+    @Column(name = "last_review_id", nullable = false)
+    private Long lastReviewId;
+
+    @Column(name = "average_rating")
+    private Double averageRating;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        generatedAt = LocalDateTime.now();
+    }
+}
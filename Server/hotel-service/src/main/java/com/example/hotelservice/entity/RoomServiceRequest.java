@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "room_service_requests")
+@Table(name = "room_service_requests", indexes = {
+        @Index(name = "idx_room_service_requests_guest_version", columnList = "guest_id, guest_version")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class RoomServiceRequest {
 
@@ -45,6 +47,10 @@ public class RoomServiceRequest {
     @Column(length = 500)
     private String notes;
 
+    // The guest's requests version when this request last changed.
+    @Column(name = "guest_version")
+    private Long guestVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
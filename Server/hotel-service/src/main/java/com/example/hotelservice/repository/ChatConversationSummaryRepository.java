@@ -0,0 +1,10 @@
+package com.example.hotelservice.repository;
+
+import com.example.hotelservice.entity.ChatConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ChatConversationSummaryRepository extends JpaRepository<ChatConversationSummary, Long> {
+    Optional<ChatConversationSummary> findByGuestId(Long guestId);
+}
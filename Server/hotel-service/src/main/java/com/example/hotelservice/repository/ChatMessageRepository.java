@@ -1,10 +1,45 @@
 package com.example.hotelservice.repository;
 
 import com.example.hotelservice.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    List<ChatMessage> findByGuestIdOrderByCreatedAtDesc(Long guestId);
+    @Query("SELECT m FROM ChatMessage m WHERE m.guest.id = :guestId AND m.id > :afterId " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<ChatMessage> findLatestAfter(@Param("guestId") Long guestId,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m WHERE m.guest.id = :guestId AND m.id > :afterId " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    List<ChatMessage> findOldestAfter(@Param("guestId") Long guestId,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.guest.id = :guestId AND m.id > :afterId")
+    long countAfter(@Param("guestId") Long guestId, @Param("afterId") Long afterId);
+
+    // Keyset page: the turns strictly older than (createdAt, id), newest first.
+    @Query("SELECT m FROM ChatMessage m WHERE m.guest.id = :guestId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<ChatMessage> findPageBefore(@Param("guestId") Long guestId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM chat_messages WHERE id IN " +
+            "(SELECT id FROM chat_messages WHERE created_at < :cutoff ORDER BY created_at LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
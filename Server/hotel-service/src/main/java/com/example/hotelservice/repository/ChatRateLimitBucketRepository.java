@@ -0,0 +1,27 @@
+package com.example.hotelservice.repository;
+
+import com.example.hotelservice.entity.ChatRateLimitBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ChatRateLimitBucketRepository extends JpaRepository<ChatRateLimitBucket, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ChatRateLimitBucket b WHERE b.bucketKey = :key")
+    Optional<ChatRateLimitBucket> findForUpdate(@Param("key") String key);
+
+    @Modifying
+    @Query(value = "INSERT INTO chat_rate_limit_buckets (bucket_key, burst_tokens, sustained_tokens, updated_at_millis) " +
+            "VALUES (:key, :burstTokens, :sustainedTokens, :now) ON CONFLICT (bucket_key) DO NOTHING",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("key") String key,
+                        @Param("burstTokens") double burstTokens,
+                        @Param("sustainedTokens") double sustainedTokens,
+                        @Param("now") long now);
+}
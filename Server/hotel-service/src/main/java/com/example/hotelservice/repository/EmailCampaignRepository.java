@@ -0,0 +1,57 @@
+package com.example.hotelservice.repository;
+
+import com.example.hotelservice.entity.EmailCampaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailCampaignRepository extends JpaRepository<EmailCampaign, Long> {
+
+    List<EmailCampaign> findAllByOrderByCreatedAtDesc();
+
+    @Query("SELECT c.id FROM EmailCampaign c WHERE c.status = 'RUNNING' " +
+            "AND (c.heartbeatAt IS NULL OR c.heartbeatAt < :staleBefore)")
+    List<Long> findStalledIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT c.status FROM EmailCampaign c WHERE c.id = :id")
+    String findStatusById(@Param("id") Long id);
+
+    // Status changes go through here rather than save(), which would overwrite the counters of a running campaign.
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailCampaign c SET c.status = :to, c.lastError = NULL WHERE c.id = :id AND c.status IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<String> from, @Param("to") String to);
+
+    // Succeeds for one node only: the campaign must be running and nobody may have sent a heartbeat since staleBefore.
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailCampaign c SET c.heartbeatAt = :now WHERE c.id = :id AND c.status = 'RUNNING' " +
+            "AND (c.heartbeatAt IS NULL OR c.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailCampaign c SET c.lastGuestId = :lastGuestId, c.sentCount = c.sentCount + :sent, " +
+            "c.failedCount = c.failedCount + :failed, c.heartbeatAt = :now WHERE c.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("lastGuestId") Long lastGuestId, @Param("sent") long sent,
+                   @Param("failed") long failed, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailCampaign c SET c.status = :status, c.lastError = :error, c.heartbeatAt = NULL, " +
+            "c.completedAt = :completedAt WHERE c.id = :id AND c.status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("status") String status, @Param("error") String error,
+               @Param("completedAt") LocalDateTime completedAt);
+
+    // Leaves the heartbeat alone if the campaign was resumed meanwhile, so a second run cannot start.
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailCampaign c SET c.heartbeatAt = NULL WHERE c.id = :id AND c.status <> 'RUNNING'")
+    int release(@Param("id") Long id);
+}
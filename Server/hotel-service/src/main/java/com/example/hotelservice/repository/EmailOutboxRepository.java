@@ -0,0 +1,38 @@
+package com.example.hotelservice.repository;
+
+import com.example.hotelservice.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // SKIP LOCKED lets several nodes drain the outbox without picking the same rows.
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Locks the held email so a concurrent transition or claim waits instead of racing.
+    @Query(value = "SELECT * FROM email_outbox WHERE coalesce_key = :key AND status = 'PENDING' " +
+            "ORDER BY id LIMIT 1 FOR UPDATE", nativeQuery = true)
+    Optional<EmailOutbox> findHeldForUpdate(@Param("key") String coalesceKey);
+
+    long countByStatus(String status);
+
+    // Rows held for coalescing or waiting out a retry backoff are not late; only due ones count.
+    Optional<EmailOutbox> findFirstByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(String status,
+                                                                                                LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_outbox WHERE id IN " +
+            "(SELECT id FROM email_outbox WHERE status = 'SENT' AND sent_at < :cutoff ORDER BY id LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
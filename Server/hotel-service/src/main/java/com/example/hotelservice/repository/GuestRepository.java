@@ -1,10 +1,45 @@
 package com.example.hotelservice.repository;
 
 import com.example.hotelservice.entity.Guest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface GuestRepository extends JpaRepository<Guest, Long> {
     Optional<Guest> findByEmail(String email);
+
+    // Keyset page of campaign recipients; only the three columns are read, no entities are loaded.
+    @Query("SELECT g.id AS id, g.name AS name, g.email AS email FROM Guest g WHERE g.id > :afterId ORDER BY g.id")
+    List<CampaignRecipient> findRecipientsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Guest g SET g.requestsVersion = g.requestsVersion + 1 WHERE g.id = :id")
+    int incrementRequestsVersion(@Param("id") Long id);
+
+    @Query("SELECT g.requestsVersion FROM Guest g WHERE g.id = :id")
+    Long findRequestsVersion(@Param("id") Long id);
+
+    @Query("SELECT g.id AS id, g.requestsVersion AS requestsVersion FROM Guest g WHERE g.email = :email")
+    Optional<RequestsVersion> findRequestsVersionByEmail(@Param("email") String email);
+
+    interface RequestsVersion {
+        Long getId();
+
+        Long getRequestsVersion();
+    }
+
+    interface CampaignRecipient {
+        Long getId();
+
+        String getName();
+
+        String getEmail();
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import java.util.List;
 
 public interface HousekeepingRequestRepository extends JpaRepository<HousekeepingRequest, Long> {
     List<HousekeepingRequest> findByGuestIdOrderByCreatedAtDesc(Long guestId);
+    List<HousekeepingRequest> findByGuestIdAndGuestVersionGreaterThan(Long guestId, Long guestVersion);
     List<HousekeepingRequest> findByStatusOrderByCreatedAtDesc(String status);
     List<HousekeepingRequest> findByRoomIdOrderByCreatedAtDesc(Long roomId);
     List<HousekeepingRequest> findAllByOrderByCreatedAtDesc();
@@ -0,0 +1,33 @@
+package com.example.hotelservice.repository;
+
+import com.example.hotelservice.entity.NotificationLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationLogRepository extends JpaRepository<NotificationLogEntry, Long> {
+
+    List<NotificationLogEntry> findBySeqGreaterThanOrderBySeqAsc(Long after, Pageable pageable);
+
+    List<NotificationLogEntry> findBySeqInOrderBySeqAsc(Collection<Long> seqs);
+
+    @Query("SELECT MIN(e.seq) FROM NotificationLogEntry e")
+    Long findOldestSeq();
+
+    @Query("SELECT MAX(e.seq) FROM NotificationLogEntry e")
+    Long findLatestSeq();
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notification_log WHERE seq IN " +
+            "(SELECT seq FROM notification_log WHERE created_at < :cutoff ORDER BY seq LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
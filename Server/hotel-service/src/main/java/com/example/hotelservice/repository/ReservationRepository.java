@@ -1,6 +1,7 @@
 package com.example.hotelservice.repository;
 
 import com.example.hotelservice.entity.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -32,4 +33,11 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
                                       @Param("id") Long id);
 
     List<Reservation> findByGuestEmail(String email);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.room " +
+            "WHERE r.guest.id = :guestId AND r.startDate <= :date AND r.endDate >= :date " +
+            "ORDER BY r.startDate DESC")
+    List<Reservation> findActiveForGuest(@Param("guestId") Long guestId,
+                                         @Param("date") LocalDate date,
+                                         Pageable pageable);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.hotelservice.repository;
 
 import com.example.hotelservice.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +12,8 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByRoomIdOrderByCreatedAtDesc(Long roomId);
 
+    List<Review> findByRoomIdOrderByCreatedAtDesc(Long roomId, Pageable pageable);
+
     List<Review> findByGuestIdOrderByCreatedAtDesc(Long guestId);
 
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.room.id = :roomId")
@@ -18,4 +21,21 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT COUNT(r) FROM Review r WHERE r.room.id = :roomId")
     Long countReviewsForRoom(@Param("roomId") Long roomId);
+
+    @Query("SELECT r.room.id AS roomId, r.room.number AS roomNumber, COUNT(r) AS reviewCount, " +
+            "MAX(r.id) AS lastReviewId, AVG(r.rating) AS averageRating " +
+            "FROM Review r GROUP BY r.room.id, r.room.number")
+    List<RoomReviewStats> findReviewStatsPerRoom();
+
+    interface RoomReviewStats {
+        Long getRoomId();
+
+        String getRoomNumber();
+
+        Long getReviewCount();
+
+        Long getLastReviewId();
+
+        Double getAverageRating();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.hotelservice.repository;
+
+import com.example.hotelservice.entity.RoomReviewSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomReviewSummaryRepository extends JpaRepository<RoomReviewSummary, Long> {
+    Optional<RoomReviewSummary> findByRoomId(Long roomId);
+
+    List<RoomReviewSummary> findAllByOrderByRoomNumberAsc();
+}
@@ -10,6 +10,7 @@ import java.util.List;
 
 public interface RoomServiceRequestRepository extends JpaRepository<RoomServiceRequest, Long> {
     List<RoomServiceRequest> findByGuestIdOrderByCreatedAtDesc(Long guestId);
+    List<RoomServiceRequest> findByGuestIdAndGuestVersionGreaterThan(Long guestId, Long guestVersion);
     List<RoomServiceRequest> findByStatusOrderByCreatedAtDesc(String status);
     List<RoomServiceRequest> findAllByOrderByCreatedAtDesc();
 
@@ -0,0 +1,79 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.ActiveStayDTO;
+import com.example.hotelservice.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves the reservation a guest is currently staying under. Results (including "no stay") are
+ * cached per guest for the current day and evicted by {@link ReservationService} whenever one of
+ * the guest's reservations changes.
+ */
+@Service
+public class ActiveStayService {
+
+    private record CachedStay(Optional<ActiveStayDTO> stay, LocalDate day, long expiresAt) {
+    }
+
+    private final ReservationRepository reservationRepository;
+    private final Map<Long, CachedStay> cache;
+    private final long ttlMillis;
+
+    public ActiveStayService(ReservationRepository reservationRepository,
+                             @Value("${reservations.active-stay-cache.max-entries:2000}") int maxEntries,
+                             @Value("${reservations.active-stay-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.reservationRepository = reservationRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedStay> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public Optional<ActiveStayDTO> findActiveStay(Long guestId) {
+        LocalDate today = LocalDate.now();
+        CachedStay cached = cache.get(guestId);
+        if (cached != null && cached.day().equals(today) && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.stay();
+        }
+
+        Optional<ActiveStayDTO> stay = reservationRepository
+                .findActiveForGuest(guestId, today, PageRequest.of(0, 1))
+                .stream()
+                .findFirst()
+                .map(ActiveStayDTO::new);
+        cache.put(guestId, new CachedStay(stay, today, System.currentTimeMillis() + ttlMillis));
+        return stay;
+    }
+
+    /**
+     * Drops the cached stay for a guest. Inside a transaction the entry is dropped again after
+     * commit, so a concurrent lookup cannot re-cache the pre-commit state.
+     */
+    public void evict(Long guestId) {
+        if (guestId == null) {
+            return;
+        }
+        cache.remove(guestId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(guestId);
+                }
+            });
+        }
+    }
+}
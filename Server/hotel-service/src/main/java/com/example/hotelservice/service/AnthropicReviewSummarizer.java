@@ -0,0 +1,34 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.Review;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+@Service
+public class AnthropicReviewSummarizer implements ReviewSummarizer {
+
+    private static final String SYSTEM_PROMPT =
+            "Rezumi recenziile oaspeților pentru o cameră de hotel, pentru managerii hotelului. " +
+                    "Răspunde doar cu rezumatul, în română, în cel mult 4 propoziții: ce apreciază oaspeții, " +
+                    "ce nemulțumiri revin și orice problemă care cere atenția personalului.";
+
+    private static final LlmCallTags TAGS = LlmCallTags.of("review_summary");
+
+    private final AnthropicService anthropicService;
+
+    public AnthropicReviewSummarizer(AnthropicService anthropicService) {
+        this.anthropicService = anthropicService;
+    }
+
+    @Override
+    public String summarize(String roomNumber, List<Review> reviews) throws IOException {
+        StringBuilder prompt = new StringBuilder("Camera ").append(roomNumber).append(". Recenzii:\n");
+        for (Review review : reviews) {
+            prompt.append("- ").append(review.getRating()).append("/5: ").append(review.getComment()).append('\n');
+        }
+        String summary = anthropicService.chat(TAGS, ConversationContext.empty(), prompt.toString(), SYSTEM_PROMPT);
+        return AnthropicService.FALLBACK_REPLY.equals(summary) ? null : summary;
+    }
+}
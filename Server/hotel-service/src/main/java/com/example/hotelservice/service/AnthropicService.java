@@ -1,20 +1,43 @@
 package com.example.hotelservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Service
 public class AnthropicService {
 
+    public static final String FALLBACK_REPLY =
+            "Ne pare rău, asistentul virtual nu este disponibil momentan. " +
+                    "Te rog să încerci din nou în câteva minute sau să contactezi recepția.";
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
     private final OkHttpClient client;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final LlmMetrics llmMetrics;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long bulkheadMaxWaitMs;
+    private final int maxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
 
     @Value("${anthropic.api.key}")
     private String apiKey;
@@ -22,63 +45,283 @@ public class AnthropicService {
     @Value("${anthropic.model}")
     private String model;
 
-    public AnthropicService() {
-        this.client = new OkHttpClient();
-        this.objectMapper = new ObjectMapper();
+    @Value("${anthropic.api.url:https://api.anthropic.com/v1/messages}")
+    private String apiUrl;
+
+    public AnthropicService(OkHttpClient anthropicHttpClient,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            LlmMetrics llmMetrics,
+                            @Value("${anthropic.max-concurrent-calls:16}") int maxConcurrentCalls,
+                            @Value("${anthropic.bulkhead.max-wait-ms:250}") long bulkheadMaxWaitMs,
+                            @Value("${anthropic.retry.max-attempts:3}") int maxAttempts,
+                            @Value("${anthropic.retry.base-delay-ms:250}") long retryBaseDelayMs,
+                            @Value("${anthropic.retry.max-delay-ms:4000}") long retryMaxDelayMs,
+                            @Value("${anthropic.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${anthropic.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.client = anthropicHttpClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.llmMetrics = llmMetrics;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        this.bulkheadMaxWaitMs = bulkheadMaxWaitMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+
+        Gauge.builder("anthropic.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("anthropic.circuit.open", circuitBreaker,
+                        cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
     }
 
+    /**
+     * Sends one message to the model. Upstream overload (bulkhead full, circuit open, retries
+     * exhausted on 429/5xx or I/O errors) yields {@link #FALLBACK_REPLY} instead of an exception, so
+     * a slow API degrades the chat rather than tying up request threads. Configuration problems and
+     * other 4xx responses are still reported as {@link IOException}.
+     */
     public String chat(String userMessage, String systemPrompt) throws IOException {
+        return chat(LlmCallTags.UNTAGGED, ConversationContext.empty(), userMessage, systemPrompt);
+    }
+
+    /**
+     * Same as {@link #chat(String, String)}, with earlier turns replayed as messages and the rolling
+     * summary appended to the system prompt. The static system prompt is marked cacheable so the
+     * shared prefix is billed at the prompt-cache rate on repeat calls. The call is reported under
+     * {@code tags}.
+     */
+    public String chat(LlmCallTags tags, ConversationContext context, String userMessage, String systemPrompt)
+            throws IOException {
+        ObjectNode requestBody = buildRequestBody(context, userMessage, systemPrompt);
+
+        LlmCall call = new LlmCall(tags);
+        JsonNode jsonResponse = execute(buildRequest(requestBody), call, body -> {
+            JsonNode json = objectMapper.readTree(body.string());
+            call.mergeUsage(json.get("usage"));
+            return json;
+        });
+        if (jsonResponse == null) {
+            return FALLBACK_REPLY;
+        }
+        return jsonResponse.get("content").get(0).get("text").asText();
+    }
+
+    /**
+     * Streams a reply with the given tools available. Each tool call is handed to
+     * {@code toolCallListener} as soon as its arguments are complete, while the model may still be
+     * generating. Returns the streamed text, or {@link #FALLBACK_REPLY} when the upstream is
+     * unavailable; tool calls that completed before a mid-stream failure have already been
+     * delivered and are not repeated.
+     */
+    public String chatWithTools(LlmCallTags tags, ConversationContext context, String userMessage, String systemPrompt,
+                                ArrayNode tools, ToolCallListener toolCallListener) throws IOException {
+        ObjectNode requestBody = buildRequestBody(context, userMessage, systemPrompt);
+        requestBody.put("stream", true);
+        requestBody.set("tools", tools);
+
+        LlmCall call = new LlmCall(tags);
+        String text = execute(buildRequest(requestBody), call,
+                body -> new MessageStreamReader(objectMapper, toolCallListener, call).read(body.source()));
+        return text != null ? text : FALLBACK_REPLY;
+    }
+
+    private ObjectNode buildRequestBody(ConversationContext context, String userMessage, String systemPrompt)
+            throws IOException {
         if (apiKey == null || apiKey.isEmpty() || apiKey.startsWith("${")) {
             throw new IOException("ANTHROPIC_API_KEY is not configured. Please set it in environment variables.");
         }
 
-        System.out.println("🔑 Using API key: " + (apiKey.substring(0, Math.min(10, apiKey.length())) + "..."));
-        System.out.println("🤖 Model: " + model);
-
         ObjectNode requestBody = objectMapper.createObjectNode();
         requestBody.put("model", model);
         requestBody.put("max_tokens", 1024);
 
+        ArrayNode system = objectMapper.createArrayNode();
         if (systemPrompt != null && !systemPrompt.isEmpty()) {
-            requestBody.put("system", systemPrompt);
+            ObjectNode promptBlock = system.addObject();
+            promptBlock.put("type", "text");
+            promptBlock.put("text", systemPrompt);
+            promptBlock.putObject("cache_control").put("type", "ephemeral");
+        }
+        if (context.summary() != null) {
+            ObjectNode summaryBlock = system.addObject();
+            summaryBlock.put("type", "text");
+            summaryBlock.put("text", "Rezumatul conversației anterioare cu acest oaspete: " + context.summary());
+        }
+        if (!system.isEmpty()) {
+            requestBody.set("system", system);
         }
 
-        ArrayNode messages = objectMapper.createArrayNode();
-        ObjectNode userMsg = objectMapper.createObjectNode();
-        userMsg.put("role", "user");
-        userMsg.put("content", userMessage);
-        messages.add(userMsg);
-
-        requestBody.set("messages", messages);
-
-        RequestBody body = RequestBody.create(
-                requestBody.toString(),
-                MediaType.parse("application/json")
-        );
-
-        System.out.println("📡 Sending request to Anthropic API...");
+        ArrayNode messages = requestBody.putArray("messages");
+        for (ConversationContext.Turn turn : context.turns()) {
+            addMessage(messages, "user", turn.userMessage());
+            addMessage(messages, "assistant", turn.assistantReply());
+        }
+        addMessage(messages, "user", userMessage);
+        return requestBody;
+    }
 
-        Request request = new Request.Builder()
-                .url("https://api.anthropic.com/v1/messages")
+    private Request buildRequest(ObjectNode requestBody) {
+        return new Request.Builder()
+                .url(apiUrl)
                 .addHeader("x-api-key", apiKey)
                 .addHeader("anthropic-version", "2023-06-01")
                 .addHeader("content-type", "application/json")
-                .post(body)
+                .post(RequestBody.create(requestBody.toString(), JSON))
                 .build();
+    }
+
+    private static void addMessage(ArrayNode messages, String role, String content) {
+        ObjectNode message = messages.addObject();
+        message.put("role", role);
+        message.put("content", content);
+    }
+
+    @FunctionalInterface
+    private interface BodyHandler<T> {
+        T handle(ResponseBody body) throws IOException;
+    }
+
+    /**
+     * Runs the call inside the bulkhead and circuit breaker, retrying retryable failures.
+     * Returns {@code null} when the caller should fall back.
+     */
+    private <T> T execute(Request request, LlmCall call, BodyHandler<T> handler) throws IOException {
+        String outcome = "error";
+        try {
+            if (!acquireBulkhead()) {
+                outcome = "rejected";
+                log.warn("Limita de apeluri Anthropic este atinsă, se trimite răspunsul de rezervă");
+                return null;
+            }
+            try {
+                if (!circuitBreaker.tryAcquire()) {
+                    outcome = "short_circuited";
+                    return null;
+                }
+                T result = executeWithRetry(request, handler);
+                outcome = result != null ? "success" : "retries_exhausted";
+                return result;
+            } catch (BodyFailure e) {
+                outcome = "stream_failed";
+                return null;
+            } finally {
+                bulkhead.release();
+            }
+        } finally {
+            llmMetrics.record(call, model, outcome);
+        }
+    }
+
+    private <T> T executeWithRetry(Request request, BodyHandler<T> handler) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            long retryAfterMs = -1;
+            String reason;
+            String clientError = null;
+            try (Response response = client.newCall(request).execute()) {
+                if (response.isSuccessful()) {
+                    return handleBody(response, handler);
+                }
+
+                String responseBody = response.body() != null ? response.body().string() : "";
+                int code = response.code();
+                reason = String.valueOf(code);
+                if (isRetryable(code)) {
+                    retryAfterMs = parseRetryAfter(response.header("retry-after"));
+                } else {
+                    clientError = "API request failed with code " + code + ": " + responseBody;
+                }
+            } catch (BodyFailure e) {
+                throw e;
+            } catch (InterruptedIOException e) {
+                reason = "timeout";
+            } catch (IOException e) {
+                reason = "io";
+            }
 
-        try (Response response = client.newCall(request).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "null";
+            if (clientError != null) {
+                // Our request is wrong (bad key, bad payload): not a sign of upstream trouble.
+                circuitBreaker.release();
+                log.error("Eroare API Anthropic: {}", clientError);
+                throw new IOException(clientError);
+            }
 
-            if (!response.isSuccessful()) {
-                System.err.println("❌ API Error - Code: " + response.code());
-                System.err.println("❌ Response: " + responseBody);
-                throw new IOException("API request failed with code " + response.code() + ": " + responseBody);
+            if (attempt >= maxAttempts) {
+                circuitBreaker.onFailure();
+                log.warn("Apelul Anthropic a eșuat după {} încercări (ultima: {})", attempt, reason);
+                return null;
             }
 
-            System.out.println("✅ API Response received");
-            JsonNode jsonResponse = objectMapper.readTree(responseBody);
+            meterRegistry.counter("anthropic.retries", "reason", reason).increment();
+            sleep(retryAfterMs >= 0 ? Math.min(retryAfterMs, retryMaxDelayMs) : backoffDelay(attempt));
+        }
+    }
+
+    /** Signals a failure after the response started; never retried, since a stream may have had effects. */
+    private static class BodyFailure extends IOException {
+        BodyFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private <T> T handleBody(Response response, BodyHandler<T> handler) throws IOException {
+        try {
+            T result = handler.handle(response.body());
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (MessageStreamReader.ContentFailure | JsonProcessingException e) {
+            // The upstream answered, just not usefully: no reason to stop calling it.
+            circuitBreaker.release();
+            log.warn("Răspunsul Anthropic nu poate fi folosit: {}", e.getMessage());
+            throw new BodyFailure(e);
+        } catch (IOException e) {
+            circuitBreaker.onFailure();
+            log.warn("Răspunsul Anthropic s-a întrerupt în timpul citirii: {}", e.getMessage());
+            throw new BodyFailure(e);
+        } catch (RuntimeException e) {
+            circuitBreaker.release();
+            throw e;
+        }
+    }
+
+    private boolean acquireBulkhead() throws InterruptedIOException {
+        try {
+            return bulkhead.tryAcquire(bulkheadMaxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Anthropic bulkhead");
+        }
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == 429 || code == 529 || code >= 500;
+    }
+
+    /** Exponential backoff with full jitter. */
+    private long backoffDelay(int attempt) {
+        long ceiling = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static long parseRetryAfter(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return (long) (Double.parseDouble(header.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 
-            return jsonResponse.get("content").get(0).get("text").asText();
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during Anthropic retry backoff");
         }
     }
 }
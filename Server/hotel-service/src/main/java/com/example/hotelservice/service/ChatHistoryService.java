@@ -0,0 +1,114 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.config.AsyncConfig;
+import com.example.hotelservice.dto.ChatHistoryItemDTO;
+import com.example.hotelservice.dto.ChatHistoryPageDTO;
+import com.example.hotelservice.entity.ChatMessage;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.exception.InvalidRequestException;
+import com.example.hotelservice.exception.ResourceNotFoundException;
+import com.example.hotelservice.repository.ChatMessageRepository;
+import com.example.hotelservice.repository.GuestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads a guest's chat history page by page and enforces the retention window on stored turns.
+ * Pages use a keyset cursor on {@code (created_at, id)}, so reading deep into the history costs the
+ * same index range scan as reading the first page.
+ */
+@Slf4j
+@Service
+public class ChatHistoryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final GuestRepository guestRepository;
+
+    @Value("${chat.history.retention.days:180}")
+    private long retentionDays;
+
+    @Value("${chat.history.retention.batch-size:500}")
+    private int retentionBatchSize;
+
+    public ChatHistoryService(ChatMessageRepository chatMessageRepository, GuestRepository guestRepository) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.guestRepository = guestRepository;
+    }
+
+    public ChatHistoryPageDTO getHistory(String guestEmail, String cursor, Integer size) {
+        Guest guest = guestRepository.findByEmail(guestEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Oaspetele nu a fost găsit."));
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether an older page exists without a count query.
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<ChatMessage> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = chatMessageRepository.findLatestAfter(guest.getId(), 0L, page);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            rows = chatMessageRepository.findPageBefore(guest.getId(), position.createdAt(), position.id(), page);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatMessage> items = hasMore ? rows.subList(0, pageSize) : rows;
+        ChatMessage last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return ChatHistoryPageDTO.builder()
+                .items(items.stream().map(ChatHistoryItemDTO::new).toList())
+                .nextCursor(hasMore ? new Cursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Deletes turns older than the retention window in small batches, each in its own short
+     * transaction, so the purge never holds long locks on {@code chat_messages}. What the assistant
+     * needs from old turns already lives in the rolling conversation summary.
+     */
+    @Scheduled(cron = "${chat.history.retention.cron:0 30 3 * * *}")
+    @Async(AsyncConfig.REPORT_EXECUTOR)
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = chatMessageRepository.deleteOlderThan(cutoff, retentionBatchSize);
+            deleted += batch;
+        } while (batch == retentionBatchSize);
+        if (deleted > 0) {
+            log.info("Retenția istoricului de chat a șters {} mesaje mai vechi de {}", deleted, cutoff);
+        }
+    }
+
+    record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidRequestException("Cursorul pentru istoricul conversației nu este valid.");
+            }
+        }
+    }
+}
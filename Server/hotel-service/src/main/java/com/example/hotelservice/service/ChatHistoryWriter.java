@@ -0,0 +1,272 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for chat turns. {@link #append} only enqueues; a background thread inserts
+ * queued turns in JDBC batches once {@code batch-size} turns are waiting or {@code flush-interval-ms}
+ * has passed since the oldest one arrived.
+ *
+ * <p>Durability: at most {@code flush-interval-ms} worth of turns (never more than
+ * {@code queue-capacity}) is in memory at any time. The queue is drained on shutdown, and a full
+ * queue makes the caller write its turn synchronously instead of dropping it. While the database is
+ * unreachable the worker keeps its batch and retries it with a growing back-off; only rows the
+ * database rejects are dropped. Setting
+ * {@code chat.history.write-behind.enabled=false} writes every turn on the request thread.
+ */
+@Slf4j
+@Service
+public class ChatHistoryWriter {
+
+    static final String INSERT_SQL =
+            "INSERT INTO chat_messages (guest_id, message, response, role, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String ROLE = "assistant";
+
+    /** Wakes the worker from its poll on shutdown; never written. */
+    private static final PendingTurn WAKE_UP = new PendingTurn(null, null, null, null);
+
+    public record PendingTurn(Long guestId, String message, String response, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingTurn> queue;
+    private final Map<Long, Deque<PendingTurn>> pendingByGuest = new ConcurrentHashMap<>();
+    private final boolean writeBehind;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final long shutdownTimeoutMs;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter syncWrites;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ChatHistoryWriter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${chat.history.write-behind.enabled:true}") boolean writeBehind,
+                             @Value("${chat.history.write-behind.flush-interval-ms:20}") long flushIntervalMs,
+                             @Value("${chat.history.write-behind.batch-size:100}") int batchSize,
+                             @Value("${chat.history.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${chat.history.write-behind.shutdown-timeout-ms:5000}") long shutdownTimeoutMs,
+                             @Value("${chat.history.write-behind.retry-backoff-ms:100}") long retryBackoffMs,
+                             @Value("${chat.history.write-behind.max-retry-backoff-ms:2000}") long maxRetryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writeBehind = writeBehind;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.batchSize = batchSize;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+
+        this.flushTimer = meterRegistry.timer("chat.history.flush");
+        this.batchSizes = meterRegistry.summary("chat.history.batch.size");
+        this.syncWrites = meterRegistry.counter("chat.history.sync-writes");
+        this.dropped = meterRegistry.counter("chat.history.dropped");
+        Gauge.builder("chat.history.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!writeBehind) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "chat-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Lets the worker drain whatever is still queued before the application context closes. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            queue.offer(WAKE_UP);
+            worker.join(shutdownTimeoutMs);
+            if (worker.isAlive()) {
+                log.error("Scrierea istoricului de chat nu s-a golit în {} ms, {} mesaje nu au fost salvate",
+                        shutdownTimeoutMs, queue.size());
+            }
+        }
+    }
+
+    public void append(Long guestId, String message, String response) {
+        PendingTurn turn = new PendingTurn(guestId, message, response, LocalDateTime.now());
+        if (!writeBehind || !running) {
+            syncWrites.increment();
+            drop(flush(List.of(turn)));
+            return;
+        }
+        trackPending(turn);
+        if (!queue.offer(turn)) {
+            // Back-pressure instead of loss: the caller pays for its own insert.
+            syncWrites.increment();
+            drop(flush(List.of(turn)));
+            untrackPending(List.of(turn));
+        }
+    }
+
+    /** Turns of the guest that are accepted but not yet committed, oldest first. */
+    public List<PendingTurn> pendingFor(Long guestId) {
+        Deque<PendingTurn> pending = pendingByGuest.get(guestId);
+        return pending == null ? List.of() : new ArrayList<>(pending);
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            List<PendingTurn> batch = new ArrayList<>(batchSize);
+            try {
+                PendingTurn first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == WAKE_UP) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingTurn next = remaining > 0 && running
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null || next == WAKE_UP) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                untrackPending(batch);
+            }
+        }
+    }
+
+    /** Retries turns the database could not be reached for until it is back or the writer stops. */
+    private void write(List<PendingTurn> batch) {
+        List<PendingTurn> unwritten = flush(batch);
+        long backoffMs = retryBackoffMs;
+        while (!unwritten.isEmpty() && running) {
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                break;
+            }
+            backoffMs = Math.min(backoffMs * 2, maxRetryBackoffMs);
+            unwritten = flush(unwritten);
+        }
+        drop(unwritten);
+    }
+
+    /**
+     * Inserts the batch and returns the turns that could not be written because the database was
+     * unreachable. Any other failure drops only the rows it belongs to.
+     */
+    private List<PendingTurn> flush(List<PendingTurn> batch) {
+        batchSizes.record(batch.size());
+        try {
+            flushTimer.record(() -> insert(batch));
+            return List.of();
+        } catch (RuntimeException e) {
+            if (isConnectionFailure(e)) {
+                log.warn("Baza de date pentru istoricul de chat este indisponibilă, {} mesaje sunt păstrate pentru reîncercare: {}",
+                        batch.size(), e.getMessage());
+                return batch;
+            }
+            if (batch.size() == 1) {
+                dropped.increment();
+                log.error("Mesajul de chat pentru oaspetele {} nu a putut fi salvat: {}", batch.get(0).guestId(), e.getMessage());
+                return List.of();
+            }
+            // One bad row fails the whole batch; retry row by row so only that row is lost.
+            log.warn("Lotul de {} mesaje de chat a eșuat, se reîncearcă individual: {}", batch.size(), e.getMessage());
+            List<PendingTurn> unwritten = new ArrayList<>();
+            for (PendingTurn turn : batch) {
+                unwritten.addAll(flush(List.of(turn)));
+            }
+            return unwritten;
+        }
+    }
+
+    private static boolean isConnectionFailure(RuntimeException e) {
+        return e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException;
+    }
+
+    private void drop(List<PendingTurn> turns) {
+        if (!turns.isEmpty()) {
+            dropped.increment(turns.size());
+            log.error("Baza de date pentru istoricul de chat este indisponibilă, {} mesaje nu au fost salvate", turns.size());
+        }
+    }
+
+    private void insert(List<PendingTurn> batch) {
+        transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                (ps, turn) -> {
+                    ps.setLong(1, turn.guestId());
+                    ps.setString(2, turn.message());
+                    ps.setString(3, turn.response());
+                    ps.setString(4, ROLE);
+                    ps.setTimestamp(5, Timestamp.valueOf(turn.createdAt()));
+                }));
+    }
+
+    private void trackPending(PendingTurn turn) {
+        pendingByGuest.compute(turn.guestId(), (id, pending) -> {
+            Deque<PendingTurn> turns = pending != null ? pending : new ConcurrentLinkedDeque<>();
+            turns.addLast(turn);
+            return turns;
+        });
+    }
+
+    private void untrackPending(List<PendingTurn> batch) {
+        for (PendingTurn turn : batch) {
+            pendingByGuest.computeIfPresent(turn.guestId(), (id, pending) -> {
+                pending.removeFirstOccurrence(turn);
+                return pending.isEmpty() ? null : pending;
+            });
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.hotelservice.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Recognizes clear-cut room service and housekeeping requests locally, so they do not need a model
+ * round trip. Keywords live in a word-level trie matched against the normalized message; anything
+ * ambiguous (questions, negations, requests for information, long messages, mixed intents) is left
+ * to the model.
+ *
+ * <p>A bare item only counts when a request cue governs it: the cue comes right before the item, with
+ * at most an article or quantity word in between ("bring a burger"), or the item continues a list
+ * the cue started ("a burger and a beer"). "Breakfast hours please" or "vreau să știu ... micul
+ * dejun" are not orders. Nothing but courtesy and the room number may follow a bare item either:
+ * in "vreau apă caldă" or "I need the water heater fixed" the item is not what is asked for.
+ */
+@Service
+public class ChatIntentClassifier {
+
+    public static final String ROOM_SERVICE = "room_service";
+    public static final String HOUSEKEEPING = "housekeeping";
+
+    private static final int MAX_TOKENS = 12;
+
+    // Words that may follow a bare item without changing what is asked for ("... în camera 204, mulțumesc").
+    private static final Set<String> TRAILING = Set.of("multumesc", "mersi", "thanks", "thank", "you",
+            "in", "la", "camera", "room", "to", "my", "mea", "nr", "numarul", "number");
+
+    public record Intent(String action, String type, String description) {
+    }
+
+    private enum Kind { ITEM, CUE, BLOCK, FILLER }
+
+    private record Entry(Kind kind, String action, String type, String description, boolean selfContained) {
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Entry entry;
+    }
+
+    private final Node root = new Node();
+
+    public ChatIntentClassifier() {
+        // Phrases that carry their own request verb ("order pizza") are self-contained;
+        // bare items ("pizza") need a request cue such as "vreau" or "please".
+        food("pizza", "Pizza");
+        food("burger", "Burger");
+        food("hamburger", "Burger");
+        food("sandwich", "Sandwich");
+        food("sendvis", "Sandwich");
+        food("salata", "Salată");
+        food("salad", "Salată");
+        food("supa", "Supă");
+        food("soup", "Supă");
+        food("pasta", "Paste");
+        food("micul dejun", "Mic dejun");
+        food("mic dejun", "Mic dejun");
+        food("breakfast", "Mic dejun");
+        food("cafea", "Cafea");
+        food("coffee", "Cafea");
+        food("ceai", "Ceai");
+        food("tea", "Ceai");
+        food("apa", "Apă");
+        food("water", "Apă");
+        food("suc", "Suc");
+        food("juice", "Suc");
+        food("cola", "Cola");
+        food("bere", "Bere");
+        food("beer", "Bere");
+        food("vin rosu", "Vin roșu");
+        food("vin alb", "Vin alb");
+        food("wine", "Vin");
+        food("sampanie", "Șampanie");
+        food("champagne", "Șampanie");
+        food("desert", "Desert");
+        food("dessert", "Desert");
+        food("inghetata", "Înghețată");
+        food("ice cream", "Înghețată");
+        food("fructe", "Fructe");
+        food("fruit", "Fructe");
+
+        housekeeping("curatenie", "CLEANING", "Curățenie cameră", false);
+        housekeeping("cleaning", "CLEANING", "Curățenie cameră", false);
+        housekeeping("curatati camera", "CLEANING", "Curățenie cameră", true);
+        housekeeping("curatati", "CLEANING", "Curățenie cameră", true);
+        housekeeping("faceti curat", "CLEANING", "Curățenie cameră", true);
+        housekeeping("clean my room", "CLEANING", "Curățenie cameră", true);
+        housekeeping("clean the room", "CLEANING", "Curățenie cameră", true);
+        housekeeping("schimbati lenjeria", "CLEANING", "Schimbare lenjerie", true);
+        housekeeping("lenjerie", "CLEANING", "Schimbare lenjerie", false);
+        housekeeping("change the sheets", "CLEANING", "Schimbare lenjerie", true);
+        housekeeping("sheets", "CLEANING", "Schimbare lenjerie", false);
+        housekeeping("prosoape", "SUPPLIES", "Prosoape curate", false);
+        housekeeping("towels", "SUPPLIES", "Prosoape curate", false);
+        housekeeping("need towels", "SUPPLIES", "Prosoape curate", true);
+        housekeeping("hartie igienica", "SUPPLIES", "Hârtie igienică", false);
+        housekeeping("toilet paper", "SUPPLIES", "Hârtie igienică", false);
+        housekeeping("sapun", "SUPPLIES", "Săpun", false);
+        housekeeping("soap", "SUPPLIES", "Săpun", false);
+        housekeeping("sampon", "SUPPLIES", "Șampon", false);
+        housekeeping("shampoo", "SUPPLIES", "Șampon", false);
+        housekeeping("perna", "SUPPLIES", "Pernă suplimentară", false);
+        housekeeping("pillow", "SUPPLIES", "Pernă suplimentară", false);
+        housekeeping("patura", "SUPPLIES", "Pătură suplimentară", false);
+        housekeeping("blanket", "SUPPLIES", "Pătură suplimentară", false);
+        housekeeping("nu merge aerul conditionat", "MAINTENANCE", "Aerul condiționat nu funcționează", true);
+        housekeeping("aerul conditionat nu merge", "MAINTENANCE", "Aerul condiționat nu funcționează", true);
+        housekeeping("air conditioning is broken", "MAINTENANCE", "Aerul condiționat nu funcționează", true);
+        housekeeping("nu merge televizorul", "MAINTENANCE", "Televizorul nu funcționează", true);
+        housekeeping("televizorul nu merge", "MAINTENANCE", "Televizorul nu funcționează", true);
+        housekeeping("tv is broken", "MAINTENANCE", "Televizorul nu funcționează", true);
+        housekeeping("nu curge apa calda", "MAINTENANCE", "Nu curge apă caldă", true);
+        housekeeping("no hot water", "MAINTENANCE", "Nu curge apă caldă", true);
+        housekeeping("becul", "MAINTENANCE", "Bec ars", false);
+        housekeeping("becul s a ars", "MAINTENANCE", "Bec ars", true);
+        housekeeping("light bulb", "MAINTENANCE", "Bec ars", false);
+
+        cue("vreau");
+        cue("as vrea");
+        cue("as dori");
+        cue("doresc");
+        cue("am nevoie de");
+        cue("nevoie de");
+        cue("are nevoie de");
+        cue("imi trebuie");
+        cue("aduceti");
+        cue("aduceti mi");
+        cue("trimiteti");
+        cue("comand");
+        cue("as comanda");
+        cue("va rog");
+        cue("please");
+        cue("i want");
+        cue("i would like");
+        cue("i d like");
+        cue("i need");
+        cue("need");
+        cue("bring");
+        cue("send");
+        cue("order");
+        cue("can i get");
+        cue("can i have");
+
+        // Questions and negations are where keyword matching gets it wrong; hand those to the model.
+        for (String word : List.of("nu", "fara", "anulati", "anuleaza", "not", "no", "don", "dont", "cancel",
+                "cat", "cand", "unde", "ce", "care", "cum", "aveti", "exista", "se", "poate",
+                "how", "when", "where", "what", "which", "do", "does", "is", "are")) {
+            block(word);
+        }
+        // So are questions about an item (schedule, menu, price, advice) asked without a question mark.
+        for (String word : List.of("program", "programul", "ora", "orele", "orar", "orarul", "deschis",
+                "meniu", "meniul", "pret", "pretul", "preturi", "preturile", "costa", "recomandare",
+                "recomandari", "recomandati", "stiu", "hours", "hour", "time", "open", "opens", "menu",
+                "price", "prices", "cost", "recommendation", "recommendations", "recommend", "know")) {
+            block(word);
+        }
+        for (String word : List.of("a", "an", "the", "some", "more", "another", "one", "two", "three",
+                "un", "o", "niste", "mai", "inca", "doua", "trei", "and", "si")) {
+            filler(word);
+        }
+    }
+
+    public Optional<Intent> classify(String message) {
+        if (message == null || message.contains("?")) {
+            return Optional.empty();
+        }
+        String normalized = ChatTextNormalizer.normalize(message);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        String[] tokens = normalized.split(" ");
+        if (tokens.length > MAX_TOKENS) {
+            return Optional.empty();
+        }
+
+        List<Entry> items = new ArrayList<>();
+        // Whether an item at this point would be the object of a request cue.
+        boolean governed = false;
+        // Whether the last item needs a cue; only courtesy and the room number may follow it.
+        boolean afterBareItem = false;
+        int i = 0;
+        while (i < tokens.length) {
+            Entry match = null;
+            int matchEnd = i;
+            Node node = root;
+            for (int j = i; j < tokens.length; j++) {
+                node = node.children.get(tokens[j]);
+                if (node == null) {
+                    break;
+                }
+                if (node.entry != null) {
+                    match = node.entry;
+                    matchEnd = j + 1;
+                }
+            }
+            if (match == null) {
+                if (afterBareItem && !isTrailing(tokens[i])) {
+                    return Optional.empty();
+                }
+                governed = false;
+                i++;
+                continue;
+            }
+            // A self-contained phrase may legitimately contain a blocking word ("nu merge televizorul").
+            if (match.kind() == Kind.BLOCK) {
+                return Optional.empty();
+            }
+            if (match.kind() == Kind.CUE) {
+                governed = true;
+            } else if (match.kind() == Kind.ITEM) {
+                if (!governed && !match.selfContained()) {
+                    return Optional.empty();
+                }
+                items.add(match);
+                governed = true;
+                afterBareItem = !match.selfContained();
+            }
+            i = matchEnd;
+        }
+
+        if (items.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String action = items.get(0).action();
+        String type = items.get(0).type();
+        Set<String> descriptions = new LinkedHashSet<>();
+        for (Entry item : items) {
+            if (!item.action().equals(action)) {
+                return Optional.empty();
+            }
+            if (HOUSEKEEPING.equals(action) && !item.type().equals(type)) {
+                return Optional.empty();
+            }
+            descriptions.add(item.description());
+        }
+
+        return Optional.of(new Intent(action, type, String.join(", ", descriptions)));
+    }
+
+    private static boolean isTrailing(String token) {
+        return TRAILING.contains(token) || token.chars().allMatch(Character::isDigit);
+    }
+
+    private void food(String phrase, String item) {
+        insert(phrase, new Entry(Kind.ITEM, ROOM_SERVICE, null, item, false));
+        insert("order " + phrase, new Entry(Kind.ITEM, ROOM_SERVICE, null, item, true));
+        insert("comand " + phrase, new Entry(Kind.ITEM, ROOM_SERVICE, null, item, true));
+    }
+
+    private void housekeeping(String phrase, String type, String description, boolean selfContained) {
+        insert(phrase, new Entry(Kind.ITEM, HOUSEKEEPING, type, description, selfContained));
+    }
+
+    private void cue(String phrase) {
+        insert(phrase, new Entry(Kind.CUE, null, null, null, false));
+    }
+
+    private void block(String word) {
+        insert(word, new Entry(Kind.BLOCK, null, null, null, false));
+    }
+
+    private void filler(String word) {
+        insert(word, new Entry(Kind.FILLER, null, null, null, false));
+    }
+
+    private void insert(String phrase, Entry entry) {
+        Node node = root;
+        for (String token : phrase.split(" ")) {
+            node = node.children.computeIfAbsent(token, k -> new Node());
+        }
+        if (node.entry == null || node.entry.kind() != Kind.ITEM) {
+            node.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.ChatConversationSummary;
+import com.example.hotelservice.entity.ChatMessage;
+import com.example.hotelservice.repository.ChatConversationSummaryRepository;
+import com.example.hotelservice.repository.ChatMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the chat context sent to the model bounded: the last {@code windowTurns} turns go verbatim,
+ * everything older is folded into a per-guest rolling summary by a background compaction step.
+ */
+@Slf4j
+@Service
+public class ChatMemoryService {
+
+    private static final String SUMMARY_PROMPT =
+            "Rezumi conversații dintre un oaspete și asistentul virtual al hotelului. " +
+                    "Primești rezumatul existent și replicile noi. Răspunde doar cu rezumatul actualizat, " +
+                    "în română, în cel mult 5 propoziții. Păstrează preferințele oaspetelui, cererile făcute " +
+                    "și orice detaliu util pentru conversațiile următoare.";
+
+    private static final LlmCallTags SUMMARY_TAGS = LlmCallTags.of("chat_summary");
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatConversationSummaryRepository summaryRepository;
+    private final ChatHistoryWriter chatHistoryWriter;
+    private final AnthropicService anthropicService;
+    private final Set<Long> compacting = ConcurrentHashMap.newKeySet();
+
+    @Value("${chat.memory.window-turns:6}")
+    private int windowTurns;
+
+    @Value("${chat.memory.compact-batch:10}")
+    private int compactBatch;
+
+    @Value("${chat.memory.session-gap-minutes:30}")
+    private long sessionGapMinutes;
+
+    @Value("${chat.memory.max-summary-chars:1500}")
+    private int maxSummaryChars;
+
+    public ChatMemoryService(ChatMessageRepository chatMessageRepository,
+                             ChatConversationSummaryRepository summaryRepository,
+                             ChatHistoryWriter chatHistoryWriter,
+                             AnthropicService anthropicService) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.summaryRepository = summaryRepository;
+        this.chatHistoryWriter = chatHistoryWriter;
+        this.anthropicService = anthropicService;
+    }
+
+    public ConversationContext loadContext(Long guestId) {
+        Optional<ChatConversationSummary> summary = summaryRepository.findByGuestId(guestId);
+        long afterId = summary.map(ChatConversationSummary::getLastMessageId).orElse(0L);
+
+        List<ChatMessage> latest = chatMessageRepository.findLatestAfter(guestId, afterId, PageRequest.of(0, windowTurns));
+        // Turns still in the write-behind queue are newer than anything in the table.
+        List<ChatHistoryWriter.PendingTurn> pending = chatHistoryWriter.pendingFor(guestId);
+        if (latest.isEmpty() && pending.isEmpty() && summary.isEmpty()) {
+            return ConversationContext.empty();
+        }
+
+        LocalDateTime lastTurnAt = !pending.isEmpty() ? pending.get(pending.size() - 1).createdAt()
+                : !latest.isEmpty() ? latest.get(0).getCreatedAt() : null;
+        boolean active = lastTurnAt != null && lastTurnAt.isAfter(LocalDateTime.now().minusMinutes(sessionGapMinutes));
+
+        List<ConversationContext.Turn> turns = new ArrayList<>(latest.size() + pending.size());
+        for (ChatMessage message : latest) {
+            turns.add(new ConversationContext.Turn(message.getMessage(), message.getResponse()));
+        }
+        Collections.reverse(turns);
+        for (ChatHistoryWriter.PendingTurn turn : pending) {
+            turns.add(new ConversationContext.Turn(turn.message(), turn.response()));
+        }
+        if (turns.size() > windowTurns) {
+            turns = new ArrayList<>(turns.subList(turns.size() - windowTurns, turns.size()));
+        }
+
+        return new ConversationContext(summary.map(ChatConversationSummary::getSummary).orElse(null), turns, active);
+    }
+
+    /**
+     * Folds the oldest turns outside the verbatim window into the summary once enough of them have
+     * piled up. Runs off the request thread; at most one compaction per guest at a time.
+     */
+    @Async
+    public void compactIfNeeded(Long guestId) {
+        if (!compacting.add(guestId)) {
+            return;
+        }
+        try {
+            ChatConversationSummary summary = summaryRepository.findByGuestId(guestId)
+                    .orElse(ChatConversationSummary.builder().guestId(guestId).lastMessageId(0L).build());
+
+            long unsummarized = chatMessageRepository.countAfter(guestId, summary.getLastMessageId());
+            if (unsummarized < windowTurns + compactBatch) {
+                return;
+            }
+
+            List<ChatMessage> oldest = chatMessageRepository.findOldestAfter(
+                    guestId, summary.getLastMessageId(), PageRequest.of(0, compactBatch));
+
+            String updated = anthropicService.chat(SUMMARY_TAGS, ConversationContext.empty(),
+                    buildTranscript(summary.getSummary(), oldest), SUMMARY_PROMPT);
+            if (AnthropicService.FALLBACK_REPLY.equals(updated)) {
+                return;
+            }
+
+            summary.setSummary(updated.length() > maxSummaryChars ? updated.substring(0, maxSummaryChars) : updated);
+            summary.setLastMessageId(oldest.get(oldest.size() - 1).getId());
+            summaryRepository.save(summary);
+        } catch (Exception e) {
+            log.warn("Compactarea conversației pentru oaspetele {} a eșuat: {}", guestId, e.getMessage());
+        } finally {
+            compacting.remove(guestId);
+        }
+    }
+
+    private static String buildTranscript(String previousSummary, List<ChatMessage> turns) {
+        StringBuilder transcript = new StringBuilder();
+        transcript.append("Rezumat existent: ")
+                .append(previousSummary != null ? previousSummary : "(niciunul)")
+                .append("\n\nReplici noi:\n");
+        for (ChatMessage turn : turns) {
+            transcript.append("Oaspete: ").append(turn.getMessage()).append('\n')
+                    .append("Asistent: ").append(turn.getResponse()).append('\n');
+        }
+        return transcript.toString();
+    }
+}
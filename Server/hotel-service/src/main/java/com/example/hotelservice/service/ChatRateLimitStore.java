@@ -0,0 +1,11 @@
+package com.example.hotelservice.service;
+
+/**
+ * Holds the per-guest token buckets of {@link ChatRateLimiter}. The in-memory store limits each node
+ * on its own; the JDBC store shares the buckets between nodes through the database.
+ */
+public interface ChatRateLimitStore {
+
+    ChatRateLimiter.Decision tryConsume(String key, TokenBucketPolicy burst, TokenBucketPolicy sustained,
+                                        long nowMillis);
+}
@@ -0,0 +1,108 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-guest limit on chat messages, enforced with two token buckets: a small burst bucket that
+ * refills quickly and a larger sustained bucket that refills slowly. A message needs a token from
+ * both, so short flurries are allowed while steady spamming is not.
+ */
+@Service
+public class ChatRateLimiter {
+
+    public static final String BURST = "burst";
+    public static final String SUSTAINED = "sustained";
+
+    public record Decision(boolean allowed, String limitedBy, long retryAfterMillis) {
+
+        static final Decision ALLOWED = new Decision(true, null, 0);
+    }
+
+    /** Token counts of one key; callers guard it with the store's lock for that key. */
+    static final class Buckets {
+        double burstTokens;
+        double sustainedTokens;
+        long updatedAtMillis;
+
+        Buckets(double burstTokens, double sustainedTokens, long updatedAtMillis) {
+            this.burstTokens = burstTokens;
+            this.sustainedTokens = sustainedTokens;
+            this.updatedAtMillis = updatedAtMillis;
+        }
+
+        static Buckets full(TokenBucketPolicy burst, TokenBucketPolicy sustained, long nowMillis) {
+            return new Buckets(burst.capacity(), sustained.capacity(), nowMillis);
+        }
+
+        Decision tryConsume(TokenBucketPolicy burst, TokenBucketPolicy sustained, long nowMillis) {
+            long elapsed = nowMillis - updatedAtMillis;
+            burstTokens = burst.refill(burstTokens, elapsed);
+            sustainedTokens = sustained.refill(sustainedTokens, elapsed);
+            updatedAtMillis = Math.max(updatedAtMillis, nowMillis);
+
+            if (sustainedTokens < 1) {
+                return new Decision(false, SUSTAINED, sustained.millisUntilToken(sustainedTokens));
+            }
+            if (burstTokens < 1) {
+                return new Decision(false, BURST, burst.millisUntilToken(burstTokens));
+            }
+            burstTokens--;
+            sustainedTokens--;
+            return Decision.ALLOWED;
+        }
+
+        boolean isFull(TokenBucketPolicy burst, TokenBucketPolicy sustained, long nowMillis) {
+            long elapsed = nowMillis - updatedAtMillis;
+            return burst.refill(burstTokens, elapsed) >= burst.capacity()
+                    && sustained.refill(sustainedTokens, elapsed) >= sustained.capacity();
+        }
+    }
+
+    private final ChatRateLimitStore store;
+    private final TokenBucketPolicy burst;
+    private final TokenBucketPolicy sustained;
+    private final boolean enabled;
+
+    private final Counter allowed;
+    private final Counter rejectedBurst;
+    private final Counter rejectedSustained;
+
+    public ChatRateLimiter(ChatRateLimitStore store,
+                           MeterRegistry meterRegistry,
+                           @Value("${chat.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${chat.rate-limit.burst.capacity:5}") int burstCapacity,
+                           @Value("${chat.rate-limit.burst.refill-per-minute:20}") double burstRefillPerMinute,
+                           @Value("${chat.rate-limit.sustained.capacity:120}") int sustainedCapacity,
+                           @Value("${chat.rate-limit.sustained.refill-per-hour:120}") double sustainedRefillPerHour) {
+        this.store = store;
+        this.enabled = enabled;
+        this.burst = TokenBucketPolicy.of(burstCapacity, burstRefillPerMinute, 60_000);
+        this.sustained = TokenBucketPolicy.of(sustainedCapacity, sustainedRefillPerHour, 3_600_000);
+
+        this.allowed = meterRegistry.counter("chat.rate-limit.requests", "result", "allowed", "bucket", "none");
+        this.rejectedBurst = meterRegistry.counter("chat.rate-limit.requests", "result", "rejected", "bucket", BURST);
+        this.rejectedSustained = meterRegistry.counter("chat.rate-limit.requests", "result", "rejected", "bucket", SUSTAINED);
+    }
+
+    public Decision tryAcquire(String key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    Decision tryAcquire(String key, long nowMillis) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+        Decision decision = store.tryConsume(key, burst, sustained, nowMillis);
+        if (decision.allowed()) {
+            allowed.increment();
+        } else if (BURST.equals(decision.limitedBy())) {
+            rejectedBurst.increment();
+        } else {
+            rejectedSustained.increment();
+        }
+        return decision;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches model replies to frequently asked questions, keyed by the normalized question text.
+ * Concurrent misses for the same question share a single upstream call.
+ */
+@Service
+public class ChatResponseCache {
+
+    @FunctionalInterface
+    public interface ReplyLoader {
+        String load() throws IOException;
+    }
+
+    private record CachedReply(String reply, long expiresAt) {
+    }
+
+    private final Map<String, CachedReply> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxQuestionLength;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter bypassed;
+
+    public ChatResponseCache(MeterRegistry meterRegistry,
+                             @Value("${chat.cache.ttl-seconds:3600}") long ttlSeconds,
+                             @Value("${chat.cache.max-entries:1000}") int maxEntries,
+                             @Value("${chat.cache.max-question-length:200}") int maxQuestionLength) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxQuestionLength = maxQuestionLength;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReply> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.hits = meterRegistry.counter("chat.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("chat.cache.requests", "result", "miss");
+        this.coalesced = meterRegistry.counter("chat.cache.requests", "result", "coalesced");
+        this.bypassed = meterRegistry.counter("chat.cache.requests", "result", "bypass");
+        Gauge.builder("chat.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public String getOrLoad(String question, ReplyLoader loader) throws IOException {
+        String key = ChatTextNormalizer.normalize(question);
+        if (key.isEmpty() || key.length() > maxQuestionLength) {
+            bypassed.increment();
+            return loader.load();
+        }
+
+        CachedReply cached = entries.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return cached.reply();
+            }
+            entries.remove(key);
+        }
+
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        misses.increment();
+        try {
+            String reply = loader.load();
+            if (isCacheable(reply)) {
+                entries.put(key, new CachedReply(reply, System.currentTimeMillis() + ttlMillis));
+            }
+            pending.complete(reply);
+            return reply;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    public double getHitRate() {
+        double total = hits.count() + misses.count() + coalesced.count();
+        return total == 0 ? 0.0 : (hits.count() + coalesced.count()) / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Only plain conversational answers are shared between guests; structured actions and the
+     * outage fallback are always fetched fresh.
+     */
+    private static boolean isCacheable(String reply) {
+        return reply != null
+                && !AnthropicService.FALLBACK_REPLY.equals(reply)
+                && !reply.contains("\"action\"");
+    }
+
+    private static String await(CompletableFuture<String> leader) throws IOException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a coalesced chat reply");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
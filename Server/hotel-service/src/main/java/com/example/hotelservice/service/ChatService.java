@@ -1,98 +1,209 @@
 package com.example.hotelservice.service;
 
+import com.example.hotelservice.dto.ActiveStayDTO;
 import com.example.hotelservice.dto.ChatResponseDTO;
 import com.example.hotelservice.dto.HousekeepingRequestDTO;
 import com.example.hotelservice.dto.RoomServiceRequestDTO;
-import com.example.hotelservice.entity.ChatMessage;
 import com.example.hotelservice.entity.Guest;
-import com.example.hotelservice.entity.Reservation;
-import com.example.hotelservice.repository.ChatMessageRepository;
 import com.example.hotelservice.repository.GuestRepository;
-import com.example.hotelservice.repository.ReservationRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+@Slf4j
 @Service
 public class ChatService {
 
+    static final String ENDPOINT = "chat";
+
+    private static final Pattern MARKDOWN_JSON_BLOCK = Pattern.compile("```json\\s*\\n(.+?)\\n```", Pattern.DOTALL);
+
     private final AnthropicService anthropicService;
+    private final ChatResponseCache responseCache;
+    private final ChatIntentClassifier intentClassifier;
+    private final ChatMemoryService chatMemoryService;
     private final RoomServiceRequestService roomServiceRequestService;
     private final HousekeepingRequestService housekeepingRequestService;
-    private final ChatMessageRepository chatMessageRepository;
+    private final ChatHistoryWriter chatHistoryWriter;
     private final GuestRepository guestRepository;
-    private final ReservationRepository reservationRepository;
+    private final ActiveStayService activeStayService;
     private final ObjectMapper objectMapper;
+    private final ArrayNode tools;
+    private final Counter localIntents;
+
+    @Value("${chat.log.sample-rate:0.1}")
+    private double logSampleRate;
 
     public ChatService(AnthropicService anthropicService,
+                      ChatResponseCache responseCache,
+                      ChatIntentClassifier intentClassifier,
+                      ChatMemoryService chatMemoryService,
                       RoomServiceRequestService roomServiceRequestService,
                       HousekeepingRequestService housekeepingRequestService,
-                      ChatMessageRepository chatMessageRepository,
+                      ChatHistoryWriter chatHistoryWriter,
                       GuestRepository guestRepository,
-                      ReservationRepository reservationRepository) {
+                      ActiveStayService activeStayService,
+                      MeterRegistry meterRegistry) {
         this.anthropicService = anthropicService;
+        this.responseCache = responseCache;
+        this.intentClassifier = intentClassifier;
+        this.chatMemoryService = chatMemoryService;
         this.roomServiceRequestService = roomServiceRequestService;
         this.housekeepingRequestService = housekeepingRequestService;
-        this.chatMessageRepository = chatMessageRepository;
+        this.chatHistoryWriter = chatHistoryWriter;
         this.guestRepository = guestRepository;
-        this.reservationRepository = reservationRepository;
+        this.activeStayService = activeStayService;
         this.objectMapper = new ObjectMapper();
+        this.tools = buildTools();
+        this.localIntents = meterRegistry.counter("chat.intent.local");
     }
 
     public ChatResponseDTO processMessage(String message, String userEmail) throws IOException {
-        System.out.println("📥 Received message from: " + userEmail + " - Message: " + message);
-
+        long start = System.nanoTime();
         Guest guest = guestRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Guest not found"));
 
+        Optional<ChatIntentClassifier.Intent> intent = intentClassifier.classify(message);
+        if (intent.isPresent()) {
+            localIntents.increment();
+            ObjectNode actionJson = toActionJson(intent.get());
+            saveChatMessage(guest, message, actionJson.toString());
+            ChatResponseDTO result = handleAction(actionJson, guest);
+            logExchange(guest, "local", null, result, start);
+            return result;
+        }
+
         String systemPrompt = buildSystemPrompt();
-        System.out.println("🤖 Calling Anthropic API...");
-        String response = anthropicService.chat(message, systemPrompt);
-        System.out.println("✅ AI Response: " + response);
+        String cohort = activeStayService.findActiveStay(guest.getId()).isPresent() ? "in_house" : "prospect";
+        LlmCallTags tags = new LlmCallTags(ENDPOINT, cohort);
+        // A returning guest keeps the rolling summary; the recent turns only matter within the session.
+        // Shared FAQ answers are only for guests with no context at all: mid-conversation follow-ups
+        // ("și cât costă?") and summarized preferences need the guest's own reply.
+        ConversationContext context = chatMemoryService.loadContext(guest.getId());
+        ConversationContext requestContext = context.active() ? context : context.withoutTurns();
 
-        ChatMessage chatMessage = ChatMessage.builder()
-                .guest(guest)
-                .message(message)
-                .response(response)
-                .role("assistant")
-                .build();
-        chatMessageRepository.save(chatMessage);
+        // Tool calls are executed while the reply is still streaming. The stored reply for a tool
+        // call is the equivalent action JSON, which also lets coalesced cache followers run the
+        // action for themselves through parseResponse.
+        AtomicReference<ObjectNode> toolAction = new AtomicReference<>();
+        AtomicReference<ChatResponseDTO> toolResult = new AtomicReference<>();
+        ToolCallListener onToolCall = (toolName, input) -> {
+            if (toolAction.get() != null || !input.isObject()) {
+                return;
+            }
+            ObjectNode action = ((ObjectNode) input).deepCopy();
+            action.put("action", toolName);
+            ChatResponseDTO handled = handleAction(action, guest);
+            if (handled != null) {
+                toolAction.set(action);
+                toolResult.set(handled);
+            }
+        };
+        ChatResponseCache.ReplyLoader loader = () -> {
+            String text = anthropicService.chatWithTools(tags, requestContext, message, systemPrompt, tools, onToolCall);
+            return toolAction.get() != null ? toolAction.get().toString() : text;
+        };
+
+        String response = requestContext.isEmpty() ? responseCache.getOrLoad(message, loader) : loader.load();
+
+        saveChatMessage(guest, message, response);
+        chatMemoryService.compactIfNeeded(guest.getId());
 
-        ChatResponseDTO result = parseResponse(response, guest);
-        System.out.println("📤 Sending response - Action: " + result.getAction());
+        ChatResponseDTO result = toolResult.get() != null ? toolResult.get() : parseResponse(response, guest);
+        logExchange(guest, "model", cohort, result, start);
         return result;
     }
 
+    /** One line per exchange; message text is left out so guest content does not end up in logs. */
+    private void logExchange(Guest guest, String path, String cohort, ChatResponseDTO result, long startNanos) {
+        if (ThreadLocalRandom.current().nextDouble() >= logSampleRate) {
+            return;
+        }
+        log.info("chat_exchange guest_id={} path={} cohort={} action={} duration_ms={}",
+                guest.getId(), path, cohort, result.getAction(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void saveChatMessage(Guest guest, String message, String response) {
+        chatHistoryWriter.append(guest.getId(), message, response);
+    }
+
+    private ObjectNode toActionJson(ChatIntentClassifier.Intent intent) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("action", intent.action());
+        if (ChatIntentClassifier.ROOM_SERVICE.equals(intent.action())) {
+            json.put("request", intent.description());
+        } else {
+            json.put("type", intent.type());
+            json.put("description", intent.description());
+        }
+        return json;
+    }
+
     private String buildSystemPrompt() {
         return "Ești un asistent virtual pentru un hotel. Scopul tău este să ajuți oaspeții cu:\n" +
                 "1. Informații despre hotel și facilități\n" +
                 "2. Room service - comenzi mâncare, băuturi, articole pentru cameră\n" +
                 "3. Housekeeping - curățenie camere, schimbare lenjerie, reparații\n" +
                 "4. Recomandări locale - atracții turistice, restaurante, transport\n\n" +
-                "Când un oaspete cere ceva specific (room service sau housekeeping), răspunde în format JSON astfel:\n" +
-                "Pentru room service: {\"action\":\"room_service\",\"request\":\"descrierea cererii\"}\n" +
-                "Pentru housekeeping: {\"action\":\"housekeeping\",\"type\":\"CLEANING/MAINTENANCE/SUPPLIES\",\"description\":\"descrierea problemei\"}\n" +
-                "Pentru conversații normale, răspunde natural în română, fără JSON.\n\n" +
+                "Când un oaspete cere ceva specific, folosește instrumentul potrivit:\n" +
+                "- room_service pentru comenzi de mâncare, băuturi sau articole livrate în cameră\n" +
+                "- housekeeping pentru curățenie, lenjerie, consumabile sau reparații\n" +
+                "Pentru conversații normale, răspunde natural în română, fără a folosi instrumente.\n\n" +
                 "Exemple:\n" +
-                "- \"Vreau să comand pizza\" -> {\"action\":\"room_service\",\"request\":\"Pizza\"}\n" +
-                "- \"Camera mea are nevoie de curățenie\" -> {\"action\":\"housekeeping\",\"type\":\"CLEANING\",\"description\":\"Curățenie cameră\"}\n" +
+                "- \"Vreau să comand pizza\" -> room_service cu request \"Pizza\"\n" +
+                "- \"Camera mea are nevoie de curățenie\" -> housekeeping cu type CLEANING și description \"Curățenie cameră\"\n" +
                 "- \"Ce atracții turistice sunt în zonă?\" -> răspuns normal text\n\n" +
                 "Fii prietenos, profesionist și eficient!";
     }
 
+    private ArrayNode buildTools() {
+        ArrayNode toolList = objectMapper.createArrayNode();
+
+        ObjectNode roomService = toolList.addObject();
+        roomService.put("name", "room_service");
+        roomService.put("description", "Înregistrează o comandă de room service (mâncare, băuturi, articole) pentru camera oaspetelui.");
+        ObjectNode roomServiceSchema = roomService.putObject("input_schema");
+        roomServiceSchema.put("type", "object");
+        roomServiceSchema.putObject("properties").putObject("request")
+                .put("type", "string")
+                .put("description", "Ce a comandat oaspetele, pe scurt");
+        roomServiceSchema.putArray("required").add("request");
+
+        ObjectNode housekeeping = toolList.addObject();
+        housekeeping.put("name", "housekeeping");
+        housekeeping.put("description", "Înregistrează o cerere de housekeeping (curățenie, consumabile, reparații) pentru camera oaspetelui.");
+        ObjectNode housekeepingSchema = housekeeping.putObject("input_schema");
+        housekeepingSchema.put("type", "object");
+        ObjectNode properties = housekeepingSchema.putObject("properties");
+        ObjectNode type = properties.putObject("type");
+        type.put("type", "string");
+        type.putArray("enum").add("CLEANING").add("MAINTENANCE").add("SUPPLIES");
+        properties.putObject("description")
+                .put("type", "string")
+                .put("description", "Descrierea problemei sau a cererii");
+        housekeepingSchema.putArray("required").add("type").add("description");
+
+        return toolList;
+    }
+
     private String extractJsonFromMarkdown(String response) {
-        Pattern pattern = Pattern.compile("```json\\s*\\n(.+?)\\n```", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(response);
+        Matcher matcher = MARKDOWN_JSON_BLOCK.matcher(response);
         if (matcher.find()) {
-            String extracted = matcher.group(1).trim();
-            System.out.println("🔍 Extracted JSON from markdown: " + extracted);
-            return extracted;
+            return matcher.group(1).trim();
         }
         return response;
     }
@@ -102,68 +213,9 @@ public class ChatService {
             if (response.contains("\"action\":")) {
                 String jsonString = extractJsonFromMarkdown(response);
                 JsonNode jsonResponse = objectMapper.readTree(jsonString);
-                String action = jsonResponse.get("action").asText();
-
-                if ("room_service".equals(action)) {
-                    String request = jsonResponse.get("request").asText();
-
-                    Reservation activeReservation = reservationRepository.findAll().stream()
-                            .filter(r -> r.getGuest().getId().equals(guest.getId()))
-                            .filter(r -> !r.getStartDate().isAfter(LocalDate.now()))
-                            .filter(r -> !r.getEndDate().isBefore(LocalDate.now()))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (activeReservation != null) {
-                        RoomServiceRequestDTO dto = RoomServiceRequestDTO.builder()
-                                .request(request)
-                                .roomId(activeReservation.getRoom().getId())
-                                .build();
-                        var created = roomServiceRequestService.createRequest(dto, guest.getEmail());
-                        return ChatResponseDTO.builder()
-                                .response("Am înregistrat cererea ta pentru room service: " + request + ". Personalul nostru te va contacta în curând!")
-                                .action("room_service")
-                                .actionData(created)
-                                .build();
-                    } else {
-                        return ChatResponseDTO.builder()
-                                .response("Nu am găsit o rezervare activă pentru tine. Te rog să contactezi recepția pentru asistență.")
-                                .action("error")
-                                .build();
-                    }
-                }
-
-                if ("housekeeping".equals(action)) {
-                    String type = jsonResponse.get("type").asText();
-                    String description = jsonResponse.get("description").asText();
-
-                    Reservation activeReservation = reservationRepository.findAll().stream()
-                            .filter(r -> r.getGuest().getId().equals(guest.getId()))
-                            .filter(r -> !r.getStartDate().isAfter(LocalDate.now()))
-                            .filter(r -> !r.getEndDate().isBefore(LocalDate.now()))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (activeReservation != null) {
-                        HousekeepingRequestDTO dto = HousekeepingRequestDTO.builder()
-                                .roomId(activeReservation.getRoom().getId())
-                                .requestType(type)
-                                .description(description)
-                                .priority("NORMAL")
-                                .build();
-                        var created = housekeepingRequestService.createRequest(dto, guest.getEmail());
-
-                        return ChatResponseDTO.builder()
-                                .response("Am înregistrat cererea ta pentru housekeeping: " + description + ". Echipa de curățenie va fi notificată!")
-                                .action("housekeeping")
-                                .actionData(created)
-                                .build();
-                    } else {
-                        return ChatResponseDTO.builder()
-                                .response("Nu am găsit o rezervare activă pentru tine. Te rog să contactezi recepția pentru asistență.")
-                                .action("error")
-                                .build();
-                    }
+                ChatResponseDTO result = handleAction(jsonResponse, guest);
+                if (result != null) {
+                    return result;
                 }
             }
         } catch (JsonProcessingException e) {
@@ -174,4 +226,76 @@ public class ChatService {
                 .action("conversation")
                 .build();
     }
+
+    // Tool input comes from the model and may be incomplete; a missing field asks the guest instead of failing.
+    private ChatResponseDTO handleAction(JsonNode jsonResponse, Guest guest) {
+        String action = jsonResponse.path("action").asText();
+
+        if ("room_service".equals(action)) {
+            String request = jsonResponse.path("request").asText().trim();
+            if (request.isEmpty()) {
+                return clarification();
+            }
+
+            ActiveStayDTO activeStay = activeStayService.findActiveStay(guest.getId()).orElse(null);
+
+            if (activeStay != null) {
+                RoomServiceRequestDTO dto = RoomServiceRequestDTO.builder()
+                        .request(request)
+                        .roomId(activeStay.getRoomId())
+                        .build();
+                var created = roomServiceRequestService.createRequest(dto, guest.getEmail());
+                return ChatResponseDTO.builder()
+                        .response("Am înregistrat cererea ta pentru room service: " + request + ". Personalul nostru te va contacta în curând!")
+                        .action("room_service")
+                        .actionData(created)
+                        .build();
+            } else {
+                return ChatResponseDTO.builder()
+                        .response("Nu am găsit o rezervare activă pentru tine. Te rog să contactezi recepția pentru asistență.")
+                        .action("error")
+                        .build();
+            }
+        }
+
+        if ("housekeeping".equals(action)) {
+            String type = jsonResponse.path("type").asText().trim();
+            String description = jsonResponse.path("description").asText().trim();
+            if (type.isEmpty() || description.isEmpty()) {
+                return clarification();
+            }
+
+            ActiveStayDTO activeStay = activeStayService.findActiveStay(guest.getId()).orElse(null);
+
+            if (activeStay != null) {
+                HousekeepingRequestDTO dto = HousekeepingRequestDTO.builder()
+                        .roomId(activeStay.getRoomId())
+                        .requestType(type)
+                        .description(description)
+                        .priority("NORMAL")
+                        .build();
+                var created = housekeepingRequestService.createRequest(dto, guest.getEmail());
+
+                return ChatResponseDTO.builder()
+                        .response("Am înregistrat cererea ta pentru housekeeping: " + description + ". Echipa de curățenie va fi notificată!")
+                        .action("housekeeping")
+                        .actionData(created)
+                        .build();
+            } else {
+                return ChatResponseDTO.builder()
+                        .response("Nu am găsit o rezervare activă pentru tine. Te rog să contactezi recepția pentru asistență.")
+                        .action("error")
+                        .build();
+            }
+        }
+
+        return null;
+    }
+
+    private static ChatResponseDTO clarification() {
+        return ChatResponseDTO.builder()
+                .response("Nu am înțeles exact ce dorești. Te rog să-mi spui mai multe detalii despre cerere.")
+                .action("conversation")
+                .build();
+    }
 }
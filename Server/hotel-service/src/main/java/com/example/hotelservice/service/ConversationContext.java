@@ -0,0 +1,26 @@
+package com.example.hotelservice.service;
+
+import java.util.List;
+
+/**
+ * What the model gets to see of an earlier conversation: a rolling summary of old turns plus the
+ * most recent turns verbatim, oldest first.
+ */
+public record ConversationContext(String summary, List<Turn> turns, boolean active) {
+
+    public record Turn(String userMessage, String assistantReply) {
+    }
+
+    public static ConversationContext empty() {
+        return new ConversationContext(null, List.of(), false);
+    }
+
+    public boolean isEmpty() {
+        return summary == null && turns.isEmpty();
+    }
+
+    /** The summary alone, for a guest coming back after the session gap. */
+    public ConversationContext withoutTurns() {
+        return new ConversationContext(summary, List.of(), false);
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.config.AsyncConfig;
+import com.example.hotelservice.entity.EmailCampaign;
+import com.example.hotelservice.repository.EmailCampaignRepository;
+import com.example.hotelservice.repository.GuestRepository;
+import com.example.hotelservice.repository.GuestRepository.CampaignRecipient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Sends a bulk campaign to every guest. Recipients are read in keyset pages ordered by guest id, only
+ * id, name and email, so memory stays flat however many guests there are. Each batch goes out over one
+ * SMTP connection, paced by a token bucket shared by all campaigns, and the last guest id of the batch
+ * is checkpointed; a paused, failed or interrupted campaign continues after that id.
+ *
+ * <p>Campaigns run on their own executor, one thread each and no queue. A run claims the campaign when
+ * it starts and refreshes its heartbeat at every checkpoint. Campaigns left {@code RUNNING} with a
+ * stale heartbeat, e.g. after a restart, are picked up again by {@link #resumeStalled()}. A crash between sending a batch and checkpointing it sends that batch twice.
+ */
+@Slf4j
+@Service
+public class EmailCampaignSender {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailCampaignRepository campaignRepository;
+    private final GuestRepository guestRepository;
+    private final JavaMailSender mailSender;
+    private final Executor campaignExecutor;
+    private final int pageSize;
+    private final int batchSize;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final Duration lease;
+    private final TokenBucketPolicy rate;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    private double tokens;
+    private long lastRefillMillis = System.nanoTime() / 1_000_000;
+
+    public EmailCampaignSender(EmailCampaignRepository campaignRepository,
+                               GuestRepository guestRepository,
+                               JavaMailSender mailSender,
+                               @Qualifier(AsyncConfig.CAMPAIGN_EXECUTOR) Executor campaignExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${email.campaign.page-size:500}") int pageSize,
+                               @Value("${email.campaign.batch-size:25}") int batchSize,
+                               @Value("${email.campaign.rate-per-second:10}") double ratePerSecond,
+                               @Value("${email.campaign.max-retries:5}") int maxRetries,
+                               @Value("${email.campaign.retry-backoff-ms:30000}") long retryBackoffMillis,
+                               @Value("${email.campaign.lease-seconds:120}") long leaseSeconds) {
+        this.campaignRepository = campaignRepository;
+        this.guestRepository = guestRepository;
+        this.mailSender = mailSender;
+        this.campaignExecutor = campaignExecutor;
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.rate = TokenBucketPolicy.of(batchSize, ratePerSecond, 1000);
+        this.tokens = batchSize;
+
+        this.sent = meterRegistry.counter("email.campaign.sent", "result", "sent");
+        this.failed = meterRegistry.counter("email.campaign.sent", "result", "failed");
+        this.batchTimer = meterRegistry.timer("email.campaign.batch");
+    }
+
+    /**
+     * Subject and body are compiled as one email template, with {@code {{guestName}}} and
+     * {@code {{guestEmail}}} as parameters.
+     */
+    static EmailTemplate compile(String name, String subject, String body) {
+        return EmailTemplate.compile(name, subject + "\n\n" + body, Map.of());
+    }
+
+    /**
+     * Hands the campaign to a free campaign thread, which sends it unless another run holds it. Returns
+     * false when every campaign thread is busy; the campaign then waits for {@link #resumeStalled()}.
+     */
+    public boolean launch(Long campaignId) {
+        try {
+            campaignExecutor.execute(() -> claimAndRun(campaignId));
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Campania #{} nu a putut fi pornită acum: {}", campaignId, e.getMessage());
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.campaign.resume-check-ms:60000}")
+    public void resumeStalled() {
+        try {
+            for (Long id : campaignRepository.findStalledIds(LocalDateTime.now().minus(lease))) {
+                if (launch(id)) {
+                    log.info("Campania #{} este reluată de la ultimul punct de control", id);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Eroare la reluarea campaniilor de email: {}", e.getMessage());
+        }
+    }
+
+    // Claimed on the thread that sends, so a claim is never held by a run that has not started.
+    void claimAndRun(Long campaignId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (campaignRepository.claim(campaignId, now, now.minus(lease)) == 0) {
+            return;
+        }
+        run(campaignId);
+    }
+
+    void run(Long campaignId) {
+        try {
+            EmailCampaign campaign = campaignRepository.findById(campaignId).orElse(null);
+            if (campaign == null) {
+                return;
+            }
+            EmailTemplate template = compile(campaign.getName(), campaign.getSubject(), campaign.getBody());
+            long afterId = campaign.getLastGuestId();
+            while (true) {
+                List<CampaignRecipient> page = guestRepository.findRecipientsAfter(afterId, PageRequest.of(0, pageSize));
+                for (int from = 0; from < page.size(); from += batchSize) {
+                    if (!EmailCampaign.RUNNING.equals(campaignRepository.findStatusById(campaignId))) {
+                        campaignRepository.release(campaignId);
+                        log.info("Campania #{} s-a oprit după destinatarul #{}", campaignId, afterId);
+                        return;
+                    }
+                    List<CampaignRecipient> batch = page.subList(from, Math.min(from + batchSize, page.size()));
+                    int failures = send(campaignId, afterId, template, batch);
+                    afterId = batch.get(batch.size() - 1).getId();
+                    campaignRepository.checkpoint(campaignId, afterId, batch.size() - failures, failures,
+                            LocalDateTime.now());
+                }
+                if (page.size() < pageSize) {
+                    campaignRepository.finish(campaignId, EmailCampaign.COMPLETED, null, LocalDateTime.now());
+                    log.info("Campania #{} a fost finalizată", campaignId);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Left RUNNING on purpose: resumeStalled() continues it once the lease expires.
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Campania #{} a fost suspendată: {}", campaignId, e.getMessage());
+            campaignRepository.finish(campaignId, EmailCampaign.PAUSED, truncate(e.getMessage()), null);
+        }
+    }
+
+    /**
+     * Sends one batch and returns how many recipients failed. A batch the server rejects as a whole
+     * (connection, authentication) is retried; after {@code max-retries} the exception ends the run.
+     */
+    private int send(Long campaignId, long checkpoint, EmailTemplate template, List<CampaignRecipient> batch)
+            throws InterruptedException {
+        List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+        for (CampaignRecipient recipient : batch) {
+            if (recipient.getEmail() != null && !recipient.getEmail().isBlank()) {
+                messages.add(toMessage(template, recipient));
+            }
+        }
+        int skipped = batch.size() - messages.size();
+        failed.increment(skipped);
+        if (messages.isEmpty()) {
+            return skipped;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            acquire(messages.size());
+            try {
+                batchTimer.record(() -> mailSender.send(messages.toArray(new SimpleMailMessage[0])));
+                sent.increment(messages.size());
+                return skipped;
+            } catch (MailException e) {
+                if (e instanceof MailSendException sendException && !sendException.getFailedMessages().isEmpty()) {
+                    // The transport worked; only these recipients were refused, retrying would not help.
+                    return recordPartial(messages.size(), sendException.getFailedMessages().size()) + skipped;
+                }
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                backOff(campaignId, checkpoint, attempt, e);
+            }
+        }
+    }
+
+    private int recordPartial(int attempted, int failures) {
+        sent.increment(attempted - failures);
+        failed.increment(failures);
+        return failures;
+    }
+
+    private void backOff(Long campaignId, long checkpoint, int attempt, MailException e) throws InterruptedException {
+        long delay = Math.min(retryBackoffMillis * attempt, lease.toMillis() / 2);
+        log.warn("Trimiterea unui lot din campania #{} a eșuat (încercarea {}), reîncercare în {} ms: {}",
+                campaignId, attempt, delay, e.getMessage());
+        // Keeps the heartbeat fresh so the wait does not look like a dead run.
+        campaignRepository.checkpoint(campaignId, checkpoint, 0, 0, LocalDateTime.now());
+        Thread.sleep(delay);
+    }
+
+    /** Takes {@code permits} tokens, going into debt if needed, and waits until the debt is paid off. */
+    private void acquire(int permits) throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime() / 1_000_000;
+            tokens = rate.refill(tokens, now - lastRefillMillis) - permits;
+            lastRefillMillis = now;
+            wait = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate.tokensPerMilli());
+        }
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    private static SimpleMailMessage toMessage(EmailTemplate template, CampaignRecipient recipient) {
+        Map<String, String> params = Map.of(
+                "guestName", recipient.getName() != null ? recipient.getName() : "",
+                "guestEmail", recipient.getEmail());
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(recipient.getEmail());
+        message.setSubject(template.renderSubject(params));
+        message.setText(template.renderBody(params));
+        return message;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
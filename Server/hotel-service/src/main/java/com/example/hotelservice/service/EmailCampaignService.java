@@ -0,0 +1,108 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.EmailCampaignDTO;
+import com.example.hotelservice.dto.EmailCampaignRequestDTO;
+import com.example.hotelservice.entity.EmailCampaign;
+import com.example.hotelservice.exception.InvalidRequestException;
+import com.example.hotelservice.exception.ResourceNotFoundException;
+import com.example.hotelservice.repository.EmailCampaignRepository;
+import com.example.hotelservice.repository.GuestRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class EmailCampaignService {
+
+    private final EmailCampaignRepository campaignRepository;
+    private final GuestRepository guestRepository;
+    private final EmailCampaignSender campaignSender;
+
+    public EmailCampaignService(EmailCampaignRepository campaignRepository,
+                                GuestRepository guestRepository,
+                                EmailCampaignSender campaignSender) {
+        this.campaignRepository = campaignRepository;
+        this.guestRepository = guestRepository;
+        this.campaignSender = campaignSender;
+    }
+
+    public List<EmailCampaignDTO> getAllCampaigns() {
+        return campaignRepository.findAllByOrderByCreatedAtDesc().stream()
+                .map(EmailCampaignDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    public EmailCampaignDTO getCampaign(Long id) {
+        return new EmailCampaignDTO(findCampaign(id));
+    }
+
+    public EmailCampaignDTO createCampaign(EmailCampaignRequestDTO request, String createdBy) {
+        if (request.getSubject().contains("\n")) {
+            throw new InvalidRequestException("Subiectul trebuie să fie pe un singur rând.");
+        }
+        try {
+            EmailCampaignSender.compile(request.getName(), request.getSubject(), request.getBody());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Șablonul campaniei este invalid: " + e.getMessage());
+        }
+
+        EmailCampaign campaign = EmailCampaign.builder()
+                .name(request.getName())
+                .subject(request.getSubject())
+                .body(request.getBody())
+                .status(EmailCampaign.DRAFT)
+                .lastGuestId(0L)
+                .sentCount(0L)
+                .failedCount(0L)
+                .createdBy(createdBy)
+                .build();
+        return new EmailCampaignDTO(campaignRepository.save(campaign));
+    }
+
+    // Not transactional: the sending thread must see the new status, so it is committed before launching.
+    public EmailCampaignDTO startCampaign(Long id) {
+        EmailCampaign campaign = findCampaign(id);
+        if (!EmailCampaign.DRAFT.equals(campaign.getStatus())) {
+            throw new InvalidRequestException("Campania a fost deja pornită.");
+        }
+        campaign.setStatus(EmailCampaign.RUNNING);
+        campaign.setStartedAt(LocalDateTime.now());
+        campaign.setTotalRecipients(guestRepository.count());
+        campaignRepository.save(campaign);
+        campaignSender.launch(id);
+        return getCampaign(id);
+    }
+
+    public EmailCampaignDTO pauseCampaign(Long id) {
+        transition(id, List.of(EmailCampaign.RUNNING), EmailCampaign.PAUSED,
+                "Doar o campanie în desfășurare poate fi suspendată.");
+        return getCampaign(id);
+    }
+
+    public EmailCampaignDTO resumeCampaign(Long id) {
+        transition(id, List.of(EmailCampaign.PAUSED), EmailCampaign.RUNNING,
+                "Doar o campanie suspendată poate fi reluată.");
+        campaignSender.launch(id);
+        return getCampaign(id);
+    }
+
+    public EmailCampaignDTO cancelCampaign(Long id) {
+        transition(id, List.of(EmailCampaign.DRAFT, EmailCampaign.RUNNING, EmailCampaign.PAUSED),
+                EmailCampaign.CANCELLED, "Campania este deja încheiată.");
+        return getCampaign(id);
+    }
+
+    private void transition(Long id, List<String> from, String to, String error) {
+        findCampaign(id);
+        if (campaignRepository.transition(id, from, to) == 0) {
+            throw new InvalidRequestException(error);
+        }
+    }
+
+    private EmailCampaign findCampaign(Long id) {
+        return campaignRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Campania nu a fost găsită."));
+    }
+}
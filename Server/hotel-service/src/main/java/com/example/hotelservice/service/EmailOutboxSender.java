@@ -0,0 +1,310 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.config.AsyncConfig;
+import com.example.hotelservice.entity.EmailOutbox;
+import com.example.hotelservice.repository.EmailOutboxRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers emails written to the outbox by {@link EmailService}. Due rows are claimed in batches
+ * (claimed rows are leased by pushing {@code next_attempt_at} forward, so other nodes and later polls
+ * skip them) and each batch goes out over a single SMTP connection on the mail executor, so the
+ * scheduler thread only claims. At most {@code max-in-flight-batches} batches are claimed and not yet
+ * settled, so none waits in the executor's queue while its lease runs out. Failed emails are retried with exponential backoff and marked
+ * {@code DEAD} after {@code max-attempts}. Sent emails are deleted after {@code retention-days}.
+ */
+@Slf4j
+@Service
+public class EmailOutboxSender {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final TypeReference<Map<String, String>> PARAMS_TYPE = new TypeReference<>() {
+    };
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final EmailTemplates emailTemplates;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor mailExecutor;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Semaphore inFlight;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int retentionDays;
+    private final int retentionBatchSize;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public EmailOutboxSender(EmailOutboxRepository emailOutboxRepository,
+                             JavaMailSender mailSender,
+                             EmailTemplates emailTemplates,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier(AsyncConfig.MAIL_EXECUTOR) Executor mailExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${email.outbox.batch-size:50}") int batchSize,
+                             @Value("${email.outbox.max-batches-per-poll:20}") int maxBatchesPerPoll,
+                             @Value("${email.outbox.max-in-flight-batches:2}") int maxInFlightBatches,
+                             @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${email.outbox.backoff.base-seconds:30}") long baseBackoffSeconds,
+                             @Value("${email.outbox.backoff.max-seconds:3600}") long maxBackoffSeconds,
+                             @Value("${email.outbox.lease-seconds:300}") long leaseSeconds,
+                             @Value("${email.outbox.retention-days:14}") int retentionDays,
+                             @Value("${email.outbox.retention.batch-size:1000}") int retentionBatchSize) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.emailTemplates = emailTemplates;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.mailExecutor = mailExecutor;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.inFlight = new Semaphore(maxInFlightBatches);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retentionDays = retentionDays;
+        this.retentionBatchSize = retentionBatchSize;
+
+        this.sent = meterRegistry.counter("email.outbox.sent");
+        this.retried = meterRegistry.counter("email.outbox.failed", "result", "retry");
+        this.dead = meterRegistry.counter("email.outbox.failed", "result", "dead");
+        this.batchTimer = meterRegistry.timer("email.outbox.batch");
+        this.batchSizes = meterRegistry.summary("email.outbox.batch.size");
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("email.outbox.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            // Nothing is claimed without a free sender; the rest waits, unleased, for a later poll.
+            for (int i = 0; i < maxBatchesPerPoll && inFlight.tryAcquire(); i++) {
+                int claimed = dispatch();
+                if (claimed < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Eroare la procesarea cozii de email-uri: {}", e.getMessage());
+        } finally {
+            refreshBacklogGauges();
+        }
+    }
+
+    private int dispatch() {
+        List<EmailOutbox> batch;
+        try {
+            batch = claim();
+            if (batch.isEmpty()) {
+                inFlight.release();
+                return 0;
+            }
+            mailExecutor.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        return batch.size();
+    }
+
+    /** Claims, sends and settles one batch on the calling thread; returns how many emails were claimed. */
+    int sendBatch() {
+        List<EmailOutbox> batch = claim();
+        if (!batch.isEmpty()) {
+            deliver(batch);
+        }
+        return batch.size();
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        batchSizes.record(batch.size());
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                byMessage.put(toMessage(email), email);
+            } catch (Exception e) {
+                markFailed(email, e, LocalDateTime.now());
+            }
+        }
+
+        Map<Object, Exception> failures = byMessage.isEmpty() ? Map.of() : batchTimer.record(() -> send(byMessage));
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                markSent(entry.getValue(), now);
+            } else {
+                markFailed(entry.getValue(), failure, now);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+        } catch (RuntimeException e) {
+            // The lease expires and the batch is claimed again, so sent emails may go out twice.
+            log.error("Nu s-a putut salva rezultatul trimiterii a {} email-uri: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private List<EmailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(now, batchSize);
+            for (EmailOutbox email : due) {
+                email.setNextAttemptAt(now.plus(lease));
+                // From here on the content is fixed; later transitions start a new email.
+                email.setCoalesceKey(null);
+            }
+            return emailOutboxRepository.saveAll(due);
+        });
+    }
+
+    /**
+     * Sends the whole batch through one {@code send(SimpleMailMessage...)} call, which opens a single
+     * transport for all of it. Returns the messages that failed, keyed by the original message.
+     */
+    private Map<Object, Exception> send(Map<SimpleMailMessage, EmailOutbox> byMessage) {
+        try {
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+            return Map.of();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return failAll(byMessage, e);
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing in the batch was sent.
+            return failAll(byMessage, e);
+        }
+    }
+
+    private static Map<Object, Exception> failAll(Map<SimpleMailMessage, EmailOutbox> byMessage, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (SimpleMailMessage message : byMessage.keySet()) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+
+    private void markSent(EmailOutbox email, LocalDateTime now) {
+        email.setStatus(EmailOutbox.SENT);
+        email.setAttempts(email.getAttempts() + 1);
+        email.setSentAt(now);
+        email.setLastError(null);
+        sent.increment();
+    }
+
+    private void markFailed(EmailOutbox email, Exception failure, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.DEAD);
+            dead.increment();
+            log.error("Email #{} către {} abandonat după {} încercări: {}",
+                    email.getId(), email.getRecipient(), attempts, failure.getMessage());
+            return;
+        }
+        email.setNextAttemptAt(now.plus(backoff(attempts)));
+        retried.increment();
+        log.warn("Trimiterea email-ului #{} a eșuat (încercarea {}): {}", email.getId(), attempts, failure.getMessage());
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void refreshBacklogGauges() {
+        try {
+            pending.set(emailOutboxRepository.countByStatus(EmailOutbox.PENDING));
+            LocalDateTime now = LocalDateTime.now();
+            lagSeconds.set(emailOutboxRepository
+                    .findFirstByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(EmailOutbox.PENDING, now)
+                    .map(oldest -> Duration.between(oldest.getNextAttemptAt(), now).toSeconds())
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.debug("Metricile cozii de email-uri nu au putut fi actualizate: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${email.outbox.retention.cron:0 15 4 * * *}")
+    @Async(AsyncConfig.REPORT_EXECUTOR)
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = emailOutboxRepository.deleteSentBefore(cutoff, retentionBatchSize);
+            deleted += batch;
+        } while (batch == retentionBatchSize);
+        if (deleted > 0) {
+            log.info("Retenția cozii de email-uri a șters {} email-uri trimise mai vechi de {}", deleted, cutoff);
+        }
+    }
+
+    /** Templated emails are rendered here, on the sending thread, from their stored parameters. */
+    private SimpleMailMessage toMessage(EmailOutbox email) throws IOException {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        if (email.getBody() != null) {
+            message.setText(email.getBody());
+        } else {
+            Map<String, String> params = objectMapper.readValue(email.getTemplateParams(), PARAMS_TYPE);
+            message.setText(emailTemplates.get(email.getTemplate(), email.getLocale()).renderBody(params));
+        }
+        return message;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -4,225 +4,188 @@ import com.example.hotelservice.entity.Reservation;
 import com.example.hotelservice.entity.RoomServiceRequest;
 import com.example.hotelservice.entity.HousekeepingRequest;
 import com.example.hotelservice.entity.Review;
+import com.example.hotelservice.entity.EmailOutbox;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.repository.EmailOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes guest notification emails to the {@code email_outbox} table in the caller's transaction, so
+ * an email exists if and only if the business change committed. Only the template name and its
+ * parameters are stored here; {@link EmailOutboxSender} renders the body when it delivers the email.
+ *
+ * <p>Status updates of a service request are coalesced: the email is held for
+ * {@code email.coalesce.window-seconds} after the first transition, and further transitions rewrite
+ * it in place, so PENDING → IN_PROGRESS → COMPLETED within the window reaches the guest as one email.
+ * A final status releases the held email right away.
+ */
 @Slf4j
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final Set<String> FINAL_STATUSES = Set.of("COMPLETED", "CANCELLED");
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailTemplates emailTemplates;
+    private final ObjectMapper objectMapper;
+    private final Counter coalesced;
+
+    @Value("${email.coalesce.window-seconds:120}")
+    private long coalesceWindowSeconds;
+
+    public EmailService(EmailOutboxRepository emailOutboxRepository,
+                        EmailTemplates emailTemplates,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailTemplates = emailTemplates;
+        this.objectMapper = objectMapper;
+        this.coalesced = meterRegistry.counter("email.coalesced");
     }
 
-    @Async
+    @Transactional
     public void sendReservationConfirmation(Reservation reservation) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(reservation.getGuest().getEmail());
-            message.setSubject("Confirmare Rezervare - " + reservation.getReservationCode());
-            message.setText(buildReservationEmailBody(reservation));
-
-            mailSender.send(message);
-            log.info("Email de confirmare trimis către: {}", reservation.getGuest().getEmail());
-        } catch (Exception e) {
-            log.error("Eroare la trimiterea email-ului: {}", e.getMessage());
-        }
+        Map<String, String> params = reservationParams(reservation);
+        params.put("roomNumber", reservation.getRoom().getNumber());
+        params.put("roomType", reservation.getRoom().getType());
+        params.put("checkIn", reservation.getStartDate().format(DATE));
+        params.put("checkOut", reservation.getEndDate().format(DATE));
+        params.put("totalPrice", formatPrice(reservation.getTotalPrice()));
+        enqueue(reservation.getGuest(), EmailTemplates.RESERVATION_CONFIRMATION, params);
     }
 
-    @Async
+    @Transactional
     public void sendReservationCancellation(Reservation reservation) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(reservation.getGuest().getEmail());
-            message.setSubject("Anulare Rezervare - " + reservation.getReservationCode());
-            message.setText(buildCancellationEmailBody(reservation));
-
-            mailSender.send(message);
-            log.info("Email de anulare trimis către: {}", reservation.getGuest().getEmail());
-        } catch (Exception e) {
-            log.error("Eroare la trimiterea email-ului: {}", e.getMessage());
-        }
+        enqueue(reservation.getGuest(), EmailTemplates.RESERVATION_CANCELLATION,
+                reservationParams(reservation));
     }
 
-    private String buildReservationEmailBody(Reservation reservation) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        return String.format(
-                "Bună ziua %s,\n\n" +
-                        "Rezervarea dumneavoastră a fost confirmată cu succes!\n\n" +
-                        "Detalii rezervare:\n" +
-                        "Cod: %s\n" +
-                        "Cameră: %s (%s)\n" +
-                        "Check-in: %s\n" +
-                        "Check-out: %s\n" +
-                        "Preț total: %.2f RON\n\n" +
-                        "Vă așteptăm cu drag!\n\n" +
-                        "Cu stimă,\n" +
-                        "Echipa Hotel Admin",
-                reservation.getGuest().getName(),
-                reservation.getReservationCode(),
-                reservation.getRoom().getNumber(),
-                reservation.getRoom().getType(),
-                reservation.getStartDate().format(formatter),
-                reservation.getEndDate().format(formatter),
-                reservation.getTotalPrice()
-        );
+    @Transactional
+    public void sendRoomServiceStatusUpdate(RoomServiceRequest request, String oldStatus, String newStatus) {
+        Map<String, String> params = new HashMap<>();
+        params.put("guestName", request.getGuest().getName());
+        params.put("requestId", String.valueOf(request.getId()));
+        params.put("roomNumber", request.getRoom() != null ? request.getRoom().getNumber() : "N/A");
+        params.put("request", request.getRequest());
+        params.put("createdAt", request.getCreatedAt().format(DATE_TIME));
+        enqueueStatusUpdate("room_service:" + request.getId(), request.getGuest(),
+                EmailTemplates.ROOM_SERVICE_STATUS, params, oldStatus, newStatus);
     }
 
-    private String buildCancellationEmailBody(Reservation reservation) {
-        return String.format(
-                "Bună ziua %s,\n\n" +
-                        "Rezervarea dumneavoastră cu codul %s a fost anulată.\n\n" +
-                        "Dacă aveți întrebări, vă rugăm să ne contactați.\n\n" +
-                        "Cu stimă,\n" +
-                        "Echipa Hotel Admin",
-                reservation.getGuest().getName(),
-                reservation.getReservationCode()
-        );
+    @Transactional
+    public void sendHousekeepingStatusUpdate(HousekeepingRequest request, String oldStatus, String newStatus) {
+        Map<String, String> params = new HashMap<>();
+        params.put("guestName", request.getGuest().getName());
+        params.put("requestId", String.valueOf(request.getId()));
+        params.put("roomNumber", request.getRoom() != null ? request.getRoom().getNumber() : "N/A");
+        params.put("requestType", request.getRequestType());
+        params.put("description", request.getDescription());
+        params.put("priority", request.getPriority());
+        params.put("createdAt", request.getCreatedAt().format(DATE_TIME));
+        enqueueStatusUpdate("housekeeping:" + request.getId(), request.getGuest(),
+                EmailTemplates.HOUSEKEEPING_STATUS, params, oldStatus, newStatus);
     }
 
-    @Async
-    public void sendRoomServiceStatusUpdate(RoomServiceRequest request, String oldStatus, String newStatus) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(request.getGuest().getEmail());
-            message.setSubject("Actualizare Comandă Room Service #" + request.getId());
-            message.setText(buildRoomServiceEmailBody(request, oldStatus, newStatus));
-
-            mailSender.send(message);
-            log.info("Email room service trimis către: {}", request.getGuest().getEmail());
-        } catch (Exception e) {
-            log.error("Eroare la trimiterea email-ului room service: {}", e.getMessage());
-        }
+    @Transactional
+    public void sendReviewResponseNotification(Review review) {
+        Map<String, String> params = new HashMap<>();
+        params.put("guestName", review.getGuest().getName());
+        params.put("roomType", review.getRoom().getType());
+        params.put("roomNumber", review.getRoom().getNumber());
+        params.put("rating", String.valueOf(review.getRating()));
+        params.put("comment", review.getComment());
+        params.put("staffResponse", review.getStaffResponse());
+        enqueue(review.getGuest(), EmailTemplates.REVIEW_RESPONSE, params);
     }
 
-    @Async
-    public void sendHousekeepingStatusUpdate(HousekeepingRequest request, String oldStatus, String newStatus) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(request.getGuest().getEmail());
-            message.setSubject("Actualizare Cerere Curățenie #" + request.getId());
-            message.setText(buildHousekeepingEmailBody(request, oldStatus, newStatus));
-
-            mailSender.send(message);
-            log.info("Email housekeeping trimis către: {}", request.getGuest().getEmail());
-        } catch (Exception e) {
-            log.error("Eroare la trimiterea email-ului housekeeping: {}", e.getMessage());
-        }
+    private static Map<String, String> reservationParams(Reservation reservation) {
+        Map<String, String> params = new HashMap<>();
+        params.put("guestName", reservation.getGuest().getName());
+        params.put("reservationCode", reservation.getReservationCode());
+        return params;
     }
 
-    private String buildRoomServiceEmailBody(RoomServiceRequest request, String oldStatus, String newStatus) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String statusMessage = getStatusMessage(newStatus);
-
-        return String.format(
-                "Bună ziua %s,\n\n" +
-                        "Comanda dumneavoastră de room service a fost actualizată!\n\n" +
-                        "Detalii comandă:\n" +
-                        "Număr: #%d\n" +
-                        "Cameră: %s\n" +
-                        "Cerere: %s\n" +
-                        "Status anterior: %s\n" +
-                        "Status curent: %s\n" +
-                        "Data: %s\n\n" +
-                        "%s\n\n" +
-                        "Cu stimă,\n" +
-                        "Echipa Hotel Admin",
-                request.getGuest().getName(),
-                request.getId(),
-                request.getRoom() != null ? request.getRoom().getNumber() : "N/A",
-                request.getRequest(),
-                oldStatus,
-                newStatus,
-                request.getCreatedAt().format(formatter),
-                statusMessage
-        );
+    private static String formatPrice(Double price) {
+        return price != null ? BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).toPlainString() : "";
     }
 
-    private String buildHousekeepingEmailBody(HousekeepingRequest request, String oldStatus, String newStatus) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        String statusMessage = getStatusMessage(newStatus);
-
-        return String.format(
-                "Bună ziua %s,\n\n" +
-                        "Cererea dumneavoastră de curățenie a fost actualizată!\n\n" +
-                        "Detalii cerere:\n" +
-                        "Număr: #%d\n" +
-                        "Cameră: %s\n" +
-                        "Tip: %s\n" +
-                        "Descriere: %s\n" +
-                        "Prioritate: %s\n" +
-                        "Status anterior: %s\n" +
-                        "Status curent: %s\n" +
-                        "Data: %s\n\n" +
-                        "%s\n\n" +
-                        "Cu stimă,\n" +
-                        "Echipa Hotel Admin",
-                request.getGuest().getName(),
-                request.getId(),
-                request.getRoom() != null ? request.getRoom().getNumber() : "N/A",
-                request.getRequestType(),
-                request.getDescription() != null ? request.getDescription() : "Fără descriere",
-                request.getPriority(),
-                oldStatus,
-                newStatus,
-                request.getCreatedAt().format(formatter),
-                statusMessage
-        );
-    }
+    /**
+     * Folds the transition into the email still held for this request, or starts a new held email.
+     * Once the sender has claimed an email its key is cleared, so a later transition gets its own.
+     */
+    private void enqueueStatusUpdate(String coalesceKey, Guest guest, String template,
+                                     Map<String, String> params, String oldStatus, String newStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<EmailOutbox> held = emailOutboxRepository.findHeldForUpdate(coalesceKey);
+        EmailOutbox email = held.orElseGet(() -> newEmail(guest, template)
+                .coalesceKey(coalesceKey)
+                .statusTrail(oldStatus != null ? oldStatus : newStatus)
+                .nextAttemptAt(now.plusSeconds(coalesceWindowSeconds))
+                .build());
+        if (held.isPresent()) {
+            coalesced.increment();
+        }
 
-    @Async
-    public void sendReviewResponseNotification(Review review) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(review.getGuest().getEmail());
-            message.setSubject("Răspuns la Recenzia Dumneavoastră");
-            message.setText(buildReviewResponseEmailBody(review));
-
-            mailSender.send(message);
-            log.info("Email răspuns recenzie trimis către: {}", review.getGuest().getEmail());
-        } catch (Exception e) {
-            log.error("Eroare la trimiterea email-ului pentru răspuns recenzie: {}", e.getMessage());
+        List<String> trail = new ArrayList<>(Arrays.asList(email.getStatusTrail().split(",")));
+        if (!trail.get(trail.size() - 1).equals(newStatus)) {
+            trail.add(newStatus);
+        }
+        params.put("previousStatus", trail.get(0));
+        params.put("currentStatus", newStatus);
+        params.put("statusTrail", trail.size() > 2 ? String.join(" → ", trail) : "");
+
+        email.setStatusTrail(String.join(",", trail));
+        applyTemplate(email, template, params);
+        if (FINAL_STATUSES.contains(newStatus)) {
+            email.setNextAttemptAt(now);
         }
+        emailOutboxRepository.save(email);
+    }
+
+    private void enqueue(Guest guest, String template, Map<String, String> params) {
+        EmailOutbox email = newEmail(guest, template).build();
+        applyTemplate(email, template, params);
+        emailOutboxRepository.save(email);
+        log.debug("Email pus în coadă pentru: {}", guest.getEmail());
     }
 
-    private String buildReviewResponseEmailBody(Review review) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-        return String.format(
-                "Bună ziua %s,\n\n" +
-                        "Am primit recenzia dumneavoastră și dorim să vă mulțumim pentru feedback!\n\n" +
-                        "Recenzia dumneavoastră:\n" +
-                        "Camera: %s\n" +
-                        "Rating: %d/5 stele\n" +
-                        "Comentariu: %s\n\n" +
-                        "Răspunsul nostru:\n" +
-                        "%s\n\n" +
-                        "Vă mulțumim că ați ales hotelul nostru!\n\n" +
-                        "Cu stimă,\n" +
-                        "Echipa Hotel Admin",
-                review.getGuest().getName(),
-                review.getRoom().getType() + " - Camera " + review.getRoom().getNumber(),
-                review.getRating(),
-                review.getComment(),
-                review.getStaffResponse()
-        );
+    private EmailOutbox.EmailOutboxBuilder newEmail(Guest guest, String template) {
+        return EmailOutbox.builder()
+                .recipient(guest.getEmail())
+                .template(template)
+                .locale(guest.getLocale() != null ? guest.getLocale() : emailTemplates.getDefaultLocale())
+                .status(EmailOutbox.PENDING)
+                .attempts(0);
     }
 
-    private String getStatusMessage(String status) {
-        return switch (status) {
-            case "PENDING" -> "Cererea dumneavoastră este în așteptare și va fi procesată în curând.";
-            case "IN_PROGRESS" -> "Personalul nostru lucrează la cererea dumneavoastră în acest moment!";
-            case "COMPLETED" -> "Cererea dumneavoastră a fost finalizată cu succes. Mulțumim!";
-            default -> "Statusul cererii a fost actualizat.";
-        };
+    /** The subject is short and shown in listings, so it is rendered now; the body waits for the sender. */
+    private void applyTemplate(EmailOutbox email, String template, Map<String, String> params) {
+        email.setSubject(emailTemplates.get(template, email.getLocale()).renderSubject(params));
+        try {
+            email.setTemplateParams(objectMapper.writeValueAsString(params));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize email parameters", e);
+        }
     }
-}
\ No newline at end of file
+}
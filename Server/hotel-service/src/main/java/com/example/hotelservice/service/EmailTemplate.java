@@ -0,0 +1,183 @@
+package com.example.hotelservice.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email template compiled once into a tree of literal and placeholder nodes; rendering only walks
+ * the tree and appends into a per-thread buffer. Syntax:
+ * <ul>
+ *   <li>{@code {{name}}} - the parameter value (nothing if absent)</li>
+ *   <li>{@code {{name|bundle}}} - the message {@code bundle.<value>} of the template's locale, else
+ *       {@code bundle.default}; resolved at compile time</li>
+ *   <li>{@code {{#name}}...{{/name}}} - rendered only when the parameter is non-empty</li>
+ *   <li>{@code {{^name}}...{{/name}}} - rendered only when the parameter is empty or absent</li>
+ * </ul>
+ * The first line of the source is the subject, the body starts after the following blank line.
+ */
+public final class EmailTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private interface Node {
+        void render(StringBuilder out, Map<String, String> params);
+    }
+
+    private record Text(String text) implements Node {
+        @Override
+        public void render(StringBuilder out, Map<String, String> params) {
+            out.append(text);
+        }
+    }
+
+    private record Variable(String name) implements Node {
+        @Override
+        public void render(StringBuilder out, Map<String, String> params) {
+            String value = params.get(name);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+    }
+
+    private record Lookup(String name, Map<String, String> messages, String fallback) implements Node {
+        @Override
+        public void render(StringBuilder out, Map<String, String> params) {
+            String value = params.get(name);
+            out.append(value != null ? messages.getOrDefault(value, fallback) : fallback);
+        }
+    }
+
+    private record Section(String name, boolean inverted, Node[] children) implements Node {
+        @Override
+        public void render(StringBuilder out, Map<String, String> params) {
+            String value = params.get(name);
+            boolean present = value != null && !value.isEmpty();
+            if (present != inverted) {
+                for (Node child : children) {
+                    child.render(out, params);
+                }
+            }
+        }
+    }
+
+    private final String name;
+    private final Node[] subject;
+    private final Node[] body;
+
+    private EmailTemplate(String name, Node[] subject, Node[] body) {
+        this.name = name;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String renderSubject(Map<String, String> params) {
+        return render(subject, params);
+    }
+
+    public String renderBody(Map<String, String> params) {
+        return render(body, params);
+    }
+
+    private static String render(Node[] nodes, Map<String, String> params) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        for (Node node : nodes) {
+            node.render(out, params);
+        }
+        String rendered = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    /**
+     * Parses {@code source}; {@code messages} are the locale's messages used by {@code |bundle}
+     * lookups. Malformed templates fail here, at startup, rather than when an email is sent.
+     */
+    public static EmailTemplate compile(String name, String source, Map<String, String> messages) {
+        String normalized = source.replace("\r\n", "\n");
+        int subjectEnd = normalized.indexOf('\n');
+        if (subjectEnd < 0 || !normalized.startsWith("\n", subjectEnd + 1)) {
+            throw new IllegalArgumentException("Template " + name + " must start with a subject line followed by a blank line");
+        }
+        String bodySource = normalized.substring(subjectEnd + 2);
+        if (bodySource.endsWith("\n")) {
+            bodySource = bodySource.substring(0, bodySource.length() - 1);
+        }
+        return new EmailTemplate(name,
+                parse(name, normalized.substring(0, subjectEnd), messages),
+                parse(name, bodySource, messages));
+    }
+
+    private static Node[] parse(String templateName, String source, Map<String, String> messages) {
+        record Frame(String name, boolean inverted, List<Node> nodes) {
+        }
+        Deque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(null, false, new ArrayList<>()));
+
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                stack.peek().nodes().add(new Text(source.substring(pos)));
+                break;
+            }
+            if (open > pos) {
+                stack.peek().nodes().add(new Text(source.substring(pos, open)));
+            }
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag in template " + templateName + " at " + open);
+            }
+            String tag = source.substring(open + 2, close).trim();
+            pos = close + 2;
+
+            if (tag.startsWith("#") || tag.startsWith("^")) {
+                stack.push(new Frame(tag.substring(1), tag.startsWith("^"), new ArrayList<>()));
+            } else if (tag.startsWith("/")) {
+                Frame section = stack.pop();
+                if (section.name() == null || !section.name().equals(tag.substring(1))) {
+                    throw new IllegalArgumentException("Unexpected {{" + tag + "}} in template " + templateName);
+                }
+                stack.peek().nodes().add(new Section(section.name(), section.inverted(),
+                        section.nodes().toArray(new Node[0])));
+            } else if (tag.contains("|")) {
+                String variable = tag.substring(0, tag.indexOf('|'));
+                String bundle = tag.substring(tag.indexOf('|') + 1);
+                stack.peek().nodes().add(lookup(templateName, variable, bundle, messages));
+            } else {
+                stack.peek().nodes().add(new Variable(tag));
+            }
+        }
+
+        if (stack.size() != 1) {
+            throw new IllegalArgumentException("Unclosed section {{#" + stack.peek().name() + "}} in template " + templateName);
+        }
+        return stack.pop().nodes().toArray(new Node[0]);
+    }
+
+    private static Lookup lookup(String templateName, String variable, String bundle, Map<String, String> messages) {
+        String prefix = bundle + ".";
+        Map<String, String> table = new HashMap<>();
+        messages.forEach((key, message) -> {
+            if (key.startsWith(prefix)) {
+                table.put(key.substring(prefix.length()), message);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("No messages for bundle " + bundle + " used in template " + templateName);
+        }
+        return new Lookup(variable, Map.copyOf(table), table.getOrDefault("default", ""));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.hotelservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Compiles every {@code classpath:email-templates/<name>.<locale>.txt} once at startup, with the
+ * matching {@code messages.<locale>.properties}. Lookups fall back to the default locale when a
+ * template has no variant for the requested one. A guest's locale is picked at registration from
+ * the {@code Accept-Language} header, see {@link #matchLocale}.
+ */
+@Slf4j
+@Service
+public class EmailTemplates {
+
+    public static final String RESERVATION_CONFIRMATION = "reservation-confirmation";
+    public static final String RESERVATION_CANCELLATION = "reservation-cancellation";
+    public static final String ROOM_SERVICE_STATUS = "room-service-status";
+    public static final String HOUSEKEEPING_STATUS = "housekeeping-status";
+    public static final String REVIEW_RESPONSE = "review-response";
+
+    private static final List<String> REQUIRED = List.of(RESERVATION_CONFIRMATION, RESERVATION_CANCELLATION,
+            ROOM_SERVICE_STATUS, HOUSEKEEPING_STATUS, REVIEW_RESPONSE);
+    private static final String LOCATION = "classpath:email-templates/";
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+    private final Set<String> locales = new HashSet<>();
+    private final String defaultLocale;
+
+    public EmailTemplates(@Value("${email.templates.default-locale:ro}") String defaultLocale) {
+        this.defaultLocale = defaultLocale;
+        try {
+            load();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load email templates", e);
+        }
+        for (String name : REQUIRED) {
+            if (!templates.containsKey(key(name, defaultLocale))) {
+                throw new IllegalStateException("Missing email template " + name + "." + defaultLocale + ".txt");
+            }
+        }
+        log.info("Au fost compilate {} șabloane de email", templates.size());
+    }
+
+    public String getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    /**
+     * The first language of an {@code Accept-Language} header that has templates, e.g. {@code en} for
+     * {@code en-GB,en;q=0.9}; null when the header is missing, malformed or names no such language.
+     */
+    public String matchLocale(String acceptLanguage) {
+        if (acceptLanguage == null || acceptLanguage.isBlank()) {
+            return null;
+        }
+        try {
+            return Locale.lookupTag(Locale.LanguageRange.parse(acceptLanguage), locales);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public EmailTemplate get(String name, String locale) {
+        EmailTemplate template = locale != null ? templates.get(key(name, locale)) : null;
+        if (template == null) {
+            template = templates.get(key(name, defaultLocale));
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return template;
+    }
+
+    private void load() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<String, Map<String, String>> messagesByLocale = new HashMap<>();
+        for (Resource resource : resolver.getResources(LOCATION + "messages.*.properties")) {
+            String filename = resource.getFilename();
+            String locale = filename.substring("messages.".length(), filename.length() - ".properties".length());
+            Properties properties = new Properties();
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            Map<String, String> messages = new HashMap<>();
+            properties.forEach((key, value) -> messages.put((String) key, (String) value));
+            messagesByLocale.put(locale, messages);
+        }
+
+        for (Resource resource : resolver.getResources(LOCATION + "*.txt")) {
+            String filename = resource.getFilename();
+            String[] parts = filename.substring(0, filename.length() - ".txt".length()).split("\\.");
+            if (parts.length != 2) {
+                throw new IllegalStateException("Email template file must be named <name>.<locale>.txt: " + filename);
+            }
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            locales.add(parts[1]);
+            templates.put(key(parts[0], parts[1]),
+                    EmailTemplate.compile(filename, source, messagesByLocale.getOrDefault(parts[1], Map.of())));
+        }
+    }
+
+    private static String key(String name, String locale) {
+        return name + "." + locale;
+    }
+}
@@ -1,21 +1,20 @@
 package com.example.hotelservice.service;
 
+import com.example.hotelservice.dto.NotificationDTO;
 import com.example.hotelservice.dto.auth.AuthRequestDTO;
 import com.example.hotelservice.dto.auth.AuthResponseDTO;
 import com.example.hotelservice.dto.auth.GuestRegisterDTO;
 import com.example.hotelservice.entity.Guest;
 import com.example.hotelservice.exception.DuplicateResourceException;
 import com.example.hotelservice.repository.GuestRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,21 +26,25 @@ public class GuestAuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPublisher notificationPublisher;
+    private final EmailTemplates emailTemplates;
 
     public GuestAuthService(GuestRepository guestRepository,
                             PasswordEncoder passwordEncoder,
                             JwtService jwtService,
                             AuthenticationManager authenticationManager,
-                            SimpMessagingTemplate messagingTemplate) {
+                            NotificationPublisher notificationPublisher,
+                            EmailTemplates emailTemplates) {
         this.guestRepository = guestRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationPublisher = notificationPublisher;
+        this.emailTemplates = emailTemplates;
     }
 
-    public AuthResponseDTO registerGuest(GuestRegisterDTO request) {
+    @Transactional
+    public AuthResponseDTO registerGuest(GuestRegisterDTO request, String acceptLanguage) {
         if (guestRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new DuplicateResourceException("Email-ul este deja folosit.");
         }
@@ -50,18 +53,15 @@ public class GuestAuthService {
         guest.setName(request.getName());
         guest.setEmail(request.getEmail());
         guest.setPassword(passwordEncoder.encode(request.getPassword()));
+        guest.setLocale(emailTemplates.matchLocale(acceptLanguage));
 
         Guest savedGuest = guestRepository.save(guest);
 
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "NEW_GUEST_REGISTRATION");
-        notification.put("title", "Oaspete Nou Înregistrat");
-        notification.put("message", savedGuest.getName() + " s-a înregistrat în aplicația mobilă");
-        notification.put("guestName", savedGuest.getName());
-        notification.put("guestEmail", savedGuest.getEmail());
-        notification.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationPublisher.publishTo(NotificationAudience.FRONT_DESK, NotificationDTO.of(
+                "NEW_GUEST_REGISTRATION",
+                "Oaspete Nou Înregistrat",
+                savedGuest.getName() + " s-a înregistrat în aplicația mobilă",
+                new NotificationDTO.Guest(savedGuest.getName(), savedGuest.getEmail())));
 
         return generateAuthResponse(savedGuest);
     }
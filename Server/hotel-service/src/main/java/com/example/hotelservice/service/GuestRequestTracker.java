@@ -0,0 +1,91 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.GuestRequestChangesDTO;
+import com.example.hotelservice.dto.GuestRequestDTO;
+import com.example.hotelservice.dto.NotificationDTO;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.exception.ResourceNotFoundException;
+import com.example.hotelservice.repository.GuestRepository;
+import com.example.hotelservice.repository.HousekeepingRequestRepository;
+import com.example.hotelservice.repository.RoomServiceRequestRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the guest app up to date with the guest's room service and housekeeping requests without
+ * polling the full lists. Every change bumps the guest's requests version and stamps the request with
+ * it; the new state is pushed to the guest's own queue ({@code /user/queue/notifications}), and
+ * {@link #changesSince} returns what changed after the version the app already has - usually nothing,
+ * answered from the guest's row alone.
+ */
+@Service
+public class GuestRequestTracker {
+
+    public static final String REQUEST_UPDATE = "GUEST_REQUEST_UPDATE";
+
+    private final GuestRepository guestRepository;
+    private final RoomServiceRequestRepository roomServiceRequestRepository;
+    private final HousekeepingRequestRepository housekeepingRequestRepository;
+    private final NotificationPublisher notificationPublisher;
+
+    public GuestRequestTracker(GuestRepository guestRepository,
+                               RoomServiceRequestRepository roomServiceRequestRepository,
+                               HousekeepingRequestRepository housekeepingRequestRepository,
+                               NotificationPublisher notificationPublisher) {
+        this.guestRepository = guestRepository;
+        this.roomServiceRequestRepository = roomServiceRequestRepository;
+        this.housekeepingRequestRepository = housekeepingRequestRepository;
+        this.notificationPublisher = notificationPublisher;
+    }
+
+    /**
+     * Bumps the guest's requests version and returns it, for the request being changed. Must run in the
+     * transaction that saves the request; the row lock taken here also orders concurrent changes.
+     */
+    public long nextVersion(Guest guest) {
+        guestRepository.incrementRequestsVersion(guest.getId());
+        return guestRepository.findRequestsVersion(guest.getId());
+    }
+
+    public void push(Guest guest, GuestRequestDTO request) {
+        notificationPublisher.publishToUser(guest.getEmail(), NotificationDTO.of(
+                REQUEST_UPDATE,
+                "Cerere Actualizată",
+                "Cererea #" + request.id() + " (" + request.summary() + ") are statusul " + request.status(),
+                request));
+    }
+
+    /**
+     * Requests changed after {@code since}; all of them when {@code since} is missing or does not come
+     * from the current history (e.g. newer than the guest's version).
+     */
+    @Transactional(readOnly = true)
+    public GuestRequestChangesDTO changesSince(String guestEmail, Long since) {
+        GuestRepository.RequestsVersion current = guestRepository.findRequestsVersionByEmail(guestEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Oaspetele nu a fost găsit."));
+        long version = current.getRequestsVersion();
+        if (since != null && since == version) {
+            return new GuestRequestChangesDTO(version, List.of());
+        }
+
+        List<GuestRequestDTO> changes = new ArrayList<>();
+        if (since == null || since > version) {
+            roomServiceRequestRepository.findByGuestIdOrderByCreatedAtDesc(current.getId())
+                    .forEach(request -> changes.add(GuestRequestDTO.of(request)));
+            housekeepingRequestRepository.findByGuestIdOrderByCreatedAtDesc(current.getId())
+                    .forEach(request -> changes.add(GuestRequestDTO.of(request)));
+        } else {
+            roomServiceRequestRepository.findByGuestIdAndGuestVersionGreaterThan(current.getId(), since)
+                    .forEach(request -> changes.add(GuestRequestDTO.of(request)));
+            housekeepingRequestRepository.findByGuestIdAndGuestVersionGreaterThan(current.getId(), since)
+                    .forEach(request -> changes.add(GuestRequestDTO.of(request)));
+        }
+        // Requests from before versioning have none and come first.
+        changes.sort(Comparator.comparing(GuestRequestDTO::version, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new GuestRequestChangesDTO(version, changes);
+    }
+}
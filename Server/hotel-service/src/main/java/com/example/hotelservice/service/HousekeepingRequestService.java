@@ -1,20 +1,19 @@
 package com.example.hotelservice.service;
 
 import com.example.hotelservice.dto.HousekeepingRequestDTO;
+import com.example.hotelservice.dto.GuestRequestDTO;
+import com.example.hotelservice.dto.NotificationDTO;
 import com.example.hotelservice.entity.Guest;
 import com.example.hotelservice.entity.HousekeepingRequest;
 import com.example.hotelservice.entity.Room;
 import com.example.hotelservice.repository.GuestRepository;
 import com.example.hotelservice.repository.HousekeepingRequestRepository;
 import com.example.hotelservice.repository.RoomRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class HousekeepingRequestService {
@@ -22,19 +21,22 @@ public class HousekeepingRequestService {
     private final HousekeepingRequestRepository requestRepository;
     private final GuestRepository guestRepository;
     private final RoomRepository roomRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPublisher notificationPublisher;
     private final EmailService emailService;
+    private final GuestRequestTracker guestRequestTracker;
 
     public HousekeepingRequestService(HousekeepingRequestRepository requestRepository,
                                       GuestRepository guestRepository,
                                       RoomRepository roomRepository,
-                                      SimpMessagingTemplate messagingTemplate,
-                                      EmailService emailService) {
+                                      NotificationPublisher notificationPublisher,
+                                      EmailService emailService,
+                                      GuestRequestTracker guestRequestTracker) {
         this.requestRepository = requestRepository;
         this.guestRepository = guestRepository;
         this.roomRepository = roomRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationPublisher = notificationPublisher;
         this.emailService = emailService;
+        this.guestRequestTracker = guestRequestTracker;
     }
 
     @Transactional
@@ -52,17 +54,18 @@ public class HousekeepingRequestService {
                 .description(dto.getDescription())
                 .priority(dto.getPriority() != null ? dto.getPriority() : "NORMAL")
                 .status("PENDING")
+                .guestVersion(guestRequestTracker.nextVersion(guest))
                 .build();
 
         HousekeepingRequest saved = requestRepository.save(request);
+        guestRequestTracker.push(guest, GuestRequestDTO.of(saved));
 
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "HOUSEKEEPING_REQUEST");
-        notification.put("title", "Cerere Housekeeping Nouă");
-        notification.put("message", guest.getName() + " - Camera " + room.getNumber() + ": " + dto.getRequestType());
-        notification.put("data", saved);
-
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationPublisher.publishTo(NotificationAudience.HOUSEKEEPING, NotificationDTO.of(
+                "HOUSEKEEPING_REQUEST",
+                "Cerere Housekeeping Nouă",
+                guest.getName() + " - Camera " + room.getNumber() + ": " + dto.getRequestType(),
+                new NotificationDTO.Housekeeping(saved.getId(), room.getNumber(), saved.getRequestType(),
+                        saved.getPriority(), saved.getStatus())));
 
         return saved;
     }
@@ -96,9 +99,12 @@ public class HousekeepingRequestService {
         if ("COMPLETED".equals(status)) {
             request.setCompletedAt(LocalDateTime.now());
         }
+        request.setGuestVersion(guestRequestTracker.nextVersion(request.getGuest()));
 
         HousekeepingRequest saved = requestRepository.save(request);
 
+        guestRequestTracker.push(saved.getGuest(), GuestRequestDTO.of(saved));
+
         emailService.sendHousekeepingStatusUpdate(saved, oldStatus, status);
 
         return saved;
@@ -0,0 +1,80 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one JSON value delivered in arbitrary fragments (e.g. {@code input_json_delta} events of a
+ * streamed tool call). Tokens are consumed as each fragment arrives, so the value is known to be
+ * complete the moment its closing brace is fed, without waiting for the end of the stream.
+ */
+public class IncrementalJsonParser {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+    private int depth;
+    private boolean started;
+    private boolean complete;
+
+    public IncrementalJsonParser(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(objectMapper, false);
+    }
+
+    /**
+     * Feeds the next fragment. Returns {@code true} once the top-level value is complete; anything
+     * fed after that is ignored.
+     */
+    public boolean feed(String fragment) throws IOException {
+        if (complete || fragment == null || fragment.isEmpty()) {
+            return complete;
+        }
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokens.copyCurrentEvent(parser);
+            started = true;
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                complete = true;
+                feeder.endOfInput();
+                break;
+            }
+        }
+        return complete;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public JsonNode getValue() throws IOException {
+        if (!complete) {
+            throw new IOException("Incomplete JSON value");
+        }
+        try (JsonParser buffered = tokens.asParser(objectMapper)) {
+            return objectMapper.readTree(buffered);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.ChatRateLimitBucket;
+import com.example.hotelservice.repository.ChatRateLimitBucketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Buckets shared by all nodes: each check locks the guest's row, refills and consumes, then writes it
+ * back in the same short transaction. Costs a locked row update per chat message, so it is only worth
+ * enabling when the app runs on more than one node.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "chat.rate-limit.store", havingValue = "jdbc")
+public class JdbcChatRateLimitStore implements ChatRateLimitStore {
+
+    private final ChatRateLimitBucketRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcChatRateLimitStore(ChatRateLimitBucketRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public ChatRateLimiter.Decision tryConsume(String key, TokenBucketPolicy burst, TokenBucketPolicy sustained,
+                                               long nowMillis) {
+        try {
+            return consumeInTransaction(key, burst, sustained, nowMillis);
+        } catch (DataAccessException e) {
+            // A database hiccup should not take the chat down with it.
+            log.warn("Stocarea limitelor de mesaje este indisponibilă, mesajul de chat este permis: {}", e.getMessage());
+            return ChatRateLimiter.Decision.ALLOWED;
+        }
+    }
+
+    private ChatRateLimiter.Decision consumeInTransaction(String key, TokenBucketPolicy burst,
+                                                          TokenBucketPolicy sustained, long nowMillis) {
+        return transactionTemplate.execute(status -> {
+            ChatRateLimitBucket row = repository.findForUpdate(key).orElse(null);
+            if (row == null) {
+                // Insert-if-absent first so two nodes seeing a new guest at once end up on the same row.
+                repository.insertIfAbsent(key, burst.capacity(), sustained.capacity(), nowMillis);
+                row = repository.findForUpdate(key)
+                        .orElseThrow(() -> new IllegalStateException("Rate limit bucket " + key + " missing after insert"));
+            }
+
+            ChatRateLimiter.Buckets buckets = new ChatRateLimiter.Buckets(
+                    row.getBurstTokens(), row.getSustainedTokens(), row.getUpdatedAtMillis());
+            ChatRateLimiter.Decision decision = buckets.tryConsume(burst, sustained, nowMillis);
+
+            row.setBurstTokens(buckets.burstTokens);
+            row.setSustainedTokens(buckets.sustainedTokens);
+            row.setUpdatedAtMillis(buckets.updatedAtMillis);
+            repository.save(row);
+            return decision;
+        });
+    }
+}
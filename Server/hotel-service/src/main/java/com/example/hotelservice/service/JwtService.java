@@ -1,6 +1,7 @@
 package com.example.hotelservice.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -9,26 +10,80 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    /**
+     * A token whose signature has been checked, with the claims read from it. Callers that need both
+     * the username and the validity check take one of these instead of parsing the token again.
+     */
+    public record VerifiedToken(String username, Date expiration, Claims claims) {
+
+        public boolean isExpired() {
+            return expiration.before(new Date());
+        }
+    }
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
+    @Value("${jwt.verified-cache-size:1024}")
+    private int verifiedCacheSize = 1024;
+
     private static final long TOKEN_EXPIRATION = 1000 * 60 * 60 * 24; // 24 ore
 
+    // Built on first use, after the secret has been injected.
+    private volatile SecretKey signInKey;
+    private volatile JwtParser parser;
+
+    // Recently verified tokens by SHA-256 digest, so the raw bearer tokens are not kept around.
+    private final Map<String, VerifiedToken> verified = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > verifiedCacheSize;
+                }
+            });
+
+    /**
+     * Checks the token's signature and expiration and reads its claims, once. A token seen recently is
+     * answered from the cache until it expires. Throws {@link io.jsonwebtoken.JwtException} for a
+     * token that is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedCacheSize <= 0) {
+            return parse(token);
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verified.remove(digest);
+        }
+        VerifiedToken parsed = parse(token);
+        verified.put(digest, parsed);
+        return parsed;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token).claims());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -47,29 +102,48 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.username().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+    private VerifiedToken parse(String token) {
+        Claims claims = getParser()
                 .parseSignedClaims(token)
                 .getPayload();
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims);
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts
+                    .parser()
+                    .verifyWith(getSignInKey())
+                    .build();
+            parser = current;
+        }
+        return current;
     }
 
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey current = signInKey;
+        if (current == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+            current = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = current;
+        }
+        return current;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponibil", e);
+        }
     }
 }
\ No newline at end of file
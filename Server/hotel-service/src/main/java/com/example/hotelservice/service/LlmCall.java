@@ -0,0 +1,43 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/** Per-call measurements collected while a request to the model is in progress. */
+class LlmCall {
+
+    private final LlmCallTags tags;
+    private final long startNanos = System.nanoTime();
+    private long firstTokenNanos = -1;
+    private LlmUsage usage = LlmUsage.NONE;
+
+    LlmCall(LlmCallTags tags) {
+        this.tags = tags;
+    }
+
+    void markFirstToken() {
+        if (firstTokenNanos < 0) {
+            firstTokenNanos = System.nanoTime();
+        }
+    }
+
+    void mergeUsage(JsonNode usageNode) {
+        usage = usage.merge(usageNode);
+    }
+
+    LlmCallTags getTags() {
+        return tags;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** Time to the first streamed content delta, or -1 if nothing was streamed. */
+    long timeToFirstTokenNanos() {
+        return firstTokenNanos < 0 ? -1 : firstTokenNanos - startNanos;
+    }
+
+    LlmUsage getUsage() {
+        return usage;
+    }
+}
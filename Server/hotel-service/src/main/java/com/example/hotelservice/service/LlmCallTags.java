@@ -0,0 +1,16 @@
+package com.example.hotelservice.service;
+
+/**
+ * Dimensions a model call is reported under: the feature that made it and, for guest-facing calls,
+ * the guest cohort ({@code in_house} while the guest has an active stay, {@code prospect} otherwise).
+ */
+public record LlmCallTags(String endpoint, String cohort) {
+
+    public static final String NO_COHORT = "none";
+
+    public static final LlmCallTags UNTAGGED = new LlmCallTags("other", NO_COHORT);
+
+    public static LlmCallTags of(String endpoint) {
+        return new LlmCallTags(endpoint, NO_COHORT);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.ChatMetricsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latency, time to first token, token usage and estimated cost of every model call, tagged
+ * by model, endpoint and guest cohort, and builds the staff-facing summary from those meters.
+ */
+@Slf4j
+@Service
+public class LlmMetrics {
+
+    static final String REQUESTS = "anthropic.requests";
+    static final String TTFT = "anthropic.ttft";
+    static final String TOKENS = "anthropic.tokens";
+    static final String COST = "anthropic.cost";
+    static final String FALLBACKS = "anthropic.fallbacks";
+
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final ChatResponseCache responseCache;
+    private final double inputPricePerMillion;
+    private final double outputPricePerMillion;
+    private final double cacheReadPricePerMillion;
+    private final double cacheWritePricePerMillion;
+    private final double logSampleRate;
+
+    public LlmMetrics(MeterRegistry meterRegistry,
+                      ChatResponseCache responseCache,
+                      @Value("${anthropic.pricing.input-per-mtok:1.0}") double inputPricePerMillion,
+                      @Value("${anthropic.pricing.output-per-mtok:5.0}") double outputPricePerMillion,
+                      @Value("${anthropic.pricing.cache-read-per-mtok:0.1}") double cacheReadPricePerMillion,
+                      @Value("${anthropic.pricing.cache-write-per-mtok:1.25}") double cacheWritePricePerMillion,
+                      @Value("${anthropic.log.sample-rate:0.1}") double logSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.responseCache = responseCache;
+        this.inputPricePerMillion = inputPricePerMillion;
+        this.outputPricePerMillion = outputPricePerMillion;
+        this.cacheReadPricePerMillion = cacheReadPricePerMillion;
+        this.cacheWritePricePerMillion = cacheWritePricePerMillion;
+        this.logSampleRate = logSampleRate;
+    }
+
+    /**
+     * Records a finished call. Any outcome other than {@code success} or {@code error} means the
+     * caller was served the fallback reply.
+     */
+    void record(LlmCall call, String model, String outcome) {
+        LlmCallTags callTags = call.getTags();
+        Tags tags = Tags.of("model", String.valueOf(model),
+                "endpoint", callTags.endpoint(),
+                "cohort", callTags.cohort());
+        long latencyNanos = call.elapsedNanos();
+        long ttftNanos = call.timeToFirstTokenNanos();
+        LlmUsage usage = call.getUsage();
+
+        Timer.builder(REQUESTS)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+
+        if (ttftNanos >= 0) {
+            Timer.builder(TTFT)
+                    .tags(tags)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(ttftNanos, TimeUnit.NANOSECONDS);
+        }
+
+        double cost = 0;
+        if (!LlmUsage.NONE.equals(usage)) {
+            recordTokens(tags, "input", usage.inputTokens());
+            recordTokens(tags, "output", usage.outputTokens());
+            recordTokens(tags, "cache_read", usage.cacheReadTokens());
+            recordTokens(tags, "cache_write", usage.cacheWriteTokens());
+            cost = cost(usage);
+            Counter.builder(COST).baseUnit("usd").tags(tags).register(meterRegistry).increment(cost);
+        }
+
+        boolean fallback = isFallback(outcome);
+        if (fallback) {
+            Counter.builder(FALLBACKS)
+                    .tags("endpoint", callTags.endpoint(), "cohort", callTags.cohort(), "reason", outcome)
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        if (fallback || ERROR.equals(outcome) || ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.info("llm_call endpoint={} cohort={} model={} outcome={} latency_ms={} ttft_ms={} " +
+                            "input_tokens={} output_tokens={} cache_read_tokens={} cache_write_tokens={} cost_usd={}",
+                    callTags.endpoint(), callTags.cohort(), model, outcome,
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos),
+                    ttftNanos >= 0 ? TimeUnit.NANOSECONDS.toMillis(ttftNanos) : -1,
+                    usage.inputTokens(), usage.outputTokens(), usage.cacheReadTokens(), usage.cacheWriteTokens(),
+                    String.format("%.6f", cost));
+        }
+    }
+
+    public ChatMetricsDTO summarize() {
+        List<ChatMetricsDTO.CallStats> calls = new ArrayList<>();
+        long totalCalls = 0;
+        long fallbackCalls = 0;
+        for (Timer timer : meterRegistry.find(REQUESTS).timers()) {
+            Meter.Id id = timer.getId();
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            calls.add(ChatMetricsDTO.CallStats.builder()
+                    .endpoint(id.getTag("endpoint"))
+                    .cohort(id.getTag("cohort"))
+                    .model(id.getTag("model"))
+                    .outcome(id.getTag("outcome"))
+                    .count(snapshot.count())
+                    .meanMs(snapshot.mean(TimeUnit.MILLISECONDS))
+                    .p50Ms(percentileMs(snapshot, 0.5))
+                    .p95Ms(percentileMs(snapshot, 0.95))
+                    .p99Ms(percentileMs(snapshot, 0.99))
+                    .maxMs(snapshot.max(TimeUnit.MILLISECONDS))
+                    .build());
+            totalCalls += snapshot.count();
+            if (isFallback(id.getTag("outcome"))) {
+                fallbackCalls += snapshot.count();
+            }
+        }
+
+        Map<String, ChatMetricsDTO.UsageStats> usage = new LinkedHashMap<>();
+        for (DistributionSummary tokens : meterRegistry.find(TOKENS).summaries()) {
+            ChatMetricsDTO.UsageStats stats = usageRow(usage, tokens.getId());
+            long total = (long) tokens.totalAmount();
+            switch (String.valueOf(tokens.getId().getTag("type"))) {
+                case "input" -> stats.setInputTokens(total);
+                case "output" -> stats.setOutputTokens(total);
+                case "cache_read" -> stats.setCacheReadTokens(total);
+                case "cache_write" -> stats.setCacheWriteTokens(total);
+                default -> {
+                }
+            }
+        }
+        double totalCost = 0;
+        for (Counter cost : meterRegistry.find(COST).counters()) {
+            usageRow(usage, cost.getId()).setCostUsd(cost.count());
+            totalCost += cost.count();
+        }
+        for (Timer ttft : meterRegistry.find(TTFT).timers()) {
+            HistogramSnapshot snapshot = ttft.takeSnapshot();
+            ChatMetricsDTO.UsageStats stats = usageRow(usage, ttft.getId());
+            stats.setTimeToFirstTokenP50Ms(percentileMs(snapshot, 0.5));
+            stats.setTimeToFirstTokenP95Ms(percentileMs(snapshot, 0.95));
+        }
+
+        Counter localIntents = meterRegistry.find("chat.intent.local").counter();
+        Gauge bulkhead = meterRegistry.find("anthropic.bulkhead.available").gauge();
+        Gauge circuit = meterRegistry.find("anthropic.circuit.open").gauge();
+
+        return ChatMetricsDTO.builder()
+                .totalCalls(totalCalls)
+                .fallbackCalls(fallbackCalls)
+                .fallbackRate(totalCalls == 0 ? 0.0 : (double) fallbackCalls / totalCalls)
+                .totalCostUsd(totalCost)
+                .cacheHitRate(responseCache.getHitRate())
+                .localIntents(localIntents != null ? (long) localIntents.count() : 0)
+                .bulkheadAvailable(bulkhead != null ? (int) bulkhead.value() : 0)
+                .circuitOpen(circuit != null && circuit.value() > 0)
+                .calls(calls)
+                .usage(new ArrayList<>(usage.values()))
+                .build();
+    }
+
+    private void recordTokens(Tags tags, String type, long count) {
+        DistributionSummary.builder(TOKENS)
+                .baseUnit("tokens")
+                .tags(tags)
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    private double cost(LlmUsage usage) {
+        return (usage.inputTokens() * inputPricePerMillion
+                + usage.outputTokens() * outputPricePerMillion
+                + usage.cacheReadTokens() * cacheReadPricePerMillion
+                + usage.cacheWriteTokens() * cacheWritePricePerMillion) / 1_000_000.0;
+    }
+
+    private static boolean isFallback(String outcome) {
+        return !SUCCESS.equals(outcome) && !ERROR.equals(outcome);
+    }
+
+    private static ChatMetricsDTO.UsageStats usageRow(Map<String, ChatMetricsDTO.UsageStats> rows, Meter.Id id) {
+        String endpoint = id.getTag("endpoint");
+        String cohort = id.getTag("cohort");
+        String model = id.getTag("model");
+        return rows.computeIfAbsent(endpoint + '|' + cohort + '|' + model, k -> ChatMetricsDTO.UsageStats.builder()
+                .endpoint(endpoint)
+                .cohort(cohort)
+                .model(model)
+                .build());
+    }
+
+    private static double percentileMs(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Token counts reported in the {@code usage} object of a Messages API response. Streamed responses
+ * report usage in pieces ({@code message_start}, then {@code message_delta}), hence {@link #merge}.
+ */
+public record LlmUsage(long inputTokens, long outputTokens, long cacheReadTokens, long cacheWriteTokens) {
+
+    public static final LlmUsage NONE = new LlmUsage(0, 0, 0, 0);
+
+    public static LlmUsage from(JsonNode usage) {
+        return NONE.merge(usage);
+    }
+
+    /** Returns a copy with every count present in {@code usage} taken from it. */
+    public LlmUsage merge(JsonNode usage) {
+        if (usage == null || !usage.isObject()) {
+            return this;
+        }
+        return new LlmUsage(
+                usage.path("input_tokens").asLong(inputTokens),
+                usage.path("output_tokens").asLong(outputTokens),
+                usage.path("cache_read_input_tokens").asLong(cacheReadTokens),
+                usage.path("cache_creation_input_tokens").asLong(cacheWriteTokens));
+    }
+}
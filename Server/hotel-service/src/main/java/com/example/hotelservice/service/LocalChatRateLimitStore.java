@@ -0,0 +1,70 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory buckets guarded by a fixed set of lock stripes, so guests hashing to different stripes
+ * never contend. Buckets that have refilled completely carry no state and are dropped once the map
+ * grows past {@code max-keys}.
+ */
+@Service
+@ConditionalOnProperty(name = "chat.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalChatRateLimitStore implements ChatRateLimitStore {
+
+    private final Map<String, ChatRateLimiter.Buckets> buckets = new ConcurrentHashMap<>();
+    private final Object[] stripes;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxKeys;
+
+    public LocalChatRateLimitStore(MeterRegistry meterRegistry,
+                                   @Value("${chat.rate-limit.stripes:64}") int stripeCount,
+                                   @Value("${chat.rate-limit.max-keys:10000}") int maxKeys) {
+        this.stripes = new Object[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+        this.maxKeys = maxKeys;
+        Gauge.builder("chat.rate-limit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public ChatRateLimiter.Decision tryConsume(String key, TokenBucketPolicy burst, TokenBucketPolicy sustained,
+                                               long nowMillis) {
+        if (buckets.size() > maxKeys && sweeping.compareAndSet(false, true)) {
+            evictIdle(burst, sustained, nowMillis);
+        }
+        synchronized (stripeFor(key)) {
+            return buckets.computeIfAbsent(key, k -> ChatRateLimiter.Buckets.full(burst, sustained, nowMillis))
+                    .tryConsume(burst, sustained, nowMillis);
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evictIdle(TokenBucketPolicy burst, TokenBucketPolicy sustained, long nowMillis) {
+        for (String key : buckets.keySet()) {
+            synchronized (stripeFor(key)) {
+                ChatRateLimiter.Buckets state = buckets.get(key);
+                if (state != null && state.isFull(burst, sustained, nowMillis)) {
+                    buckets.remove(key);
+                }
+            }
+        }
+        sweeping.set(false);
+    }
+
+    private Object stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
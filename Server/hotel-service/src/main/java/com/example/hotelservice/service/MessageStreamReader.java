@@ -0,0 +1,119 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okio.BufferedSource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads an Anthropic Messages API server-sent event stream. Text deltas are accumulated; tool-use
+ * argument deltas are fed to an {@link IncrementalJsonParser} per content block and dispatched to
+ * the {@link ToolCallListener} as soon as the arguments close. A stream that ends before
+ * {@code message_stop} is a failed stream, not a short reply.
+ */
+class MessageStreamReader {
+
+    private static final String DATA_PREFIX = "data:";
+
+    private record ToolBlock(String name, IncrementalJsonParser arguments) {
+    }
+
+    /** The stream arrived intact but what the model sent cannot be used; says nothing about the upstream's health. */
+    static class ContentFailure extends IOException {
+        ContentFailure(String message) {
+            super(message);
+        }
+
+        ContentFailure(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ToolCallListener toolCallListener;
+    private final LlmCall call;
+    private final Map<Integer, ToolBlock> toolBlocks = new HashMap<>();
+    private final StringBuilder text = new StringBuilder();
+
+    MessageStreamReader(ObjectMapper objectMapper, ToolCallListener toolCallListener, LlmCall call) {
+        this.objectMapper = objectMapper;
+        this.toolCallListener = toolCallListener;
+        this.call = call;
+    }
+
+    String read(BufferedSource source) throws IOException {
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith(DATA_PREFIX)) {
+                continue;
+            }
+            JsonNode event;
+            try {
+                event = objectMapper.readTree(line.substring(DATA_PREFIX.length()).trim());
+            } catch (JsonProcessingException e) {
+                throw new ContentFailure("Invalid stream event", e);
+            }
+            if (!onEvent(event)) {
+                return text.toString();
+            }
+        }
+        throw new EOFException("Stream ended before message_stop");
+    }
+
+    /** Returns {@code false} once the message is finished. */
+    private boolean onEvent(JsonNode event) throws IOException {
+        switch (event.path("type").asText()) {
+            case "message_start" -> call.mergeUsage(event.path("message").path("usage"));
+            case "message_delta" -> call.mergeUsage(event.path("usage"));
+            case "content_block_start" -> {
+                JsonNode block = event.path("content_block");
+                if ("tool_use".equals(block.path("type").asText())) {
+                    toolBlocks.put(event.path("index").asInt(),
+                            new ToolBlock(block.path("name").asText(), new IncrementalJsonParser(objectMapper)));
+                }
+            }
+            case "content_block_delta" -> {
+                call.markFirstToken();
+                JsonNode delta = event.path("delta");
+                String deltaType = delta.path("type").asText();
+                if ("text_delta".equals(deltaType)) {
+                    text.append(delta.path("text").asText());
+                } else if ("input_json_delta".equals(deltaType)) {
+                    ToolBlock block = toolBlocks.get(event.path("index").asInt());
+                    if (block != null && !block.arguments().isComplete() && feed(block, delta.path("partial_json").asText())) {
+                        toolCallListener.onToolCall(block.name(), block.arguments().getValue());
+                    }
+                }
+            }
+            case "content_block_stop" -> {
+                ToolBlock block = toolBlocks.remove(event.path("index").asInt());
+                if (block != null && !block.arguments().isComplete()) {
+                    if (block.arguments().isStarted()) {
+                        throw new ContentFailure("Tool call " + block.name() + " ended with incomplete arguments");
+                    }
+                    toolCallListener.onToolCall(block.name(), objectMapper.createObjectNode());
+                }
+            }
+            case "error" -> throw new IOException("Stream error: " + event.path("error").path("message").asText());
+            case "message_stop" -> {
+                return false;
+            }
+            default -> {
+            }
+        }
+        return true;
+    }
+
+    private static boolean feed(ToolBlock block, String fragment) throws ContentFailure {
+        try {
+            return block.arguments().feed(fragment);
+        } catch (IOException e) {
+            throw new ContentFailure("Tool call " + block.name() + " has invalid arguments", e);
+        }
+    }
+}
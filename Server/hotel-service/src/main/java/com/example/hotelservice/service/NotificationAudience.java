@@ -0,0 +1,54 @@
+package com.example.hotelservice.service;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+/**
+ * Who receives a kind of staff notification. Each role has its own topic ({@code /topic/role.<Role>}),
+ * so an event is only fanned out to the sessions of the roles that act on it. Admins see everything.
+ */
+public enum NotificationAudience {
+
+    FRONT_DESK("Admin", "Manager", "Receptionist"),
+    HOUSEKEEPING("Admin", "Manager", "Cleaner"),
+    ROOM_SERVICE("Admin", "Chef"),
+    REVIEWS("Admin", "Manager");
+
+    public static final String ROLE_TOPIC_PREFIX = "/topic/role.";
+
+    private final List<String> roles;
+
+    NotificationAudience(String... roles) {
+        this.roles = List.of(roles);
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public boolean includes(String role) {
+        return roles.contains(role);
+    }
+
+    public static String topicFor(String role) {
+        return ROLE_TOPIC_PREFIX + role;
+    }
+
+    /**
+     * Whether a staff member may receive what is sent to a shared destination: their own role topic, and
+     * {@code /topic/reservations} for the front desk. User queues are checked by their owner instead.
+     */
+    public static boolean allows(Authentication user, String destination) {
+        if (destination.startsWith(ROLE_TOPIC_PREFIX)) {
+            return hasRole(user, destination.substring(ROLE_TOPIC_PREFIX.length()));
+        }
+        return NotificationPublisher.RESERVATIONS_TOPIC.equals(destination)
+                && FRONT_DESK.roles.stream().anyMatch(role -> hasRole(user, role));
+    }
+
+    private static boolean hasRole(Authentication user, String role) {
+        String authority = "ROLE_" + role;
+        return user.getAuthorities().stream().anyMatch(a -> authority.equals(a.getAuthority()));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.config.AsyncConfig;
+import com.example.hotelservice.dto.NotificationReplayDTO;
+import com.example.hotelservice.entity.NotificationLogEntry;
+import com.example.hotelservice.repository.NotificationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Numbers every notification so a client that reconnects after a drop can ask for what it missed
+ * instead of reloading its pages. The sequence is the identity of {@code notification_log}, shared by
+ * all nodes; the row is written in the publisher's transaction, like the {@code NOTIFY}. Numbers are
+ * taken at insert and events go out at commit, so concurrent events can reach clients out of order;
+ * clients ask to replay from somewhat before the highest number they saw and skip duplicates.
+ *
+ * <p>The last {@code notifications.log.capacity} events this node delivered are also kept in a ring
+ * buffer, which answers almost every replay without a query. Gaps older than the ring, a freshly
+ * started node and relay mode (where a node never sees the events published by the others) read the
+ * table instead.
+ */
+@Slf4j
+@Service
+public class NotificationLog {
+
+    private final NotificationLogRepository notificationLogRepository;
+    private final boolean ringSeesAllEvents;
+    private final int maxEvents;
+    private final int retentionHours;
+    private final int retentionBatchSize;
+    private final Counter ringReplays;
+    private final Counter logReplays;
+
+    // Slot seq % length; guarded by this.
+    private final Entry[] ring;
+    private long latest;
+    private long first;
+
+    record Entry(long seq, List<String> destinations, byte[] json) {
+    }
+
+    public NotificationLog(NotificationLogRepository notificationLogRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${notifications.broker:simple}") String broker,
+                           @Value("${notifications.log.capacity:2000}") int capacity,
+                           @Value("${notifications.replay.max-events:500}") int maxEvents,
+                           @Value("${notifications.log.retention-hours:48}") int retentionHours,
+                           @Value("${notifications.log.retention.batch-size:1000}") int retentionBatchSize) {
+        this.notificationLogRepository = notificationLogRepository;
+        this.ringSeesAllEvents = !"relay".equals(broker);
+        this.ring = new Entry[capacity];
+        this.maxEvents = maxEvents;
+        this.retentionHours = retentionHours;
+        this.retentionBatchSize = retentionBatchSize;
+        this.ringReplays = meterRegistry.counter("notifications.replay", "source", "ring");
+        this.logReplays = meterRegistry.counter("notifications.replay", "source", "log");
+    }
+
+    /** Persists the event and returns its sequence number. */
+    public long append(List<String> destinations, byte[] json) {
+        return notificationLogRepository.save(NotificationLogEntry.builder()
+                .destinations(String.join("\n", destinations))
+                .payload(new String(json, StandardCharsets.UTF_8))
+                .build()).getSeq();
+    }
+
+    /** The logged events with the given numbers, in sequence order; numbers already purged are skipped. */
+    List<Entry> load(List<Long> seqs) {
+        return notificationLogRepository.findBySeqInOrderBySeqAsc(seqs).stream()
+                .map(NotificationLog::toEntry)
+                .toList();
+    }
+
+    /** Keeps an event delivered by this node for replays; called with the bytes that went to the broker. */
+    public synchronized void remember(long seq, List<String> destinations, byte[] json) {
+        // Events from other nodes may arrive slightly out of order; one older than the whole ring is useless.
+        if (seq <= latest - ring.length) {
+            return;
+        }
+        ring[(int) (seq % ring.length)] = new Entry(seq, destinations, json);
+        latest = Math.max(latest, seq);
+        first = first == 0 ? seq : Math.min(first, seq);
+    }
+
+    /**
+     * The events after {@code after} that {@code user} may see, at most {@code notifications.replay.max-events}
+     * (the newest ones when there are more). Without {@code after} only the latest sequence is returned,
+     * for a client to start from.
+     */
+    public NotificationReplayDTO replay(Long after, Authentication user) {
+        if (after == null) {
+            return new NotificationReplayDTO(latestSeq(), true, List.of());
+        }
+        Window window = fromRing(after);
+        if (window != null) {
+            ringReplays.increment();
+        } else {
+            logReplays.increment();
+            window = fromLog(after);
+        }
+
+        List<NotificationReplayDTO.Event> events = new ArrayList<>();
+        for (Entry entry : window.entries()) {
+            String destination = visibleDestination(entry.destinations(), user);
+            if (destination != null) {
+                events.add(new NotificationReplayDTO.Event(entry.seq(), destination,
+                        new String(entry.json(), StandardCharsets.UTF_8)));
+            }
+        }
+        boolean complete = window.complete() && events.size() <= maxEvents;
+        if (events.size() > maxEvents) {
+            events = events.subList(events.size() - maxEvents, events.size());
+        }
+        return new NotificationReplayDTO(window.latest(), complete, events);
+    }
+
+    private record Window(List<Entry> entries, long latest, boolean complete) {
+    }
+
+    // Null when the ring does not hold the whole gap.
+    private synchronized Window fromRing(long after) {
+        if (!ringSeesAllEvents || first == 0 || after + 1 < Math.max(first, latest - ring.length + 1)) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (long seq = after + 1; seq <= latest; seq++) {
+            Entry entry = ring[(int) (seq % ring.length)];
+            // Holes are sequence numbers whose transaction rolled back.
+            if (entry != null && entry.seq() == seq) {
+                entries.add(entry);
+            }
+        }
+        return new Window(entries, latest, true);
+    }
+
+    private Window fromLog(long after) {
+        List<NotificationLogEntry> rows = notificationLogRepository.findBySeqGreaterThanOrderBySeqAsc(
+                after, PageRequest.of(0, ring.length + 1));
+        boolean truncated = rows.size() > ring.length;
+        if (truncated) {
+            rows = rows.subList(0, ring.length);
+        }
+        Long oldest = notificationLogRepository.findOldestSeq();
+        boolean purged = oldest != null && oldest > after + 1;
+
+        List<Entry> entries = rows.stream().map(NotificationLog::toEntry).toList();
+        long latestSeq = entries.isEmpty() ? Math.max(after, latestSeq()) : entries.get(entries.size() - 1).seq();
+        return new Window(entries, latestSeq, !truncated && !purged);
+    }
+
+    private static Entry toEntry(NotificationLogEntry row) {
+        return new Entry(row.getSeq(), Arrays.asList(row.getDestinations().split("\n")),
+                row.getPayload().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long latestSeq() {
+        synchronized (this) {
+            if (ringSeesAllEvents && first != 0) {
+                return latest;
+            }
+        }
+        Long seq = notificationLogRepository.findLatestSeq();
+        return seq != null ? seq : 0;
+    }
+
+    // The destination the user receives the event on, as they subscribed to it, or null when it is not theirs.
+    private static String visibleDestination(List<String> destinations, Authentication user) {
+        String ownQueue = NotificationPublisher.userDestination(user.getName());
+        for (String destination : destinations) {
+            if (destination.equals(ownQueue)) {
+                return "/user" + NotificationPublisher.USER_QUEUE;
+            }
+            if (!destination.startsWith("/user/") && NotificationAudience.allows(user, destination)) {
+                return destination;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(cron = "${notifications.log.retention.cron:0 45 3 * * *}")
+    @Async(AsyncConfig.REPORT_EXECUTOR)
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = notificationLogRepository.deleteOlderThan(cutoff, retentionBatchSize);
+            deleted += batch;
+        } while (batch == retentionBatchSize);
+        if (deleted > 0) {
+            log.info("Retenția jurnalului de notificări a șters {} evenimente mai vechi de {}", deleted, cutoff);
+        }
+    }
+}
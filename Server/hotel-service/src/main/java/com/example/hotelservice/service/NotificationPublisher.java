@@ -0,0 +1,161 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Single entry point for STOMP notifications, so services do not depend on how the broker is deployed
+ * ({@code notifications.broker}):
+ * <ul>
+ *   <li>{@code simple} - the in-memory broker of this node; subscribers on other nodes miss the event</li>
+ *   <li>{@code relay} - an external STOMP broker (RabbitMQ, ActiveMQ) that every node relays to, see
+ *       {@code WebSocketConfig}</li>
+ *   <li>{@code postgres} - each node keeps its in-memory broker and the sequence number of every event
+ *       travels between nodes through {@code NOTIFY}; {@link PostgresNotificationListener} reads the
+ *       event from {@code notification_log} and hands it to the local broker, so no event is too large
+ *       to reach every node</li>
+ * </ul>
+ * In every mode an event published inside a transaction goes out only once that transaction commits:
+ * in postgres mode because the {@code NOTIFY} joins it, otherwise because delivery waits for the
+ * commit. A rolled-back change announces nothing.
+ *
+ * <p>Every event is numbered by {@link NotificationLog} and carries its number in the {@code seq} STOMP
+ * header, which a reconnecting client sends back to get what it missed. The log row is written in the
+ * caller's transaction; when it cannot be written the error reaches the caller, like any other failed
+ * write of the change.
+ */
+@Slf4j
+@Service
+public class NotificationPublisher {
+
+    public static final String CHANNEL = "hotel_notifications";
+    public static final String USER_QUEUE = "/queue/notifications";
+    public static final String RESERVATIONS_TOPIC = "/topic/reservations";
+    public static final String POSTGRES = "postgres";
+    public static final String SEQ_HEADER = "seq";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationLog notificationLog;
+    private final ObjectMapper objectMapper;
+    private final boolean viaPostgres;
+    private final DistributionSummary payloadBytes;
+
+    public NotificationPublisher(SimpMessagingTemplate messagingTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 NotificationLog notificationLog,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notifications.broker:simple}") String broker) {
+        this.messagingTemplate = messagingTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationLog = notificationLog;
+        this.objectMapper = objectMapper;
+        this.viaPostgres = POSTGRES.equals(broker);
+        this.payloadBytes = meterRegistry.summary("notifications.payload.bytes");
+    }
+
+    public void publishTo(NotificationAudience audience, Object payload) {
+        send(audience.getRoles().stream().map(NotificationAudience::topicFor).toList(), payload);
+    }
+
+    /**
+     * Sends to every session of one user, subscribed as {@code /user/queue/notifications}. The
+     * {@code /user/<name>/...} form is resolved by the user destination handler of whichever node
+     * delivers it, so it also travels through the postgres bridge.
+     */
+    public void publishToUser(String username, Object payload) {
+        publish(userDestination(username), payload);
+    }
+
+    static String userDestination(String username) {
+        return "/user/" + username.replace("/", "%2F") + USER_QUEUE;
+    }
+
+    public void publish(String destination, Object payload) {
+        send(List.of(destination), payload);
+    }
+
+    /**
+     * Serializes the event once; the same bytes go to every destination and, through the broker, to
+     * every subscribed session, which otherwise would each get a Jackson conversion of their own.
+     */
+    private void send(List<String> destinations, Object payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Notificarea pentru {} nu a putut fi serializată: {}", destinations, e.getMessage());
+            return;
+        }
+        payloadBytes.record(json.length);
+        long seq = notificationLog.append(destinations, json);
+
+        if (!viaPostgres) {
+            afterCommit(() -> deliverLocally(seq, destinations, json));
+            return;
+        }
+        // Only the number: destinations and JSON are already in the log row committed with the NOTIFY.
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, Long.toString(seq));
+    }
+
+    private static void afterCommit(Runnable delivery) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delivery.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delivery.run();
+            }
+        });
+    }
+
+    /** Hands already serialized JSON to this node's broker, which passes the bytes on unchanged. */
+    void deliverLocally(long seq, List<String> destinations, byte[] json) {
+        if (seq > 0) {
+            notificationLog.remember(seq, destinations, json);
+        }
+        for (String destination : destinations) {
+            messagingTemplate.convertAndSend(destination, json, headers(seq));
+        }
+    }
+
+    // A fresh accessor per message: the template sets the destination on it.
+    private static MessageHeaders headers(long seq) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (seq > 0) {
+            accessor.setNativeHeader(SEQ_HEADER, Long.toString(seq));
+        }
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    /** Delivers the logged events whose numbers arrived through {@code NOTIFY}, in sequence order. */
+    void deliverLogged(List<Long> seqs) {
+        List<NotificationLog.Entry> entries = notificationLog.load(seqs);
+        if (entries.size() < seqs.size()) {
+            log.warn("{} notificări nu au fost găsite în jurnal", seqs.size() - entries.size());
+        }
+        for (NotificationLog.Entry entry : entries) {
+            deliverLocally(entry.seq(), entry.destinations(), entry.json());
+        }
+    }
+}
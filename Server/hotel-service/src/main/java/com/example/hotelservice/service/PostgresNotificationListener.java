@@ -0,0 +1,145 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receives the sequence numbers of the notifications published by every node (this one included) on
+ * {@link NotificationPublisher#CHANNEL}, loads those events from {@code notification_log} and hands
+ * them to the local broker. It holds its own JDBC
+ * connection outside the pool, since {@code LISTEN} ties the session up for the lifetime of the node,
+ * and reconnects with a growing delay when the database goes away. Events raised while disconnected
+ * are not delivered live; clients get them from the log when they replay after reconnecting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notifications.broker", havingValue = NotificationPublisher.POSTGRES)
+public class PostgresNotificationListener implements SmartLifecycle {
+
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final NotificationPublisher notificationPublisher;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollTimeoutMs;
+    private final Counter received;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public PostgresNotificationListener(NotificationPublisher notificationPublisher,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${spring.datasource.url}") String url,
+                                        @Value("${spring.datasource.username}") String username,
+                                        @Value("${spring.datasource.password}") String password,
+                                        @Value("${notifications.postgres.poll-timeout-ms:500}") int pollTimeoutMs) {
+        this.notificationPublisher = notificationPublisher;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.received = meterRegistry.counter("notifications.bridge.received");
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::listen, "pg-notify-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        closeQuietly();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long delay = 1000;
+        while (running) {
+            try {
+                connection = DriverManager.getConnection(url, username, password);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + NotificationPublisher.CHANNEL);
+                }
+                log.info("Ascult notificările de pe canalul {}", NotificationPublisher.CHANNEL);
+                delay = 1000;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    received.increment(notifications.length);
+                    deliver(notifications);
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexiunea LISTEN a căzut, reconectare în {} ms: {}", delay, e.getMessage());
+                closeQuietly();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+        closeQuietly();
+    }
+
+    // One log query for everything that arrived in this poll.
+    private void deliver(PGNotification[] notifications) {
+        List<Long> seqs = new ArrayList<>(notifications.length);
+        for (PGNotification notification : notifications) {
+            try {
+                seqs.add(Long.parseLong(notification.getParameter()));
+            } catch (NumberFormatException e) {
+                log.warn("Notificare ignorată, format necunoscut: {}", notification.getParameter());
+            }
+        }
+        try {
+            notificationPublisher.deliverLogged(seqs);
+        } catch (Exception e) {
+            log.error("Notificările {} nu au putut fi livrate: {}", seqs, e.getMessage());
+        }
+    }
+
+    private void closeQuietly() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.hotelservice.service;
 
 import com.example.hotelservice.dto.ClientReservationRequestDTO;
+import com.example.hotelservice.dto.NotificationDTO;
 import com.example.hotelservice.dto.ReservationDTO;
 import com.example.hotelservice.dto.ReservationRequestDTO;
 import com.example.hotelservice.entity.Guest;
@@ -13,17 +14,12 @@ import com.example.hotelservice.repository.GuestRepository;
 import com.example.hotelservice.repository.ReservationRepository;
 import com.example.hotelservice.repository.RoomRepository;
 import org.springframework.data.domain.Sort;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,18 +29,21 @@ public class ReservationService {
     private final GuestRepository guestRepository;
     private final RoomRepository roomRepository;
     private final EmailService emailService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPublisher notificationPublisher;
+    private final ActiveStayService activeStayService;
 
     public ReservationService(ReservationRepository reservationRepository,
                               GuestRepository guestRepository,
                               RoomRepository roomRepository,
                               EmailService emailService,
-                              SimpMessagingTemplate messagingTemplate) {
+                              NotificationPublisher notificationPublisher,
+                              ActiveStayService activeStayService) {
         this.reservationRepository = reservationRepository;
         this.guestRepository = guestRepository;
         this.roomRepository = roomRepository;
         this.emailService = emailService;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationPublisher = notificationPublisher;
+        this.activeStayService = activeStayService;
     }
 
     public List<ReservationDTO> getAllReservations() {
@@ -77,10 +76,11 @@ public class ReservationService {
         }
 
         Reservation savedReservation = reservationRepository.save(reservation);
+        activeStayService.evict(guest.getId());
 
         emailService.sendReservationConfirmation(savedReservation);
 
-        messagingTemplate.convertAndSend("/topic/reservations", new ReservationDTO(savedReservation));
+        notificationPublisher.publish(NotificationPublisher.RESERVATIONS_TOPIC, new ReservationDTO(savedReservation));
 
         return new ReservationDTO(savedReservation);
     }
@@ -103,10 +103,11 @@ public class ReservationService {
         }
 
         Reservation savedReservation = reservationRepository.save(reservation);
+        activeStayService.evict(guest.getId());
 
         emailService.sendReservationConfirmation(savedReservation);
 
-        messagingTemplate.convertAndSend("/topic/reservations", new ReservationDTO(savedReservation));
+        notificationPublisher.publish(NotificationPublisher.RESERVATIONS_TOPIC, new ReservationDTO(savedReservation));
 
         return new ReservationDTO(savedReservation);
     }
@@ -124,6 +125,9 @@ public class ReservationService {
         validateReservationDates(request.getStartDate(), request.getEndDate());
         checkForOverlappingReservations(request.getRoomId(), request.getStartDate(), request.getEndDate(), id);
 
+        activeStayService.evict(reservation.getGuest().getId());
+        activeStayService.evict(guest.getId());
+
         Room oldRoom = reservation.getRoom();
         if (!oldRoom.getId().equals(room.getId())) {
             oldRoom.setStatus("Necesită Curățenie");
@@ -160,20 +164,17 @@ public class ReservationService {
         room.setStatus("Necesită Curățenie");
         roomRepository.save(room);
 
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "RESERVATION_CANCELLED");
-        notification.put("title", "Rezervare Anulată");
-        notification.put("message", reservation.getGuest().getName() + " a anulat rezervarea pentru camera " + room.getNumber());
-        notification.put("reservationCode", reservation.getReservationCode());
-        notification.put("guestName", reservation.getGuest().getName());
-        notification.put("roomNumber", room.getNumber());
-        notification.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationPublisher.publishTo(NotificationAudience.FRONT_DESK, NotificationDTO.of(
+                "RESERVATION_CANCELLED",
+                "Rezervare Anulată",
+                reservation.getGuest().getName() + " a anulat rezervarea pentru camera " + room.getNumber(),
+                new NotificationDTO.Reservation(reservation.getReservationCode(), reservation.getGuest().getName(),
+                        room.getNumber())));
 
         emailService.sendReservationCancellation(reservation);
 
         reservationRepository.delete(reservation);
+        activeStayService.evict(reservation.getGuest().getId());
     }
 
     @Transactional
@@ -189,20 +190,17 @@ public class ReservationService {
         room.setStatus("Necesită Curățenie");
         roomRepository.save(room);
 
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "RESERVATION_CANCELLED");
-        notification.put("title", "Rezervare Anulată");
-        notification.put("message", reservation.getGuest().getName() + " a anulat rezervarea pentru camera " + room.getNumber() + " din aplicația mobilă");
-        notification.put("reservationCode", reservation.getReservationCode());
-        notification.put("guestName", reservation.getGuest().getName());
-        notification.put("roomNumber", room.getNumber());
-        notification.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationPublisher.publishTo(NotificationAudience.FRONT_DESK, NotificationDTO.of(
+                "RESERVATION_CANCELLED",
+                "Rezervare Anulată",
+                reservation.getGuest().getName() + " a anulat rezervarea pentru camera " + room.getNumber() + " din aplicația mobilă",
+                new NotificationDTO.Reservation(reservation.getReservationCode(), reservation.getGuest().getName(),
+                        room.getNumber())));
 
         emailService.sendReservationCancellation(reservation);
 
         reservationRepository.delete(reservation);
+        activeStayService.evict(reservation.getGuest().getId());
     }
 
     private void validateReservationDates(LocalDate startDate, LocalDate endDate) {
@@ -1,5 +1,6 @@
 package com.example.hotelservice.service;
 
+import com.example.hotelservice.dto.NotificationDTO;
 import com.example.hotelservice.dto.ReviewDTO;
 import com.example.hotelservice.dto.ReviewRequestDTO;
 import com.example.hotelservice.entity.Guest;
@@ -9,12 +10,10 @@ import com.example.hotelservice.exception.ResourceNotFoundException;
 import com.example.hotelservice.repository.GuestRepository;
 import com.example.hotelservice.repository.ReviewRepository;
 import com.example.hotelservice.repository.RoomRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,18 +26,18 @@ public class ReviewService {
     private final GuestRepository guestRepository;
     private final RoomRepository roomRepository;
     private final EmailService emailService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPublisher notificationPublisher;
 
     public ReviewService(ReviewRepository reviewRepository,
                          GuestRepository guestRepository,
                          RoomRepository roomRepository,
                          EmailService emailService,
-                         SimpMessagingTemplate messagingTemplate) {
+                         NotificationPublisher notificationPublisher) {
         this.reviewRepository = reviewRepository;
         this.guestRepository = guestRepository;
         this.roomRepository = roomRepository;
         this.emailService = emailService;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationPublisher = notificationPublisher;
     }
 
     @Transactional
@@ -59,17 +58,11 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(review);
 
         // Send WebSocket notification for new review
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "NEW_REVIEW");
-        notification.put("title", "Recenzie Nouă");
-        notification.put("message", guest.getName() + " a lăsat o recenzie de " + request.getRating() + " stele pentru camera " + room.getNumber());
-        notification.put("guestName", guest.getName());
-        notification.put("roomNumber", room.getNumber());
-        notification.put("rating", request.getRating());
-        notification.put("reviewId", savedReview.getId());
-        notification.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationPublisher.publishTo(NotificationAudience.REVIEWS, NotificationDTO.of(
+                "NEW_REVIEW",
+                "Recenzie Nouă",
+                guest.getName() + " a lăsat o recenzie de " + request.getRating() + " stele pentru camera " + room.getNumber(),
+                new NotificationDTO.Review(savedReview.getId(), guest.getName(), room.getNumber(), request.getRating())));
 
         return new ReviewDTO(savedReview);
     }
@@ -126,6 +119,14 @@ public class ReviewService {
         // Send email notification to guest
         emailService.sendReviewResponseNotification(savedReview);
 
+        // And to the guest's own sessions in the mobile app
+        notificationPublisher.publishToUser(review.getGuest().getEmail(), NotificationDTO.of(
+                "REVIEW_RESPONSE",
+                "Răspuns la Recenzie",
+                "Echipa hotelului a răspuns recenziei dumneavoastră pentru camera " + review.getRoom().getNumber(),
+                new NotificationDTO.Review(savedReview.getId(), review.getGuest().getName(),
+                        review.getRoom().getNumber(), review.getRating())));
+
         return new ReviewDTO(savedReview);
     }
 
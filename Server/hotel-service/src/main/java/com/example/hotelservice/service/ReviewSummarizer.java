@@ -0,0 +1,14 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.Review;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Produces the short staff-facing summary of one room's reviews. */
+@FunctionalInterface
+public interface ReviewSummarizer {
+
+    /** Returns the summary, or {@code null} if none could be produced this time. */
+    String summarize(String roomNumber, List<Review> reviews) throws IOException;
+}
@@ -0,0 +1,162 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.config.AsyncConfig;
+import com.example.hotelservice.dto.RoomReviewSummaryDTO;
+import com.example.hotelservice.entity.Review;
+import com.example.hotelservice.entity.RoomReviewSummary;
+import com.example.hotelservice.exception.ResourceNotFoundException;
+import com.example.hotelservice.repository.ReviewRepository;
+import com.example.hotelservice.repository.RoomReviewSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one AI-written summary per room, regenerated by a nightly job only for rooms whose reviews
+ * changed since the summary was written. Managers read the stored summaries; no request ever waits
+ * on the model.
+ */
+@Slf4j
+@Service
+public class RoomReviewSummaryService {
+
+    private record PendingRoom(ReviewRepository.RoomReviewStats stats, List<Review> reviews) {
+    }
+
+    private final ReviewRepository reviewRepository;
+    private final RoomReviewSummaryRepository summaryRepository;
+    private final ReviewSummarizer reviewSummarizer;
+    private final AsyncTaskExecutor summaryExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${reviews.summary.max-reviews-per-room:50}")
+    private int maxReviewsPerRoom;
+
+    public RoomReviewSummaryService(ReviewRepository reviewRepository,
+                                    RoomReviewSummaryRepository summaryRepository,
+                                    ReviewSummarizer reviewSummarizer,
+                                    @Qualifier(AsyncConfig.REVIEW_SUMMARY_EXECUTOR) AsyncTaskExecutor summaryExecutor) {
+        this.reviewRepository = reviewRepository;
+        this.summaryRepository = summaryRepository;
+        this.reviewSummarizer = reviewSummarizer;
+        this.summaryExecutor = summaryExecutor;
+    }
+
+    public List<RoomReviewSummaryDTO> getAllSummaries() {
+        return summaryRepository.findAllByOrderByRoomNumberAsc().stream()
+                .map(RoomReviewSummaryDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    public RoomReviewSummaryDTO getSummaryForRoom(Long roomId) {
+        return summaryRepository.findByRoomId(roomId)
+                .map(RoomReviewSummaryDTO::new)
+                .orElseThrow(() -> new ResourceNotFoundException("Nu există încă un rezumat pentru camera cu id " + roomId + "."));
+    }
+
+    @Scheduled(cron = "${reviews.summary.cron:0 0 2 * * *}")
+    @Async(AsyncConfig.REPORT_EXECUTOR)
+    public void scheduledRefresh() {
+        refreshSummaries();
+    }
+
+    /**
+     * Regenerates summaries of rooms whose review count or newest review differ from the stored
+     * summary, calling the model on the review summary executor. Rooms whose call
+     * fails keep their old summary and are picked up again on the next run. Returns the number of
+     * summaries written.
+     */
+    public int refreshSummaries() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Actualizarea rezumatelor de recenzii rulează deja, se sare peste");
+            return 0;
+        }
+        try {
+            Map<Long, RoomReviewSummary> existing = summaryRepository.findAll().stream()
+                    .collect(Collectors.toMap(RoomReviewSummary::getRoomId, Function.identity()));
+
+            List<PendingRoom> changed = new ArrayList<>();
+            for (ReviewRepository.RoomReviewStats stats : reviewRepository.findReviewStatsPerRoom()) {
+                RoomReviewSummary current = existing.remove(stats.getRoomId());
+                if (current != null
+                        && current.getReviewCount().equals(stats.getReviewCount())
+                        && current.getLastReviewId().equals(stats.getLastReviewId())) {
+                    continue;
+                }
+                List<Review> reviews = reviewRepository.findByRoomIdOrderByCreatedAtDesc(
+                        stats.getRoomId(), PageRequest.of(0, maxReviewsPerRoom));
+                changed.add(new PendingRoom(stats, reviews));
+            }
+
+            // Whatever is left belongs to rooms that no longer have any reviews.
+            summaryRepository.deleteAll(existing.values());
+
+            int written = summarize(changed);
+            log.info("Rezumatele de recenzii au fost actualizate: {} camere modificate, {} scrise, {} șterse",
+                    changed.size(), written, existing.size());
+            return written;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int summarize(List<PendingRoom> rooms) {
+        List<Future<String>> futures = new ArrayList<>(rooms.size());
+        try {
+            for (PendingRoom room : rooms) {
+                futures.add(summaryExecutor.submit(() ->
+                        reviewSummarizer.summarize(room.stats().getRoomNumber(), room.reviews())));
+            }
+
+            int written = 0;
+            for (int i = 0; i < rooms.size(); i++) {
+                String summary = await(futures.get(i), rooms.get(i));
+                if (summary != null && !summary.isBlank()) {
+                    save(rooms.get(i).stats(), summary);
+                    written++;
+                }
+            }
+            return written;
+        } finally {
+            // Only does anything when the job was interrupted; finished calls ignore it.
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private String await(Future<String> future, PendingRoom room) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Rezumatul recenziilor pentru camera {} a eșuat: {}", room.stats().getRoomNumber(), e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private void save(ReviewRepository.RoomReviewStats stats, String summary) {
+        RoomReviewSummary entity = summaryRepository.findByRoomId(stats.getRoomId())
+                .orElse(RoomReviewSummary.builder().roomId(stats.getRoomId()).build());
+        entity.setRoomNumber(stats.getRoomNumber());
+        entity.setSummary(summary.length() > 2000 ? summary.substring(0, 2000) : summary);
+        entity.setReviewCount(stats.getReviewCount());
+        entity.setLastReviewId(stats.getLastReviewId());
+        entity.setAverageRating(stats.getAverageRating());
+        summaryRepository.save(entity);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.hotelservice.service;
 
+import com.example.hotelservice.dto.GuestRequestDTO;
+import com.example.hotelservice.dto.NotificationDTO;
 import com.example.hotelservice.dto.RoomServiceRequestDTO;
 import com.example.hotelservice.entity.Guest;
 import com.example.hotelservice.entity.Room;
@@ -7,14 +9,11 @@ import com.example.hotelservice.entity.RoomServiceRequest;
 import com.example.hotelservice.repository.GuestRepository;
 import com.example.hotelservice.repository.RoomRepository;
 import com.example.hotelservice.repository.RoomServiceRequestRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class RoomServiceRequestService {
@@ -22,19 +21,22 @@ public class RoomServiceRequestService {
     private final RoomServiceRequestRepository requestRepository;
     private final GuestRepository guestRepository;
     private final RoomRepository roomRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPublisher notificationPublisher;
     private final EmailService emailService;
+    private final GuestRequestTracker guestRequestTracker;
 
     public RoomServiceRequestService(RoomServiceRequestRepository requestRepository,
                                      GuestRepository guestRepository,
                                      RoomRepository roomRepository,
-                                     SimpMessagingTemplate messagingTemplate,
-                                     EmailService emailService) {
+                                     NotificationPublisher notificationPublisher,
+                                     EmailService emailService,
+                                     GuestRequestTracker guestRequestTracker) {
         this.requestRepository = requestRepository;
         this.guestRepository = guestRepository;
         this.roomRepository = roomRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationPublisher = notificationPublisher;
         this.emailService = emailService;
+        this.guestRequestTracker = guestRequestTracker;
     }
 
     @Transactional
@@ -53,17 +55,18 @@ public class RoomServiceRequestService {
                 .request(dto.getRequest())
                 .notes(dto.getNotes())
                 .status("PENDING")
+                .guestVersion(guestRequestTracker.nextVersion(guest))
                 .build();
 
         RoomServiceRequest saved = requestRepository.save(request);
+        guestRequestTracker.push(guest, GuestRequestDTO.of(saved));
 
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "ROOM_SERVICE_REQUEST");
-        notification.put("title", "Cerere Room Service Nouă");
-        notification.put("message", guest.getName() + " a solicitat: " + dto.getRequest());
-        notification.put("data", saved);
-
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationPublisher.publishTo(NotificationAudience.ROOM_SERVICE, NotificationDTO.of(
+                "ROOM_SERVICE_REQUEST",
+                "Cerere Room Service Nouă",
+                guest.getName() + " a solicitat: " + dto.getRequest(),
+                new NotificationDTO.RoomService(saved.getId(), room != null ? room.getNumber() : null,
+                        saved.getRequest(), saved.getStatus())));
 
         return saved;
     }
@@ -93,9 +96,12 @@ public class RoomServiceRequestService {
         if ("COMPLETED".equals(status)) {
             request.setCompletedAt(LocalDateTime.now());
         }
+        request.setGuestVersion(guestRequestTracker.nextVersion(request.getGuest()));
 
         RoomServiceRequest saved = requestRepository.save(request);
 
+        guestRequestTracker.push(saved.getGuest(), GuestRequestDTO.of(saved));
+
         emailService.sendRoomServiceStatusUpdate(saved, oldStatus, status);
 
         return saved;
@@ -0,0 +1,17 @@
+package com.example.hotelservice.service;
+
+/** Capacity and refill rate of one token bucket. */
+public record TokenBucketPolicy(double capacity, double tokensPerMilli) {
+
+    public static TokenBucketPolicy of(int capacity, double refillTokens, long refillPeriodMillis) {
+        return new TokenBucketPolicy(capacity, refillTokens / refillPeriodMillis);
+    }
+
+    double refill(double tokens, long elapsedMillis) {
+        return Math.min(capacity, tokens + Math.max(0, elapsedMillis) * tokensPerMilli);
+    }
+
+    long millisUntilToken(double tokens) {
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerMilli);
+    }
+}
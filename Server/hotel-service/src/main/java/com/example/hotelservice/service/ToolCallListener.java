@@ -0,0 +1,8 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+@FunctionalInterface
+public interface ToolCallListener {
+    void onToolCall(String toolName, JsonNode input);
+}
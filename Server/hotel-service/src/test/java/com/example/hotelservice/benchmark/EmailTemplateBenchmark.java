@@ -0,0 +1,138 @@
+package com.example.hotelservice.benchmark;
+
+import com.example.hotelservice.service.EmailTemplate;
+import com.example.hotelservice.service.EmailTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled email templates with the {@code String.format} builders they replaced, for
+ * the largest (housekeeping status) and the most frequent (reservation confirmation) emails.
+ *
+ * <p>Run {@code mvn test-compile}, then this class' {@code main} on the test classpath. Arguments are
+ * regular JMH options, e.g. {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private EmailTemplate confirmation;
+    private EmailTemplate housekeeping;
+    private Map<String, String> confirmationParams;
+    private Map<String, String> housekeepingParams;
+
+    private final LocalDate checkIn = LocalDate.of(2026, 10, 1);
+    private final LocalDate checkOut = LocalDate.of(2026, 10, 5);
+    private final LocalDateTime createdAt = LocalDateTime.of(2026, 10, 1, 10, 30);
+
+    @Setup
+    public void setUp() {
+        EmailTemplates templates = new EmailTemplates("ro");
+        confirmation = templates.get(EmailTemplates.RESERVATION_CONFIRMATION, "ro");
+        housekeeping = templates.get(EmailTemplates.HOUSEKEEPING_STATUS, "ro");
+
+        confirmationParams = new HashMap<>();
+        confirmationParams.put("guestName", "Ana Popescu");
+        confirmationParams.put("reservationCode", "RES-4F2A91");
+        confirmationParams.put("roomNumber", "204");
+        confirmationParams.put("roomType", "Deluxe");
+        confirmationParams.put("checkIn", "01/10/2026");
+        confirmationParams.put("checkOut", "05/10/2026");
+        confirmationParams.put("totalPrice", "1840.00");
+
+        housekeepingParams = new HashMap<>();
+        housekeepingParams.put("guestName", "Ana Popescu");
+        housekeepingParams.put("requestId", "812");
+        housekeepingParams.put("roomNumber", "204");
+        housekeepingParams.put("requestType", "CLEANING");
+        housekeepingParams.put("description", "Curățenie cameră");
+        housekeepingParams.put("priority", "NORMAL");
+        housekeepingParams.put("previousStatus", "PENDING");
+        housekeepingParams.put("currentStatus", "COMPLETED");
+        housekeepingParams.put("statusTrail", "PENDING → IN_PROGRESS → COMPLETED");
+        housekeepingParams.put("createdAt", "01/10/2026 10:30");
+    }
+
+    @Benchmark
+    public String confirmationTemplate() {
+        return confirmation.renderBody(confirmationParams);
+    }
+
+    @Benchmark
+    public String confirmationStringFormat() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        return String.format(
+                "Bună ziua %s,\n\n" +
+                        "Rezervarea dumneavoastră a fost confirmată cu succes!\n\n" +
+                        "Detalii rezervare:\n" +
+                        "Cod: %s\n" +
+                        "Cameră: %s (%s)\n" +
+                        "Check-in: %s\n" +
+                        "Check-out: %s\n" +
+                        "Preț total: %.2f RON\n\n" +
+                        "Vă așteptăm cu drag!\n\n" +
+                        "Cu stimă,\n" +
+                        "Echipa Hotel Admin",
+                "Ana Popescu", "RES-4F2A91", "204", "Deluxe",
+                checkIn.format(formatter), checkOut.format(formatter), 1840.0);
+    }
+
+    @Benchmark
+    public String housekeepingTemplate() {
+        return housekeeping.renderBody(housekeepingParams);
+    }
+
+    @Benchmark
+    public String housekeepingStringFormat() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        return String.format(
+                "Bună ziua %s,\n\n" +
+                        "Cererea dumneavoastră de curățenie a fost actualizată!\n\n" +
+                        "Detalii cerere:\n" +
+                        "Număr: #%d\n" +
+                        "Cameră: %s\n" +
+                        "Tip: %s\n" +
+                        "Descriere: %s\n" +
+                        "Prioritate: %s\n" +
+                        "Status anterior: %s\n" +
+                        "Status curent: %s\n" +
+                        "Data: %s\n\n" +
+                        "%s\n\n" +
+                        "Cu stimă,\n" +
+                        "Echipa Hotel Admin",
+                "Ana Popescu", 812L, "204", "CLEANING", "Curățenie cameră", "NORMAL",
+                "PENDING", "COMPLETED", createdAt.format(formatter),
+                "Cererea dumneavoastră a fost finalizată cu succes. Mulțumim!");
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.hotelservice.benchmark;
+
+import com.example.hotelservice.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request's bearer token, as {@code JwtAuthenticationFilter} does it: the
+ * old path, which decoded the key and built a parser for each of its three parses, against
+ * {@link JwtService#verify} parsing once with the shared parser, and answering from the cache of
+ * recently verified tokens.
+ *
+ * <p>Run {@code mvn test-compile}, then this class' {@code main} on the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "357638792F423F4428472B4B6250655368566D597133743677397A2443264629";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = jwtService(0);
+        cached = jwtService(1024);
+        userDetails = User.builder()
+                .username("ion@hotel.ro")
+                .password("password")
+                .authorities(List.of())
+                .build();
+        token = cached.generateToken(Map.of("role", "Cleaner", "name", "Ion Ionescu"), userDetails);
+    }
+
+    @Benchmark
+    public boolean threeParsesPerRequest() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(userDetails.getUsername())
+                && legacyClaims(token).getSubject().equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean parsedOnce() {
+        return uncached.isTokenValid(uncached.verify(token), userDetails);
+    }
+
+    @Benchmark
+    public boolean verifiedCacheHit() {
+        return cached.isTokenValid(cached.verify(token), userDetails);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts
+                .parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtService jwtService(int cacheSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", cacheSize);
+        return jwtService;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
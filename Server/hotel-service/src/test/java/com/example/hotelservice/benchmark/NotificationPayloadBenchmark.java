@@ -0,0 +1,152 @@
+package com.example.hotelservice.benchmark;
+
+import com.example.hotelservice.dto.NotificationDTO;
+import com.example.hotelservice.entity.Employee;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.entity.HousekeepingRequest;
+import com.example.hotelservice.entity.Room;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one housekeeping notification, from the event object to the STOMP frames written to
+ * {@code subscribers} sessions: the old map holding the saved entity against the slim
+ * {@link NotificationDTO}, serialized once and shared, or converted again for every session.
+ *
+ * <p>Run {@code mvn test-compile}, then this class' {@code main} on the test classpath, e.g. with
+ * {@code -prof gc} for allocation per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationPayloadBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int subscribers;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final StompEncoder encoder = new StompEncoder();
+
+    private Map<String, Object> entityNotification;
+    private NotificationDTO slimNotification;
+    private MessageHeaders[] sessionHeaders;
+
+    @Setup
+    public void setUp() {
+        Guest guest = new Guest();
+        guest.setId(41L);
+        guest.setName("Ana Popescu");
+        guest.setEmail("ana.popescu@example.com");
+        guest.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Yb3p5T9u8Yz1Hq2JpG1W6e");
+
+        Employee cleaner = new Employee();
+        cleaner.setId(7L);
+        cleaner.setName("Ion Ionescu");
+        cleaner.setRole("Cleaner");
+        cleaner.setEmail("ion@hotel.ro");
+        cleaner.setPassword("$2a$10$Xy0nM8oQv7b5Q2Jc3D1p6uYhK0Qm2Tz9Lr4Wc8Vd5Ef7Gh1Ij3Kl");
+
+        Room room = new Room();
+        room.setId(12L);
+        room.setNumber("204");
+        room.setType("Deluxe");
+        room.setPrice(460.0);
+        room.setStatus("Ocupată");
+        cleaner.getManagedRooms().add(room);
+
+        HousekeepingRequest request = HousekeepingRequest.builder()
+                .id(812L)
+                .guest(guest)
+                .room(room)
+                .requestType("CLEANING")
+                .description("Curățenie cameră și schimbare prosoape")
+                .status("PENDING")
+                .priority("NORMAL")
+                .assignedTo(cleaner)
+                .createdAt(LocalDateTime.of(2026, 10, 1, 10, 30))
+                .build();
+
+        String message = "Ana Popescu - Camera 204: CLEANING";
+        entityNotification = new HashMap<>();
+        entityNotification.put("type", "HOUSEKEEPING_REQUEST");
+        entityNotification.put("title", "Cerere Housekeeping Nouă");
+        entityNotification.put("message", message);
+        entityNotification.put("data", request);
+
+        slimNotification = NotificationDTO.of("HOUSEKEEPING_REQUEST", "Cerere Housekeeping Nouă", message,
+                new NotificationDTO.Housekeeping(812L, "204", "CLEANING", "NORMAL", "PENDING"));
+
+        sessionHeaders = new MessageHeaders[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setDestination("/topic/role.Cleaner");
+            accessor.setSubscriptionId("sub-0");
+            accessor.setSessionId("session-" + i);
+            accessor.setMessageId("msg-" + i);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            sessionHeaders[i] = accessor.getMessageHeaders();
+        }
+    }
+
+    @Benchmark
+    public void entitySerializedOnce(Blackhole blackhole) throws Exception {
+        fanOut(objectMapper.writeValueAsBytes(entityNotification), blackhole);
+    }
+
+    @Benchmark
+    public void slimSerializedOnce(Blackhole blackhole) throws Exception {
+        fanOut(objectMapper.writeValueAsBytes(slimNotification), blackhole);
+    }
+
+    @Benchmark
+    public void slimSerializedPerSession(Blackhole blackhole) throws Exception {
+        for (MessageHeaders headers : sessionHeaders) {
+            blackhole.consume(encoder.encode(headers, objectMapper.writeValueAsBytes(slimNotification)));
+        }
+    }
+
+    private void fanOut(byte[] payload, Blackhole blackhole) {
+        for (MessageHeaders headers : sessionHeaders) {
+            blackhole.consume(encoder.encode(headers, payload));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(NotificationPayloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.hotelservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundSessionTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    private WebSocketSession socket;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        socket = mock(WebSocketSession.class);
+        when(socket.getId()).thenReturn("s1");
+        // The first write hangs like a client on a bad connection until the test lets it go.
+        doAnswer(invocation -> {
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(socket).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstWrite.countDown();
+        writer.shutdownNow();
+    }
+
+    @Test
+    void framesQueuedDuringSlowWrite_shouldLeaveAsOneMessage() throws Exception {
+        OutboundSession session = session(1_000, 10_000, "terminate");
+
+        session.sendMessage(frame("A"));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        session.sendMessage(frame("B"));
+        session.sendMessage(frame("C"));
+        releaseFirstWrite.countDown();
+
+        List<WebSocketMessage<?>> written = written(2);
+        assertEquals("A\0", written.get(0).getPayload());
+        assertEquals("B\0C\0", written.get(1).getPayload());
+        assertEquals(2, meterRegistry.get("websocket.outbound.batch.frames").summary().max());
+    }
+
+    @Test
+    void bufferOverflow_withDrop_shouldDiscardOldestFrames() throws Exception {
+        OutboundSession session = session(10, 10_000, "drop");
+
+        session.sendMessage(frame("first"));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        session.sendMessage(frame("two.."));
+        session.sendMessage(frame("three"));
+        session.sendMessage(frame("four."));
+        releaseFirstWrite.countDown();
+
+        List<WebSocketMessage<?>> written = written(2);
+        assertEquals("four.\0", written.get(1).getPayload());
+        assertEquals(2, meterRegistry.get("websocket.outbound.dropped").tag("reason", "buffer").counter().count());
+        assertEquals(0, meterRegistry.get("websocket.outbound.queued.bytes").gauge().value());
+    }
+
+    @Test
+    void stalledWrite_withTerminate_shouldRefuseFurtherFrames() throws Exception {
+        OutboundSession session = session(1_000, 50, "terminate");
+
+        session.sendMessage(frame("A"));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        assertThrows(SessionLimitExceededException.class, () -> session.sendMessage(frame("B")));
+        assertEquals(1, meterRegistry.get("websocket.outbound.terminated").tag("reason", "time").counter().count());
+
+        session.sendMessage(frame("C"));
+        releaseFirstWrite.countDown();
+        verify(socket, after(200).times(1)).sendMessage(any());
+    }
+
+    private OutboundSession session(int bufferLimit, int timeLimit, String overflow) {
+        OutboundSessionDecoratorFactory factory = new OutboundSessionDecoratorFactory(writer, meterRegistry,
+                timeLimit, bufferLimit, 16_384, overflow);
+        return new OutboundSession(socket, factory, writer);
+    }
+
+    private List<WebSocketMessage<?>> written(int count) throws Exception {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<WebSocketMessage<?>> messages = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(socket, timeout(5000).times(count)).sendMessage(messages.capture());
+        return messages.getAllValues();
+    }
+
+    private static TextMessage frame(String body) {
+        return new TextMessage(body + "\0");
+    }
+
+    @Test
+    void stalledSessions_shouldNotHoldUpHealthySession() throws Exception {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", meterRegistry);
+        ThreadPoolTaskExecutor pool = (ThreadPoolTaskExecutor) new AsyncConfig(new MockEnvironment(),
+                beans.getBeanProvider(MeterRegistry.class)).websocketWriterExecutor();
+        pool.initialize();
+        OutboundSessionDecoratorFactory factory = new OutboundSessionDecoratorFactory(pool, meterRegistry,
+                10_000, 10_000, 16_384, "terminate");
+        CountDownLatch stalledWrites = new CountDownLatch(6);
+        try {
+            List<OutboundSession> stalled = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                WebSocketSession tablet = mock(WebSocketSession.class);
+                when(tablet.getId()).thenReturn("stalled-" + i);
+                doAnswer(invocation -> {
+                    stalledWrites.countDown();
+                    releaseFirstWrite.await(5, TimeUnit.SECONDS);
+                    return null;
+                }).when(tablet).sendMessage(any());
+                stalled.add(new OutboundSession(tablet, factory, pool));
+            }
+            for (OutboundSession session : stalled) {
+                session.sendMessage(frame("blocat"));
+            }
+            assertTrue(stalledWrites.await(5, TimeUnit.SECONDS));
+
+            WebSocketSession healthy = mock(WebSocketSession.class);
+            when(healthy.getId()).thenReturn("healthy");
+            AtomicReference<String> writerThread = new AtomicReference<>();
+            doAnswer(invocation -> {
+                writerThread.set(Thread.currentThread().getName());
+                return null;
+            }).when(healthy).sendMessage(any());
+            new OutboundSession(healthy, factory, pool).sendMessage(frame("ok"));
+
+            verify(healthy, timeout(2000)).sendMessage(any());
+            assertTrue(writerThread.get().startsWith("websocket-writer-"));
+        } finally {
+            releaseFirstWrite.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rejectedWrite_shouldKeepFramesOffTheCallerThread() throws Exception {
+        OutboundSessionDecoratorFactory factory = new OutboundSessionDecoratorFactory(writer, meterRegistry,
+                10_000, 10_000, 16_384, "terminate");
+        List<Runnable> later = new ArrayList<>();
+        boolean[] full = {true};
+        OutboundSession session = new OutboundSession(socket, factory, task -> {
+            if (full[0]) {
+                throw new RejectedExecutionException("ocupat");
+            }
+            later.add(task);
+        });
+
+        session.sendMessage(frame("A"));
+        verify(socket, never()).sendMessage(any());
+        assertEquals(1, meterRegistry.get("websocket.outbound.writer.rejected").counter().count());
+
+        full[0] = false;
+        session.sendMessage(frame("B"));
+        assertEquals(1, later.size());
+        releaseFirstWrite.countDown();
+        later.get(0).run();
+
+        List<WebSocketMessage<?>> written = written(1);
+        assertEquals("A\0B\0", written.get(0).getPayload());
+    }
+
+    @Test
+    void rejectedWithNoFurtherFrames_shouldBeWrittenByNextFreeWriter() throws Exception {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        OutboundSessionDecoratorFactory factory = new OutboundSessionDecoratorFactory(pool, meterRegistry,
+                10_000, 10_000, 16_384, "terminate");
+        WebSocketSession quiet = mock(WebSocketSession.class);
+        when(quiet.getId()).thenReturn("quiet");
+        try {
+            new OutboundSession(socket, factory, pool).sendMessage(frame("A"));
+            assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+            new OutboundSession(quiet, factory, pool).sendMessage(frame("ultima"));
+            assertEquals(1, meterRegistry.get("websocket.outbound.writer.rejected").counter().count());
+
+            releaseFirstWrite.countDown();
+
+            verify(quiet, timeout(2000)).sendMessage(any());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectedWithNoFurtherFrames_shouldBeRestartedBySweep() throws Exception {
+        OutboundSessionDecoratorFactory factory = new OutboundSessionDecoratorFactory(writer, meterRegistry,
+                10_000, 10_000, 16_384, "terminate");
+        boolean[] full = {true};
+        OutboundSession session = new OutboundSession(socket, factory, task -> {
+            if (full[0]) {
+                throw new RejectedExecutionException("ocupat");
+            }
+            writer.execute(task);
+        });
+        releaseFirstWrite.countDown();
+
+        session.sendMessage(frame("A"));
+        full[0] = false;
+        verify(socket, after(100).never()).sendMessage(any());
+
+        factory.sweep();
+
+        assertEquals("A\0", written(1).get(0).getPayload());
+    }
+
+    @Test
+    void stalledWrite_withNoFurtherFrames_shouldBeTerminatedBySweep() throws Exception {
+        OutboundSessionDecoratorFactory factory = new OutboundSessionDecoratorFactory(writer, meterRegistry,
+                50, 10_000, 16_384, "terminate");
+        OutboundSession session = new OutboundSession(socket, factory, writer);
+        session.sendMessage(frame("A"));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        session.sweep();
+
+        verify(socket).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1, meterRegistry.get("websocket.outbound.terminated").tag("reason", "time").counter().count());
+    }
+}
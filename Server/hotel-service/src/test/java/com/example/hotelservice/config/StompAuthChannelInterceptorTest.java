@@ -0,0 +1,104 @@
+package com.example.hotelservice.config;
+
+import com.example.hotelservice.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StompAuthChannelInterceptorTest {
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private StompAuthChannelInterceptor interceptor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY",
+                "357638792F423F4428472B4B6250655368566D597133743677397A2443264629");
+        userDetailsService = mock(UserDetailsService.class);
+        interceptor = new StompAuthChannelInterceptor(jwtService, userDetailsService);
+    }
+
+    private UserDetails user(String email, String role) {
+        UserDetails userDetails = User.builder()
+                .username(email)
+                .password("password")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + role)))
+                .build();
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
+        return userDetails;
+    }
+
+    private Message<byte[]> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private Message<byte[]> subscribe(UserDetails user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void connect_withValidToken_shouldAttachUser() {
+        UserDetails chef = user("chef@hotel.ro", "Chef");
+
+        Message<?> message = interceptor.preSend(connect("Bearer " + jwtService.generateToken(chef)), channel);
+
+        Principal principal = StompHeaderAccessor.wrap(message).getUser();
+        assertNotNull(principal);
+        assertEquals("chef@hotel.ro", principal.getName());
+    }
+
+    @Test
+    void connect_withoutOrWithForgedToken_shouldBeRejected() {
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(connect(null), channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(connect("Bearer not.a.jwt"), channel));
+    }
+
+    @Test
+    void subscribe_shouldOnlyAllowOwnRoleTopic() {
+        UserDetails chef = user("chef@hotel.ro", "Chef");
+
+        assertDoesNotThrow(() -> interceptor.preSend(subscribe(chef, "/topic/role.Chef"), channel));
+        assertDoesNotThrow(() -> interceptor.preSend(subscribe(chef, "/user/queue/notifications"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(subscribe(chef, "/topic/role.Cleaner"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(subscribe(chef, "/topic/reservations"), channel));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(subscribe(chef, "/topic/notifications"), channel));
+    }
+
+    @Test
+    void subscribe_toReservations_shouldBeAllowedForFrontDesk() {
+        UserDetails receptionist = user("front@hotel.ro", "Receptionist");
+
+        assertDoesNotThrow(() -> interceptor.preSend(subscribe(receptionist, "/topic/reservations"), channel));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.hotelservice.controller;
+
+import com.example.hotelservice.config.SecurityConfig;
+import com.example.hotelservice.dto.ChatMetricsDTO;
+import com.example.hotelservice.service.ChatRateLimiter;
+import com.example.hotelservice.service.JwtService;
+import com.example.hotelservice.service.LlmMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ChatMetricsController.class)
+@Import(SecurityConfig.class)
+class ChatMetricsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LlmMetrics llmMetrics;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private AuthenticationProvider authenticationProvider;
+
+    @MockBean
+    private ChatRateLimiter chatRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        when(llmMetrics.summarize()).thenReturn(ChatMetricsDTO.builder()
+                .totalCalls(10)
+                .fallbackCalls(1)
+                .calls(List.of())
+                .usage(List.of())
+                .build());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_Admin")
+    void getMetrics_asAdmin_shouldReturnSummary() throws Exception {
+        mockMvc.perform(get("/api/staff/chat/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCalls").value(10))
+                .andExpect(jsonPath("$.fallbackCalls").value(1));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_Manager")
+    void getMetrics_asManager_shouldReturnSummary() throws Exception {
+        mockMvc.perform(get("/api/staff/chat/metrics"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_Receptionist")
+    void getMetrics_asReceptionist_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/staff/chat/metrics"))
+                .andExpect(status().isForbidden());
+
+        verify(llmMetrics, never()).summarize();
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_GUEST")
+    void getMetrics_asGuest_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/staff/chat/metrics"))
+                .andExpect(status().isForbidden());
+
+        verify(llmMetrics, never()).summarize();
+    }
+
+    @Test
+    void getMetrics_withoutAuthentication_shouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/staff/chat/metrics"))
+                .andExpect(status().isForbidden());
+
+        verify(llmMetrics, never()).summarize();
+    }
+}
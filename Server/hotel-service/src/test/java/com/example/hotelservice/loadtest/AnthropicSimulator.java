@@ -0,0 +1,222 @@
+package com.example.hotelservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Anthropic Messages API, for load tests that should not pay for real calls.
+ * Latency is log-normal around a configurable median; streamed replies (and tool calls, when the
+ * request offers tools) are emitted as server-sent events at a configurable token rate; 429 and 500
+ * responses are injected at configurable rates.
+ *
+ * <p>Run with {@code main} (options as {@code --name=value}, see {@link Config}), then start the app
+ * with {@code --spring.profiles.active=loadtest} so it points at {@code http://localhost:8089}.
+ */
+public class AnthropicSimulator implements AutoCloseable {
+
+    /** Simulator settings; every field can be overridden from the command line. */
+    public static class Config {
+        int port = 8089;
+        long medianLatencyMs = 800;
+        double latencySigma = 0.5;
+        long firstTokenMs = 300;
+        int tokensPerSecond = 80;
+        int replyTokens = 60;
+        double toolCallRate = 0.2;
+        double rateLimitRate = 0.0;
+        double serverErrorRate = 0.0;
+        int retryAfterSeconds = 1;
+        int threads = 256;
+
+        static Config fromArgs(Map<String, String> args) {
+            Config config = new Config();
+            config.port = Integer.parseInt(args.getOrDefault("port", String.valueOf(config.port)));
+            config.medianLatencyMs = Long.parseLong(args.getOrDefault("median-latency-ms", String.valueOf(config.medianLatencyMs)));
+            config.latencySigma = Double.parseDouble(args.getOrDefault("latency-sigma", String.valueOf(config.latencySigma)));
+            config.firstTokenMs = Long.parseLong(args.getOrDefault("first-token-ms", String.valueOf(config.firstTokenMs)));
+            config.tokensPerSecond = Integer.parseInt(args.getOrDefault("tokens-per-second", String.valueOf(config.tokensPerSecond)));
+            config.replyTokens = Integer.parseInt(args.getOrDefault("reply-tokens", String.valueOf(config.replyTokens)));
+            config.toolCallRate = Double.parseDouble(args.getOrDefault("tool-call-rate", String.valueOf(config.toolCallRate)));
+            config.rateLimitRate = Double.parseDouble(args.getOrDefault("rate-limit-rate", String.valueOf(config.rateLimitRate)));
+            config.serverErrorRate = Double.parseDouble(args.getOrDefault("server-error-rate", String.valueOf(config.serverErrorRate)));
+            config.retryAfterSeconds = Integer.parseInt(args.getOrDefault("retry-after-seconds", String.valueOf(config.retryAfterSeconds)));
+            config.threads = Integer.parseInt(args.getOrDefault("threads", String.valueOf(config.threads)));
+            return config;
+        }
+    }
+
+    private static final String WORD = "bine ";
+
+    private final Config config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    public AnthropicSimulator(Config config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(config.port), 1024);
+        this.executor = Executors.newFixedThreadPool(config.threads);
+        server.setExecutor(executor);
+        server.createContext("/v1/messages", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        AnthropicSimulator simulator = new AnthropicSimulator(Config.fromArgs(LoadTestArgs.parse(args)));
+        simulator.start();
+        System.out.println("Anthropic simulator listening on http://localhost:" + simulator.getPort() + "/v1/messages");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < config.rateLimitRate) {
+                injectedErrors.incrementAndGet();
+                exchange.getResponseHeaders().add("retry-after", String.valueOf(config.retryAfterSeconds));
+                sendJson(exchange, 429, "{\"type\":\"error\",\"error\":{\"type\":\"rate_limit_error\"}}");
+                return;
+            }
+            if (roll < config.rateLimitRate + config.serverErrorRate) {
+                injectedErrors.incrementAndGet();
+                sleep(sampleLatency() / 4);
+                sendJson(exchange, 500, "{\"type\":\"error\",\"error\":{\"type\":\"api_error\"}}");
+                return;
+            }
+
+            boolean toolCall = request.path("tools").size() > 0
+                    && ThreadLocalRandom.current().nextDouble() < config.toolCallRate;
+            if (request.path("stream").asBoolean()) {
+                stream(exchange, request, toolCall);
+            } else {
+                sleep(sampleLatency());
+                sendJson(exchange, 200, completeMessage(request).toString());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream(HttpExchange exchange, JsonNode request, boolean toolCall)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        int inputTokens = estimateTokens(request);
+
+        event(out, "message_start", "{\"type\":\"message_start\",\"message\":{\"usage\":{\"input_tokens\":"
+                + inputTokens + ",\"output_tokens\":1}}}");
+        sleep(config.firstTokenMs);
+
+        if (toolCall) {
+            String toolName = request.path("tools").get(0).path("name").asText();
+            event(out, "content_block_start", "{\"type\":\"content_block_start\",\"index\":0,"
+                    + "\"content_block\":{\"type\":\"tool_use\",\"id\":\"toolu_sim\",\"name\":\"" + toolName + "\",\"input\":{}}}");
+            for (String fragment : new String[]{"{\"request\":", " \"Pizza\",", " \"type\": \"CLEANING\",",
+                    " \"description\": \"Curățenie cameră\"}"}) {
+                ObjectNode delta = objectMapper.createObjectNode();
+                delta.put("type", "content_block_delta");
+                delta.put("index", 0);
+                delta.putObject("delta").put("type", "input_json_delta").put("partial_json", fragment);
+                event(out, "content_block_delta", delta.toString());
+                sleep(tokenDelayMs());
+            }
+        } else {
+            event(out, "content_block_start", "{\"type\":\"content_block_start\",\"index\":0,"
+                    + "\"content_block\":{\"type\":\"text\",\"text\":\"\"}}");
+            for (int i = 0; i < config.replyTokens; i++) {
+                event(out, "content_block_delta", "{\"type\":\"content_block_delta\",\"index\":0,"
+                        + "\"delta\":{\"type\":\"text_delta\",\"text\":\"" + WORD + "\"}}");
+                sleep(tokenDelayMs());
+            }
+        }
+        event(out, "content_block_stop", "{\"type\":\"content_block_stop\",\"index\":0}");
+        event(out, "message_delta", "{\"type\":\"message_delta\",\"delta\":{\"stop_reason\":\""
+                + (toolCall ? "tool_use" : "end_turn") + "\"},\"usage\":{\"output_tokens\":" + config.replyTokens + "}}");
+        event(out, "message_stop", "{\"type\":\"message_stop\"}");
+    }
+
+    private ObjectNode completeMessage(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("type", "message");
+        response.put("role", "assistant");
+        response.put("model", request.path("model").asText());
+        response.putArray("content").addObject()
+                .put("type", "text")
+                .put("text", WORD.repeat(config.replyTokens).trim());
+        response.put("stop_reason", "end_turn");
+        response.putObject("usage")
+                .put("input_tokens", estimateTokens(request))
+                .put("output_tokens", config.replyTokens);
+        return response;
+    }
+
+    private long sampleLatency() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return (long) (config.medianLatencyMs * Math.exp(config.latencySigma * gaussian));
+    }
+
+    private long tokenDelayMs() {
+        return config.tokensPerSecond <= 0 ? 0 : 1000L / config.tokensPerSecond;
+    }
+
+    private static int estimateTokens(JsonNode request) {
+        return Math.max(1, request.toString().length() / 4);
+    }
+
+    private static void event(OutputStream out, String name, String data) throws IOException {
+        out.write(("event: " + name + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.hotelservice.loadtest;
+
+import com.example.hotelservice.service.AnthropicService;
+import com.example.hotelservice.service.ChatResponseCache;
+import com.example.hotelservice.service.ConversationContext;
+import com.example.hotelservice.service.LlmCallTags;
+import com.example.hotelservice.service.LlmMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnthropicSimulatorTest {
+
+    private AnthropicSimulator simulator;
+
+    private AnthropicService startAgainst(AnthropicSimulator.Config config) throws IOException {
+        config.port = 0;
+        config.medianLatencyMs = 5;
+        config.firstTokenMs = 1;
+        config.tokensPerSecond = 0;
+        config.threads = 4;
+        simulator = new AnthropicSimulator(config);
+        simulator.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LlmMetrics llmMetrics = new LlmMetrics(meterRegistry, new ChatResponseCache(meterRegistry, 60, 10, 200),
+                1.0, 5.0, 0.1, 1.25, 0.0);
+        AnthropicService service = new AnthropicService(new OkHttpClient(), new ObjectMapper(), meterRegistry,
+                llmMetrics, 4, 50, 3, 1, 5, 5, 60_000);
+        ReflectionTestUtils.setField(service, "apiKey", "simulator-key");
+        ReflectionTestUtils.setField(service, "model", "sim");
+        ReflectionTestUtils.setField(service, "apiUrl", "http://localhost:" + simulator.getPort() + "/v1/messages");
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+
+    @Test
+    void streamedToolCall_shouldBeUnderstoodByAnthropicService() throws IOException {
+        AnthropicSimulator.Config config = new AnthropicSimulator.Config();
+        config.toolCallRate = 1.0;
+        AnthropicService service = startAgainst(config);
+        ArrayNode tools = new ObjectMapper().createArrayNode();
+        tools.addObject().put("name", "room_service");
+        List<String> calls = new ArrayList<>();
+
+        service.chatWithTools(LlmCallTags.UNTAGGED, ConversationContext.empty(), "Vreau pizza", "system", tools,
+                (name, input) -> calls.add(name + ":" + input.path("request").asText()));
+
+        assertEquals(List.of("room_service:Pizza"), calls);
+    }
+
+    @Test
+    void injectedServerErrors_shouldEndInFallback() throws IOException {
+        AnthropicSimulator.Config config = new AnthropicSimulator.Config();
+        config.serverErrorRate = 1.0;
+        AnthropicService service = startAgainst(config);
+
+        assertEquals(AnthropicService.FALLBACK_REPLY, service.chat("Salut", "system"));
+        assertEquals(3, simulator.getInjectedErrorCount());
+    }
+}
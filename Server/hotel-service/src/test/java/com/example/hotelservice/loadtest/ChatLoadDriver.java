@@ -0,0 +1,242 @@
+package com.example.hotelservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives {@code POST /api/client/chat} with a fixed number of concurrent guests per stage and reports
+ * throughput, latency percentiles and the server's thread, connection and bulkhead usage.
+ *
+ * <p>Typical run: start {@link AnthropicSimulator}, start the app with
+ * {@code --spring.profiles.active=loadtest} (simulator URL, chat rate limit off), then run this class
+ * with e.g. {@code --concurrency=10,50,200 --duration-seconds=30}. Restart the app with different
+ * {@code anthropic.max-concurrent-calls}, {@code spring.datasource.hikari.maximum-pool-size} or
+ * {@code server.tomcat.threads.max} values to compare limits. Server-side numbers are sampled from
+ * the actuator once per second with the staff account given by {@code --staff-email}.
+ */
+public class ChatLoadDriver {
+
+    private static final List<String> MESSAGES = List.of(
+            "Bună ziua! La ce oră este micul dejun?",
+            "Ce atracții turistice îmi recomandați în zonă?",
+            "Aveți parcare pentru oaspeți?",
+            "Vreau să comand o pizza și o cola",
+            "Camera mea are nevoie de curățenie",
+            "Puteți să-mi spuneți mai multe despre spa?",
+            "Cum ajung la aeroport de la hotel?");
+
+    private static final String[] SAMPLED_METRICS = {
+            "jvm.threads.live", "tomcat.threads.busy", "hikaricp.connections.active",
+            "hikaricp.connections.pending", "anthropic.bulkhead.available"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final Map<String, String> options;
+
+    private ChatLoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new ChatLoadDriver(LoadTestArgs.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        int guests = Integer.parseInt(options.getOrDefault("guests", "100"));
+        long durationMs = Long.parseLong(options.getOrDefault("duration-seconds", "30")) * 1000;
+        int[] stages = Arrays.stream(options.getOrDefault("concurrency", "10,50,100").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+
+        List<String> tokens = loginGuests(guests, options.getOrDefault("password", "loadtest123"));
+        String staffToken = login("/api/staff/auth/login",
+                options.getOrDefault("staff-email", "admin@hotel.com"),
+                options.getOrDefault("staff-password", "1234"));
+
+        System.out.printf("%-6s %8s %8s %8s %8s %8s %7s %6s %8s %8s %8s %8s%n",
+                "conc", "requests", "rps", "p50 ms", "p99 ms", "max ms", "errors", "429",
+                "threads", "busy", "db conn", "bulkhead");
+        for (int concurrency : stages) {
+            StageResult result = runStage(concurrency, tokens, staffToken, durationMs);
+            result.print(concurrency);
+        }
+        if (staffToken != null) {
+            JsonNode summary = getJson("/api/staff/chat/metrics", staffToken);
+            System.out.println("Model calls: " + summary.path("totalCalls").asLong()
+                    + ", fallback rate: " + summary.path("fallbackRate").asDouble()
+                    + ", FAQ cache hit rate: " + summary.path("cacheHitRate").asDouble());
+        }
+    }
+
+    private StageResult runStage(int concurrency, List<String> tokens, String staffToken, long durationMs)
+            throws InterruptedException {
+        StageResult result = new StageResult();
+        long deadline = System.currentTimeMillis() + durationMs;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicInteger messageIndex = new AtomicInteger();
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            String token = tokens.get(worker % tokens.size());
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.currentTimeMillis() < deadline) {
+                        String message = MESSAGES.get(Math.floorMod(messageIndex.getAndIncrement(), MESSAGES.size()));
+                        result.record(sendChat(token, message));
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "chat-load-" + worker);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        while (!done.await(1, TimeUnit.SECONDS)) {
+            if (staffToken != null) {
+                for (String metric : SAMPLED_METRICS) {
+                    result.sample(metric, readMetric(metric, staffToken));
+                }
+            }
+        }
+        result.elapsedMs = durationMs;
+        return result;
+    }
+
+    /** Returns {latencyNanos, status}; status 0 means the request failed without a response. */
+    private long[] sendChat(String token, String message) {
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/client/chat"))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            objectMapper.createObjectNode().put("message", message).toString()))
+                    .build();
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return new long[]{System.nanoTime() - start, status};
+        } catch (IOException e) {
+            return new long[]{System.nanoTime() - start, 0};
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new long[]{System.nanoTime() - start, 0};
+        }
+    }
+
+    private List<String> loginGuests(int guests, String password) throws Exception {
+        List<String> tokens = new ArrayList<>(guests);
+        for (int i = 0; i < guests; i++) {
+            String email = "loadtest" + i + "@example.com";
+            String token = login("/api/client/auth/login", email, password);
+            if (token == null) {
+                String body = objectMapper.createObjectNode()
+                        .put("name", "Load Test " + i)
+                        .put("email", email)
+                        .put("password", password)
+                        .toString();
+                token = objectMapper.readTree(post("/api/client/auth/register", body).body()).path("token").asText();
+            }
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private String login(String path, String email, String password) throws Exception {
+        String body = objectMapper.createObjectNode().put("email", email).put("password", password).toString();
+        HttpResponse<String> response = post(path, body);
+        return response.statusCode() == 200 ? objectMapper.readTree(response.body()).path("token").asText() : null;
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode getJson(String path, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return objectMapper.readTree(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private double readMetric(String name, String token) {
+        try {
+            JsonNode measurements = getJson("/actuator/metrics/" + name, token).path("measurements");
+            return measurements.isEmpty() ? Double.NaN : measurements.get(0).path("value").asDouble();
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private static final class StageResult {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final Map<String, Double> peaks = new ConcurrentHashMap<>();
+        private long elapsedMs;
+
+        void record(long[] outcome) {
+            latencies.add(outcome[0]);
+            if (outcome[1] == 429) {
+                throttled.increment();
+            } else if (outcome[1] != 200) {
+                errors.increment();
+            }
+        }
+
+        void sample(String metric, double value) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            // Track the worst value seen: the minimum for remaining bulkhead permits, the maximum otherwise.
+            boolean lowerIsWorse = metric.equals("anthropic.bulkhead.available");
+            peaks.merge(metric, value, (a, b) -> lowerIsWorse ? Math.min(a, b) : Math.max(a, b));
+        }
+
+        void print(int concurrency) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-6d %8d %8.1f %8.0f %8.0f %8.0f %7d %6d %8s %8s %8s %8s%n",
+                    concurrency, sorted.length, sorted.length * 1000.0 / elapsedMs,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6,
+                    errors.sum(), throttled.sum(),
+                    peak("jvm.threads.live"), peak("tomcat.threads.busy"),
+                    peak("hikaricp.connections.active"), peak("anthropic.bulkhead.available"));
+        }
+
+        private String peak(String metric) {
+            Double value = peaks.get(metric);
+            return value == null ? "-" : String.valueOf(value.longValue());
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
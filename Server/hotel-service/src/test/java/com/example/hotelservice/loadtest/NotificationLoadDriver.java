@@ -0,0 +1,384 @@
+package com.example.hotelservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how many staff dashboards one node can feed: opens N STOMP sessions on {@code /ws} (the
+ * plain WebSocket transport of the SockJS endpoint) with the admin's token, subscribes each to
+ * {@code /topic/reservations} and {@code /topic/role.Admin}, then triggers events through the REST API
+ * as a guest, alternating a reservation and a review. For every delivery it records the time from the
+ * REST call to the frame arriving, and samples the server's CPU, heap, threads and outbound queue from
+ * the actuator while the stage runs.
+ *
+ * <p>Typical run: start the app with {@code --spring.profiles.active=loadtest}, then run this class
+ * with e.g. {@code --sessions=50,200,1000 --events=40 --label=$(git rev-parse --short HEAD)}. Every
+ * stage is appended to {@code --output} (default {@code target/loadtest/notification-fanout.csv}), and
+ * the previous row for the same session count is printed next to it, so two builds can be compared.
+ * Each reservation books the room for one night on a random far-future date and queues a confirmation
+ * email; use a disposable database.
+ */
+public class NotificationLoadDriver {
+
+    private static final String[] SAMPLED_METRICS = {
+            "process.cpu.usage", "jvm.memory.used?tag=area:heap", "jvm.threads.live",
+            "websocket.sessions", "websocket.outbound.queued.bytes"};
+
+    private static final String CSV_HEADER = "label,timestamp,sessions,events,deliveries,lost,"
+            + "p50_ms,p90_ms,p99_ms,max_ms,cpu_peak,heap_peak_mb,threads_peak,queued_bytes_peak,dropped";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final Map<String, String> options;
+
+    private NotificationLoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new NotificationLoadDriver(LoadTestArgs.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        int[] stages = Arrays.stream(options.getOrDefault("sessions", "10,100,500").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+        int events = Integer.parseInt(options.getOrDefault("events", "40"));
+        long intervalMs = Long.parseLong(options.getOrDefault("interval-ms", "250"));
+
+        String staffToken = login("/api/staff/auth/login",
+                options.getOrDefault("staff-email", "admin@hotel.com"),
+                options.getOrDefault("staff-password", "1234"));
+        if (staffToken == null) {
+            throw new IllegalStateException("Staff login failed; the sessions need an Admin token");
+        }
+        String guestToken = loginGuest("loadtest-notify@example.com", options.getOrDefault("password", "loadtest123"));
+        long roomId = options.containsKey("room-id")
+                ? Long.parseLong(options.get("room-id"))
+                : getJson("/api/rooms", null).get(0).path("id").asLong();
+
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest/notification-fanout.csv"));
+        String label = options.getOrDefault("label", "dev");
+
+        System.out.printf("%-8s %6s %10s %6s %8s %8s %8s %8s %6s %8s %7s %10s %7s%n",
+                "sessions", "events", "deliveries", "lost", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                "cpu %", "heap MB", "threads", "queued B", "dropped");
+        for (int sessions : stages) {
+            StageResult result = runStage(sessions, events, intervalMs, staffToken, guestToken, roomId);
+            String row = result.csv(label, sessions);
+            result.print(sessions);
+            String previous = previousRow(output, sessions);
+            if (previous != null) {
+                System.out.println("         previous: " + previous);
+            }
+            append(output, row);
+        }
+    }
+
+    private StageResult runStage(int sessionCount, int events, long intervalMs, String staffToken,
+                                 String guestToken, long roomId) throws Exception {
+        StageResult result = new StageResult();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setDefaultHeartbeat(new long[]{0, 0});
+        List<StompSession> sessions = connect(client, sessionCount, staffToken, result);
+
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                for (String metric : SAMPLED_METRICS) {
+                    result.sample(metric, readMetric(metric, staffToken));
+                }
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "notification-load-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        for (int i = 0; i < events; i++) {
+            long sentAt = System.nanoTime();
+            String key = i % 2 == 0 ? reserve(guestToken, roomId) : review(guestToken, roomId, i);
+            if (key != null) {
+                result.sent.put(key, sentAt);
+            }
+            Thread.sleep(intervalMs);
+        }
+
+        long expected = (long) sessions.size() * result.sent.size();
+        long drainUntil = System.currentTimeMillis() + Long.parseLong(options.getOrDefault("drain-seconds", "10")) * 1000;
+        while (result.deliveries() < expected && System.currentTimeMillis() < drainUntil) {
+            Thread.sleep(100);
+        }
+        sampler.interrupt();
+        result.dropped = readMetric("websocket.outbound.dropped", staffToken);
+        result.expected = expected;
+        sessions.forEach(StompSession::disconnect);
+        client.stop();
+        return result;
+    }
+
+    // In batches, so the handshakes themselves do not become the load being measured.
+    private List<StompSession> connect(WebSocketStompClient client, int count, String token, StageResult result) {
+        int batchSize = Integer.parseInt(options.getOrDefault("connect-batch", "50"));
+        String url = baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        AtomicInteger failed = new AtomicInteger();
+
+        List<StompSession> sessions = new ArrayList<>(count);
+        for (int start = 0; start < count; start += batchSize) {
+            List<CompletableFuture<StompSession>> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(count, start + batchSize); i++) {
+                batch.add(client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void afterConnected(StompSession session, StompHeaders headers) {
+                        StompFrameHandler listener = result.listener();
+                        session.subscribe("/topic/reservations", listener);
+                        session.subscribe("/topic/role.Admin", listener);
+                    }
+                }));
+            }
+            for (CompletableFuture<StompSession> future : batch) {
+                try {
+                    sessions.add(future.get(30, TimeUnit.SECONDS));
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+        if (failed.get() > 0) {
+            System.out.println(failed.get() + " of " + count + " sessions could not connect");
+        }
+        return sessions;
+    }
+
+    /** Returns the key the notification will carry, or null when the request failed. */
+    private String reserve(String guestToken, long roomId) {
+        LocalDate start = LocalDate.now().plusDays(1000 + ThreadLocalRandom.current().nextInt(200_000));
+        String body = objectMapper.createObjectNode()
+                .put("roomId", roomId)
+                .put("startDate", start.toString())
+                .put("endDate", start.plusDays(1).toString())
+                .toString();
+        JsonNode created = postJson("/api/client/reservations", body, guestToken);
+        return created == null ? null : "reservation:" + created.path("id").asLong();
+    }
+
+    private String review(String guestToken, long roomId, int i) {
+        String body = objectMapper.createObjectNode()
+                .put("roomId", roomId)
+                .put("rating", 1 + i % 5)
+                .put("comment", "Test de încărcare pentru notificări #" + i)
+                .toString();
+        JsonNode created = postJson("/api/client/reviews", body, guestToken);
+        return created == null ? null : "review:" + created.path("id").asLong();
+    }
+
+    private String keyOf(String destination, byte[] payload) {
+        try {
+            JsonNode json = objectMapper.readTree(payload);
+            if ("/topic/reservations".equals(destination)) {
+                return "reservation:" + json.path("id").asLong();
+            }
+            return "NEW_REVIEW".equals(json.path("type").asText()) ? "review:" + json.path("data").path("reviewId").asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String loginGuest(String email, String password) throws Exception {
+        String token = login("/api/client/auth/login", email, password);
+        if (token != null) {
+            return token;
+        }
+        String body = objectMapper.createObjectNode()
+                .put("name", "Load Test Notificări")
+                .put("email", email)
+                .put("password", password)
+                .toString();
+        return objectMapper.readTree(post("/api/client/auth/register", body, null).body()).path("token").asText();
+    }
+
+    private String login(String path, String email, String password) throws Exception {
+        String body = objectMapper.createObjectNode().put("email", email).put("password", password).toString();
+        HttpResponse<String> response = post(path, body, null);
+        return response.statusCode() == 200 ? objectMapper.readTree(response.body()).path("token").asText() : null;
+    }
+
+    private JsonNode postJson(String path, String body, String token) {
+        try {
+            HttpResponse<String> response = post(path, body, token);
+            return response.statusCode() / 100 == 2 ? objectMapper.readTree(response.body()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private HttpResponse<String> post(String path, String body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode getJson(String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return objectMapper.readTree(http.send(request.build(), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private double readMetric(String name, String token) {
+        try {
+            JsonNode measurements = getJson("/actuator/metrics/" + name, token).path("measurements");
+            return measurements.isEmpty() ? Double.NaN : measurements.get(0).path("value").asDouble();
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String previousRow(Path output, int sessions) throws IOException {
+        if (!Files.exists(output)) {
+            return null;
+        }
+        String previous = null;
+        for (String line : Files.readAllLines(output, StandardCharsets.UTF_8)) {
+            String[] columns = line.split(",");
+            if (columns.length > 2 && columns[2].equals(String.valueOf(sessions))) {
+                previous = line;
+            }
+        }
+        return previous;
+    }
+
+    private static void append(Path output, String row) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        if (!Files.exists(output)) {
+            Files.writeString(output, CSV_HEADER + System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+        Files.writeString(output, row + System.lineSeparator(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private final class StageResult {
+        private final Map<String, Long> sent = new ConcurrentHashMap<>();
+        private final Map<String, Queue<Long>> received = new ConcurrentHashMap<>();
+        private final Map<String, Double> peaks = new ConcurrentHashMap<>();
+        private final AtomicInteger deliveries = new AtomicInteger();
+        private long expected;
+        private double dropped;
+
+        StompFrameHandler listener() {
+            return new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long arrivedAt = System.nanoTime();
+                    String key = keyOf(headers.getDestination(), (byte[]) payload);
+                    if (key != null) {
+                        received.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(arrivedAt);
+                        deliveries.incrementAndGet();
+                    }
+                }
+            };
+        }
+
+        int deliveries() {
+            return deliveries.get();
+        }
+
+        void sample(String metric, double value) {
+            if (!Double.isNaN(value)) {
+                peaks.merge(metric, value, Math::max);
+            }
+        }
+
+        // Only deliveries of events this stage triggered count; the REST response may arrive after the frames.
+        private long[] latencies() {
+            List<Long> latencies = new ArrayList<>();
+            sent.forEach((key, sentAt) -> received.getOrDefault(key, new ConcurrentLinkedQueue<>())
+                    .forEach(arrivedAt -> latencies.add(arrivedAt - sentAt)));
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        void print(int sessions) {
+            long[] sorted = latencies();
+            System.out.printf("%-8d %6d %10d %6d %8.1f %8.1f %8.1f %8.1f %6s %8s %7s %10s %7s%n",
+                    sessions, sent.size(), sorted.length, expected - sorted.length,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.90), percentileMs(sorted, 0.99),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6,
+                    format(peaks.get("process.cpu.usage"), 100), format(peaks.get("jvm.memory.used?tag=area:heap"), 1.0 / (1 << 20)),
+                    format(peaks.get("jvm.threads.live"), 1), format(peaks.get("websocket.outbound.queued.bytes"), 1),
+                    Double.isNaN(dropped) ? "-" : String.valueOf((long) dropped));
+        }
+
+        String csv(String label, int sessions) {
+            long[] sorted = latencies();
+            return String.join(",", label, LocalDateTime.now().withNano(0).toString(), String.valueOf(sessions),
+                    String.valueOf(sent.size()), String.valueOf(sorted.length), String.valueOf(expected - sorted.length),
+                    String.format("%.1f", percentileMs(sorted, 0.50)), String.format("%.1f", percentileMs(sorted, 0.90)),
+                    String.format("%.1f", percentileMs(sorted, 0.99)),
+                    String.format("%.1f", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6),
+                    format(peaks.get("process.cpu.usage"), 100), format(peaks.get("jvm.memory.used?tag=area:heap"), 1.0 / (1 << 20)),
+                    format(peaks.get("jvm.threads.live"), 1), format(peaks.get("websocket.outbound.queued.bytes"), 1),
+                    Double.isNaN(dropped) ? "0" : String.valueOf((long) dropped));
+        }
+
+        private static String format(Double value, double scale) {
+            return value == null ? "-" : String.valueOf(Math.round(value * scale));
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
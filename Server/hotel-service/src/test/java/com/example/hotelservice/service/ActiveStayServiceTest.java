@@ -0,0 +1,74 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.ActiveStayDTO;
+import com.example.hotelservice.entity.Reservation;
+import com.example.hotelservice.entity.Room;
+import com.example.hotelservice.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveStayServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private ActiveStayService activeStayService;
+    private Reservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        activeStayService = new ActiveStayService(reservationRepository, 100, 300);
+
+        Room room = new Room();
+        room.setId(7L);
+        room.setNumber("207");
+
+        reservation = Reservation.builder()
+                .id(3L)
+                .reservationCode("RES-1")
+                .room(room)
+                .startDate(LocalDate.now().minusDays(1))
+                .endDate(LocalDate.now().plusDays(2))
+                .build();
+    }
+
+    @Test
+    void findActiveStay_shouldQueryOnceAndServeFromCache() {
+        when(reservationRepository.findActiveForGuest(eq(1L), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of(reservation));
+
+        Optional<ActiveStayDTO> first = activeStayService.findActiveStay(1L);
+        Optional<ActiveStayDTO> second = activeStayService.findActiveStay(1L);
+
+        assertTrue(first.isPresent());
+        assertEquals(7L, first.get().getRoomId());
+        assertEquals(first, second);
+        verify(reservationRepository, times(1)).findActiveForGuest(eq(1L), any(LocalDate.class), any(Pageable.class));
+    }
+
+    @Test
+    void findActiveStay_afterEvict_shouldReload() {
+        when(reservationRepository.findActiveForGuest(eq(1L), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(reservation));
+
+        assertTrue(activeStayService.findActiveStay(1L).isEmpty());
+        activeStayService.evict(1L);
+
+        assertTrue(activeStayService.findActiveStay(1L).isPresent());
+        verify(reservationRepository, times(2)).findActiveForGuest(eq(1L), any(LocalDate.class), any(Pageable.class));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnthropicServiceTest {
+
+    private static final String OK_BODY = "{\"content\":[{\"type\":\"text\",\"text\":\"Bună!\"}]," +
+            "\"usage\":{\"input_tokens\":1000,\"output_tokens\":200,\"cache_read_input_tokens\":4000}}";
+
+    private MockWebServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private AnthropicService anthropicService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        LlmMetrics llmMetrics = new LlmMetrics(meterRegistry, new ChatResponseCache(meterRegistry, 60, 10, 200),
+                1.0, 5.0, 0.1, 1.25, 0.0);
+        anthropicService = new AnthropicService(new OkHttpClient(), new ObjectMapper(), meterRegistry, llmMetrics,
+                4, 50, 3, 1, 5, 2, 60_000);
+        ReflectionTestUtils.setField(anthropicService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(anthropicService, "model", "test-model");
+        ReflectionTestUtils.setField(anthropicService, "apiUrl", server.url("/v1/messages").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void chat_withSuccessfulResponse_shouldReturnText() throws IOException {
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        assertEquals("Bună!", anthropicService.chat("Salut", "system"));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void chat_withConversationContext_shouldSendHistoryAndCacheableSystemPrompt() throws Exception {
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+        ConversationContext context = new ConversationContext("Oaspetele preferă ceai.",
+                List.of(new ConversationContext.Turn("Salut", "Bună ziua!")), true);
+
+        anthropicService.chat(LlmCallTags.UNTAGGED, context, "Ce îmi recomanzi?", "system");
+
+        RecordedRequest recorded = server.takeRequest();
+        JsonNode body = new ObjectMapper().readTree(recorded.getBody().readUtf8());
+        assertEquals("ephemeral", body.get("system").get(0).get("cache_control").get("type").asText());
+        assertTrue(body.get("system").get(1).get("text").asText().contains("preferă ceai"));
+        assertEquals(3, body.get("messages").size());
+        assertEquals("assistant", body.get("messages").get(1).get("role").asText());
+        assertEquals("Ce îmi recomanzi?", body.get("messages").get(2).get("content").asText());
+    }
+
+    @Test
+    void chat_withTransientErrors_shouldRetryAndSucceed() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        assertEquals("Bună!", anthropicService.chat("Salut", "system"));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2.0, meterRegistry.find("anthropic.retries").counters().stream()
+                .mapToDouble(c -> c.count()).sum());
+    }
+
+    @Test
+    void chat_withRetriesExhausted_shouldReturnFallback() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        assertEquals(AnthropicService.FALLBACK_REPLY, anthropicService.chat("Salut", "system"));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("anthropic.fallbacks").tag("reason", "retries_exhausted").counter().count());
+    }
+
+    @Test
+    void chat_withOpenCircuit_shouldNotCallUpstream() throws IOException {
+        for (int i = 0; i < 6; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        anthropicService.chat("Salut", "system");
+        anthropicService.chat("Salut", "system");
+        int callsBeforeOpen = server.getRequestCount();
+
+        assertEquals(AnthropicService.FALLBACK_REPLY, anthropicService.chat("Salut", "system"));
+        assertEquals(callsBeforeOpen, server.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("anthropic.requests").tag("outcome", "short_circuited").timer().count());
+    }
+
+    @Test
+    void chat_withClientError_shouldThrowWithoutRetry() {
+        server.enqueue(new MockResponse().setResponseCode(401).setBody("{\"error\":\"invalid key\"}"));
+
+        assertThrows(IOException.class, () -> anthropicService.chat("Salut", "system"));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void chatWithTools_withStreamedToolCall_shouldNotifyListenerBeforeStreamEnds() throws Exception {
+        String sse = String.join("\n",
+                "event: message_start",
+                "data: {\"type\":\"message_start\",\"message\":{\"id\":\"msg_1\"}}",
+                "",
+                "event: content_block_start",
+                "data: {\"type\":\"content_block_start\",\"index\":0,\"content_block\":{\"type\":\"tool_use\",\"id\":\"tu_1\",\"name\":\"room_service\",\"input\":{}}}",
+                "",
+                "event: content_block_delta",
+                "data: {\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"input_json_delta\",\"partial_json\":\"{\\\"requ\"}}",
+                "",
+                "event: content_block_delta",
+                "data: {\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"input_json_delta\",\"partial_json\":\"est\\\": \\\"Pizza\\\"}\"}}",
+                "",
+                "event: content_block_stop",
+                "data: {\"type\":\"content_block_stop\",\"index\":0}",
+                "",
+                "event: message_stop",
+                "data: {\"type\":\"message_stop\"}",
+                "", "");
+        server.enqueue(new MockResponse().setHeader("Content-Type", "text/event-stream").setBody(sse));
+        List<String> calls = new ArrayList<>();
+        ArrayNode tools = new ObjectMapper().createArrayNode();
+        tools.addObject().put("name", "room_service");
+
+        anthropicService.chatWithTools(new LlmCallTags("chat", "in_house"), ConversationContext.empty(), "Vreau pizza", "system", tools,
+                (name, input) -> calls.add(name + ":" + input.get("request").asText()));
+
+        assertEquals(List.of("room_service:Pizza"), calls);
+        JsonNode body = new ObjectMapper().readTree(server.takeRequest().getBody().readUtf8());
+        assertTrue(body.get("stream").asBoolean());
+        assertEquals("room_service", body.get("tools").get(0).get("name").asText());
+        assertEquals(1, meterRegistry.get("anthropic.ttft").tag("cohort", "in_house").timer().count());
+    }
+
+    @Test
+    void chat_withUsage_shouldRecordTokensAndCost() throws IOException {
+        server.enqueue(new MockResponse().setBody(OK_BODY));
+
+        anthropicService.chat(LlmCallTags.of("chat_summary"), ConversationContext.empty(), "Salut", "system");
+
+        assertEquals(1000.0, meterRegistry.get("anthropic.tokens").tag("endpoint", "chat_summary")
+                .tag("type", "input").summary().totalAmount());
+        assertEquals(200.0, meterRegistry.get("anthropic.tokens").tag("type", "output").summary().totalAmount());
+        // 1000 * $1 + 200 * $5 + 4000 * $0.10 per million tokens
+        assertEquals(0.0024, meterRegistry.get("anthropic.cost").counter().count(), 1e-9);
+    }
+
+    @Test
+    void chatWithTools_withIncompleteToolCalls_shouldNotOpenCircuit() throws Exception {
+        String sse = String.join("\n",
+                "data: {\"type\":\"content_block_start\",\"index\":0,\"content_block\":{\"type\":\"tool_use\",\"id\":\"tu_1\",\"name\":\"room_service\",\"input\":{}}}",
+                "",
+                "data: {\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"input_json_delta\",\"partial_json\":\"{\\\"requ\"}}",
+                "",
+                "data: {\"type\":\"content_block_stop\",\"index\":0}",
+                "",
+                "data: {\"type\":\"message_stop\"}",
+                "", "");
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "text/event-stream").setBody(sse));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(AnthropicService.FALLBACK_REPLY, anthropicService.chatWithTools(LlmCallTags.of("chat"),
+                    ConversationContext.empty(), "Vreau pizza", "system", new ObjectMapper().createArrayNode(), (name, input) -> { }));
+        }
+
+        assertEquals(3, server.getRequestCount());
+        assertEquals(3.0, meterRegistry.get("anthropic.requests").tag("outcome", "stream_failed").timer().count());
+    }
+
+    @Test
+    void chatWithTools_withStreamEndingBeforeMessageStop_shouldFallBack() throws Exception {
+        String sse = String.join("\n",
+                "data: {\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"text_delta\",\"text\":\"Vă aduc\"}}",
+                "", "");
+        server.enqueue(new MockResponse().setHeader("Content-Type", "text/event-stream").setBody(sse));
+
+        String reply = anthropicService.chatWithTools(LlmCallTags.of("chat"), ConversationContext.empty(), "Vreau pizza",
+                "system", new ObjectMapper().createArrayNode(), (name, input) -> { });
+
+        assertEquals(AnthropicService.FALLBACK_REPLY, reply);
+        assertEquals(1.0, meterRegistry.get("anthropic.requests").tag("outcome", "stream_failed").timer().count());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.ChatHistoryPageDTO;
+import com.example.hotelservice.entity.ChatMessage;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.exception.InvalidRequestException;
+import com.example.hotelservice.repository.ChatMessageRepository;
+import com.example.hotelservice.repository.GuestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatHistoryServiceTest {
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @InjectMocks
+    private ChatHistoryService chatHistoryService;
+
+    private Guest guest;
+
+    @BeforeEach
+    void setUp() {
+        guest = new Guest();
+        guest.setId(1L);
+        guest.setEmail("guest@test.com");
+        ReflectionTestUtils.setField(chatHistoryService, "retentionDays", 180L);
+        ReflectionTestUtils.setField(chatHistoryService, "retentionBatchSize", 2);
+    }
+
+    private static ChatMessage message(long id, LocalDateTime createdAt) {
+        return ChatMessage.builder().id(id).message("m" + id).response("r" + id).createdAt(createdAt).build();
+    }
+
+    @Test
+    void getHistory_withMoreRows_shouldReturnCursorThatContinuesFromLastItem() {
+        LocalDateTime now = LocalDateTime.of(2025, 5, 1, 12, 0, 0, 123_456_000);
+        when(guestRepository.findByEmail("guest@test.com")).thenReturn(Optional.of(guest));
+        when(chatMessageRepository.findLatestAfter(eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(message(3, now), message(2, now.minusMinutes(1)), message(1, now.minusMinutes(2))));
+
+        ChatHistoryPageDTO first = chatHistoryService.getHistory("guest@test.com", null, 2);
+
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        when(chatMessageRepository.findPageBefore(eq(1L), eq(now.minusMinutes(1)), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(message(1, now.minusMinutes(2))));
+
+        ChatHistoryPageDTO second = chatHistoryService.getHistory("guest@test.com", first.getNextCursor(), 2);
+
+        assertEquals(1, second.getItems().size());
+        assertEquals(1L, second.getItems().get(0).getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getHistory_withMalformedCursor_shouldThrowInvalidRequest() {
+        when(guestRepository.findByEmail("guest@test.com")).thenReturn(Optional.of(guest));
+
+        assertThrows(InvalidRequestException.class,
+                () -> chatHistoryService.getHistory("guest@test.com", "not-a-cursor", 20));
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteInBatchesUntilShortBatch() {
+        when(chatMessageRepository.deleteOlderThan(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+
+        chatHistoryService.purgeExpired();
+
+        verify(chatMessageRepository, times(3)).deleteOlderThan(any(LocalDateTime.class), eq(2));
+    }
+}
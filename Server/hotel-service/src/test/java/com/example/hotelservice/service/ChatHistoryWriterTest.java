@@ -0,0 +1,147 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatHistoryWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatHistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private void startWriter(long flushIntervalMs, int batchSize) {
+        writer = new ChatHistoryWriter(jdbcTemplate, transactionTemplate, meterRegistry,
+                true, flushIntervalMs, batchSize, 100, 5000, 10, 50);
+        writer.start();
+    }
+
+    @Test
+    void append_whenBatchFills_shouldInsertInOneBatch() {
+        startWriter(10_000, 3);
+
+        writer.append(1L, "Salut", "Bună ziua!");
+        writer.append(1L, "Ce facilități aveți?", "Avem piscină.");
+        writer.append(2L, "Mulțumesc", "Cu plăcere!");
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(ChatHistoryWriter.INSERT_SQL),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.size() == 3), eq(3), any());
+    }
+
+    @Test
+    void stop_shouldDrainQueuedTurnsAndKeepThemVisibleUntilWritten() throws InterruptedException {
+        startWriter(10_000, 100);
+
+        writer.append(1L, "Salut", "Bună ziua!");
+        writer.append(1L, "Ce facilități aveți?", "Avem piscină.");
+
+        assertEquals(2, writer.pendingFor(1L).size());
+        assertEquals("Salut", writer.pendingFor(1L).get(0).message());
+        verifyNoInteractions(jdbcTemplate);
+
+        writer.stop();
+
+        verify(jdbcTemplate).batchUpdate(eq(ChatHistoryWriter.INSERT_SQL),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.size() == 2), eq(2), any());
+        assertTrue(writer.pendingFor(1L).isEmpty());
+    }
+
+    @Test
+    void flush_withFailingBatch_shouldRetryRowsIndividuallyAndDropOnlyTheBadOne() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.stream()
+                        .anyMatch(turn -> turn.message().equals("bad"))), anyInt(), any()))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        startWriter(10_000, 2);
+
+        writer.append(1L, "Salut", "Bună ziua!");
+        writer.append(1L, "bad", "răspuns");
+        writer.stop();
+
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.size() == 1
+                        && batch.iterator().next().message().equals("Salut")), eq(1), any());
+        assertEquals(1.0, meterRegistry.get("chat.history.dropped").counter().count());
+    }
+
+    @Test
+    void flush_whileDatabaseUnreachable_shouldRetryBatchAndKeepWriting() throws InterruptedException {
+        doThrow(new CannotCreateTransactionException("Connection refused"))
+                .doThrow(new CannotCreateTransactionException("Connection refused"))
+                .doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        startWriter(5, 100);
+
+        writer.append(1L, "Salut", "Bună ziua!");
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(ChatHistoryWriter.INSERT_SQL),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.iterator().next().message().equals("Salut")),
+                anyInt(), any());
+        writer.append(1L, "Mulțumesc", "Cu plăcere!");
+        writer.stop();
+
+        verify(jdbcTemplate).batchUpdate(eq(ChatHistoryWriter.INSERT_SQL),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.iterator().next().message().equals("Mulțumesc")),
+                anyInt(), any());
+        assertEquals(0.0, meterRegistry.get("chat.history.dropped").counter().count());
+        assertTrue(writer.pendingFor(1L).isEmpty());
+    }
+
+    @Test
+    void flush_withUnexpectedFailure_shouldKeepWorkerAlive() throws InterruptedException {
+        doThrow(new IllegalStateException("boom"))
+                .doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        startWriter(5, 100);
+
+        writer.append(1L, "Salut", "Bună ziua!");
+        verify(transactionTemplate, timeout(2000)).execute(any());
+        Thread.sleep(50);
+        writer.append(1L, "Mulțumesc", "Cu plăcere!");
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(ChatHistoryWriter.INSERT_SQL),
+                argThat((Collection<ChatHistoryWriter.PendingTurn> batch) -> batch.iterator().next().message().equals("Mulțumesc")),
+                anyInt(), any());
+        assertEquals(1.0, meterRegistry.get("chat.history.dropped").counter().count());
+    }
+
+    @Test
+    void append_withWriteBehindDisabled_shouldWriteSynchronously() {
+        writer = new ChatHistoryWriter(jdbcTemplate, transactionTemplate, meterRegistry,
+                false, 20, 100, 100, 5000, 10, 50);
+        writer.start();
+
+        writer.append(1L, "Salut", "Bună ziua!");
+
+        verify(jdbcTemplate).batchUpdate(eq(ChatHistoryWriter.INSERT_SQL), anyCollection(), eq(1), any());
+        assertTrue(writer.pendingFor(1L).isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.hotelservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatIntentClassifierTest {
+
+    private final ChatIntentClassifier classifier = new ChatIntentClassifier();
+
+    @Test
+    void classify_withFoodOrder_shouldReturnRoomService() {
+        ChatIntentClassifier.Intent intent = classifier.classify("Vreau să comand pizza").orElseThrow();
+
+        assertEquals(ChatIntentClassifier.ROOM_SERVICE, intent.action());
+        assertEquals("Pizza", intent.description());
+    }
+
+    @Test
+    void classify_withSeveralItems_shouldCombineDescriptions() {
+        ChatIntentClassifier.Intent intent = classifier.classify("please bring a burger and a beer").orElseThrow();
+
+        assertEquals(ChatIntentClassifier.ROOM_SERVICE, intent.action());
+        assertEquals("Burger, Bere", intent.description());
+    }
+
+    @Test
+    void classify_withSelfContainedPhrase_shouldNotNeedCue() {
+        ChatIntentClassifier.Intent intent = classifier.classify("Clean my room").orElseThrow();
+
+        assertEquals(ChatIntentClassifier.HOUSEKEEPING, intent.action());
+        assertEquals("CLEANING", intent.type());
+    }
+
+    @Test
+    void classify_withSuppliesRequest_shouldReturnSuppliesType() {
+        ChatIntentClassifier.Intent intent = classifier.classify("I need towels").orElseThrow();
+
+        assertEquals("SUPPLIES", intent.type());
+        assertEquals("Prosoape curate", intent.description());
+    }
+
+    @Test
+    void classify_withRoomNeedingCleaning_shouldReturnCleaning() {
+        ChatIntentClassifier.Intent intent = classifier.classify("Camera mea are nevoie de curățenie").orElseThrow();
+
+        assertEquals(ChatIntentClassifier.HOUSEKEEPING, intent.action());
+        assertEquals("CLEANING", intent.type());
+    }
+
+    @Test
+    void classify_withMaintenancePhraseContainingNegation_shouldReturnMaintenance() {
+        ChatIntentClassifier.Intent intent = classifier.classify("Aerul condiționat nu merge").orElseThrow();
+
+        assertEquals("MAINTENANCE", intent.type());
+    }
+
+    @Test
+    void classify_withAmbiguousMessages_shouldDeferToModel() {
+        assertEquals(Optional.empty(), classifier.classify("Aveți pizza?"));
+        assertEquals(Optional.empty(), classifier.classify("Nu vreau pizza"));
+        assertEquals(Optional.empty(), classifier.classify("pizza"));
+        assertEquals(Optional.empty(), classifier.classify("Vreau pizza și prosoape"));
+        assertEquals(Optional.empty(), classifier.classify("Ce atracții turistice sunt în zonă"));
+        assertEquals(Optional.empty(), classifier.classify(
+                "Vreau să știu dacă pot primi pizza mai târziu după ce ajung înapoi de la plimbarea prin oraș"));
+    }
+
+    @Test
+    void classify_withInformationQuestions_shouldNotCreateOrders() {
+        assertEquals(Optional.empty(), classifier.classify("Breakfast hours please"));
+        assertEquals(Optional.empty(), classifier.classify("Vreau să știu programul de la micul dejun"));
+        assertEquals(Optional.empty(), classifier.classify("I need a wine recommendation"));
+        assertEquals(Optional.empty(), classifier.classify("Vreau o recomandare de vin"));
+        assertEquals(Optional.empty(), classifier.classify("Vreau meniul pentru micul dejun"));
+        assertEquals(Optional.empty(), classifier.classify("I want the price of the pizza"));
+        assertEquals(Optional.empty(), classifier.classify("Până la ce oră e deschis barul, vreau o bere"));
+    }
+
+    @Test
+    void classify_withCueNotGoverningItem_shouldDeferToModel() {
+        assertEquals(Optional.empty(), classifier.classify("Pizza please"));
+        assertEquals(Optional.empty(), classifier.classify("I need to talk about the breakfast"));
+        assertEquals(Optional.empty(), classifier.classify("Vreau să vorbesc cu cineva despre cafea"));
+    }
+
+    @Test
+    void classify_withItemQualifiedByFollowingWords_shouldDeferToModel() {
+        assertEquals(Optional.empty(), classifier.classify("vreau apa calda"));
+        assertEquals(Optional.empty(), classifier.classify("am nevoie de apa calda"));
+        assertEquals(Optional.empty(), classifier.classify("i need the water heater fixed"));
+    }
+
+    @Test
+    void classify_withCourtesyAndRoomNumberAfterItem_shouldReturnOrder() {
+        ChatIntentClassifier.Intent intent = classifier.classify("Vreau o cafea în camera 204, mulțumesc").orElseThrow();
+
+        assertEquals(ChatIntentClassifier.ROOM_SERVICE, intent.action());
+        assertEquals("Cafea", intent.description());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Burst of 3 refilling at 1 per second; sustained 5 per hour.
+        rateLimiter = new ChatRateLimiter(new LocalChatRateLimitStore(meterRegistry, 8, 100),
+                meterRegistry, true, 3, 60, 5, 5);
+    }
+
+    @Test
+    void tryAcquire_beyondBurst_shouldRejectUntilRefilled() {
+        long now = 1_000_000;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire("guest@test.com", now).allowed());
+        }
+
+        ChatRateLimiter.Decision rejected = rateLimiter.tryAcquire("guest@test.com", now);
+        assertFalse(rejected.allowed());
+        assertEquals(ChatRateLimiter.BURST, rejected.limitedBy());
+        assertEquals(1000, rejected.retryAfterMillis());
+
+        assertTrue(rateLimiter.tryAcquire("guest@test.com", now + 1000).allowed());
+        assertEquals(1.0, meterRegistry.get("chat.rate-limit.requests").tag("bucket", "burst").counter().count());
+    }
+
+    @Test
+    void tryAcquire_beyondSustained_shouldRejectEvenWithBurstTokens() {
+        long now = 1_000_000;
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire("guest@test.com", now + i * 2000L).allowed());
+        }
+
+        ChatRateLimiter.Decision rejected = rateLimiter.tryAcquire("guest@test.com", now + 60_000);
+        assertFalse(rejected.allowed());
+        assertEquals(ChatRateLimiter.SUSTAINED, rejected.limitedBy());
+    }
+
+    @Test
+    void tryAcquire_shouldKeepGuestsIndependent() {
+        long now = 1_000_000;
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("first@test.com", now);
+        }
+
+        assertFalse(rateLimiter.tryAcquire("first@test.com", now).allowed());
+        assertTrue(rateLimiter.tryAcquire("second@test.com", now).allowed());
+    }
+
+    @Test
+    void tryConsume_pastMaxKeys_shouldDropIdleBuckets() {
+        LocalChatRateLimitStore store = new LocalChatRateLimitStore(meterRegistry, 8, 2);
+        TokenBucketPolicy burst = TokenBucketPolicy.of(3, 60, 60_000);
+        TokenBucketPolicy sustained = TokenBucketPolicy.of(5, 5, 3_600_000);
+        for (int i = 0; i < 3; i++) {
+            store.tryConsume("guest" + i, burst, sustained, 0);
+        }
+
+        store.tryConsume("late", burst, sustained, 10_000_000);
+
+        assertEquals(1, store.size());
+    }
+}
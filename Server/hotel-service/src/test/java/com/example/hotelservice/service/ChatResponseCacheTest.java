@@ -0,0 +1,104 @@
+package com.example.hotelservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatResponseCacheTest {
+
+    private ChatResponseCache cache;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChatResponseCache(new SimpleMeterRegistry(), 3600, 2, 200);
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void getOrLoad_withEquivalentQuestions_shouldHitCache() throws IOException {
+        cache.getOrLoad("Care e parola de Wi-Fi?", () -> reply("Parola este hotel123"));
+        String result = cache.getOrLoad("care e parola de wi fi", () -> reply("altceva"));
+
+        assertEquals("Parola este hotel123", result);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void getOrLoad_withActionReply_shouldNotCache() throws IOException {
+        cache.getOrLoad("Vreau pizza", () -> reply("{\"action\":\"room_service\",\"request\":\"Pizza\"}"));
+        cache.getOrLoad("Vreau pizza", () -> reply("{\"action\":\"room_service\",\"request\":\"Pizza\"}"));
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void getOrLoad_withFallbackReply_shouldNotCache() throws IOException {
+        cache.getOrLoad("La ce ora e micul dejun?", () -> reply(AnthropicService.FALLBACK_REPLY));
+        cache.getOrLoad("La ce ora e micul dejun?", () -> reply("Între 7 și 10"));
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void getOrLoad_beyondMaxEntries_shouldEvictLeastRecentlyUsed() throws IOException {
+        cache.getOrLoad("intrebarea unu", () -> reply("1"));
+        cache.getOrLoad("intrebarea doi", () -> reply("2"));
+        cache.getOrLoad("intrebarea trei", () -> reply("3"));
+
+        assertEquals(2, cache.size());
+        cache.getOrLoad("intrebarea unu", () -> reply("1"));
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void getOrLoad_withConcurrentIdenticalQuestions_shouldCallUpstreamOnce() throws Exception {
+        CountDownLatch upstreamStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executor.submit(() -> cache.getOrLoad("Cand e checkout-ul?", () -> {
+                upstreamStarted.countDown();
+                await(release);
+                return reply("La ora 12");
+            }));
+            assertTrue(upstreamStarted.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower1 = executor.submit(() -> cache.getOrLoad("cand e checkout ul", () -> reply("x")));
+            Future<String> follower2 = executor.submit(() -> cache.getOrLoad("Când e checkout-ul?", () -> reply("y")));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("La ora 12", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("La ora 12", follower1.get(5, TimeUnit.SECONDS));
+            assertEquals("La ora 12", follower2.get(5, TimeUnit.SECONDS));
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String reply(String text) {
+        upstreamCalls.incrementAndGet();
+        return text;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
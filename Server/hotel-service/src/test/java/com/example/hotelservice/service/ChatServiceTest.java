@@ -0,0 +1,147 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.ActiveStayDTO;
+import com.example.hotelservice.dto.ChatResponseDTO;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.repository.GuestRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatServiceTest {
+
+    private static final String EMAIL = "ana@example.com";
+
+    private MockWebServer server;
+    private ChatMemoryService chatMemoryService;
+    private RoomServiceRequestService roomServiceRequestService;
+    private HousekeepingRequestService housekeepingRequestService;
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChatResponseCache responseCache = new ChatResponseCache(meterRegistry, 60, 10, 200);
+        LlmMetrics llmMetrics = new LlmMetrics(meterRegistry, responseCache, 1.0, 5.0, 0.1, 1.25, 0.0);
+        AnthropicService anthropicService = new AnthropicService(new OkHttpClient(), new ObjectMapper(),
+                meterRegistry, llmMetrics, 4, 50, 3, 1, 5, 2, 60_000);
+        ReflectionTestUtils.setField(anthropicService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(anthropicService, "model", "test-model");
+        ReflectionTestUtils.setField(anthropicService, "apiUrl", server.url("/v1/messages").toString());
+
+        Guest guest = new Guest();
+        guest.setId(3L);
+        guest.setEmail(EMAIL);
+        GuestRepository guestRepository = mock(GuestRepository.class);
+        when(guestRepository.findByEmail(EMAIL)).thenReturn(Optional.of(guest));
+        ActiveStayService activeStayService = mock(ActiveStayService.class);
+        when(activeStayService.findActiveStay(3L)).thenReturn(Optional.of(
+                new ActiveStayDTO(9L, "R9", 12L, "204", LocalDate.now(), LocalDate.now().plusDays(2))));
+        chatMemoryService = mock(ChatMemoryService.class);
+        when(chatMemoryService.loadContext(3L)).thenReturn(ConversationContext.empty());
+        roomServiceRequestService = mock(RoomServiceRequestService.class);
+        housekeepingRequestService = mock(HousekeepingRequestService.class);
+
+        chatService = new ChatService(anthropicService, responseCache, new ChatIntentClassifier(), chatMemoryService,
+                roomServiceRequestService, housekeepingRequestService, mock(ChatHistoryWriter.class),
+                guestRepository, activeStayService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void processMessage_withEmptyToolInput_shouldAskForDetailsInsteadOfFailing() throws Exception {
+        server.enqueue(toolCall("room_service"));
+
+        ChatResponseDTO response = chatService.processMessage("Aș vrea ceva de la room service", EMAIL);
+
+        assertEquals("conversation", response.getAction());
+        assertTrue(response.getResponse().contains("mai multe detalii"));
+        verifyNoInteractions(roomServiceRequestService);
+    }
+
+    @Test
+    void processMessage_withHousekeepingToolMissingDescription_shouldNotCreateRequest() throws Exception {
+        server.enqueue(toolCall("housekeeping"));
+
+        ChatResponseDTO response = chatService.processMessage("Camera are o problemă", EMAIL);
+
+        assertEquals("conversation", response.getAction());
+        verify(housekeepingRequestService, never()).createRequest(any(), any());
+    }
+
+    @Test
+    void processMessage_afterSessionGap_shouldKeepSummaryAndSkipSharedCache() throws Exception {
+        when(chatMemoryService.loadContext(3L)).thenReturn(new ConversationContext("Oaspetele preferă ceai verde.",
+                List.of(new ConversationContext.Turn("Salut", "Bună ziua!")), false));
+        server.enqueue(text("Vă recomand ceaiul verde."));
+        server.enqueue(text("Vă recomand ceaiul verde."));
+
+        chatService.processMessage("Ce îmi recomandați de băut", EMAIL);
+        chatService.processMessage("Ce îmi recomandați de băut", EMAIL);
+
+        assertEquals(2, server.getRequestCount());
+        JsonNode body = new ObjectMapper().readTree(server.takeRequest().getBody().readUtf8());
+        assertTrue(body.get("system").toString().contains("preferă ceai verde"));
+        assertEquals(1, body.get("messages").size());
+    }
+
+    private static MockResponse text(String reply) {
+        String sse = String.join("\n",
+                "event: message_start",
+                "data: {\"type\":\"message_start\",\"message\":{\"id\":\"msg_1\"}}",
+                "",
+                "event: content_block_start",
+                "data: {\"type\":\"content_block_start\",\"index\":0,\"content_block\":{\"type\":\"text\",\"text\":\"\"}}",
+                "",
+                "event: content_block_delta",
+                "data: {\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"text_delta\",\"text\":\"" + reply + "\"}}",
+                "",
+                "event: content_block_stop",
+                "data: {\"type\":\"content_block_stop\",\"index\":0}",
+                "",
+                "event: message_stop",
+                "data: {\"type\":\"message_stop\"}",
+                "", "");
+        return new MockResponse().setHeader("Content-Type", "text/event-stream").setBody(sse);
+    }
+
+    // A streamed tool call whose arguments never arrive, which the stream reader hands over as {}.
+    private static MockResponse toolCall(String tool) {
+        String sse = String.join("\n",
+                "event: message_start",
+                "data: {\"type\":\"message_start\",\"message\":{\"id\":\"msg_1\"}}",
+                "",
+                "event: content_block_start",
+                "data: {\"type\":\"content_block_start\",\"index\":0,\"content_block\":{\"type\":\"tool_use\",\"id\":\"tu_1\",\"name\":\"" + tool + "\",\"input\":{}}}",
+                "",
+                "event: content_block_stop",
+                "data: {\"type\":\"content_block_stop\",\"index\":0}",
+                "",
+                "event: message_stop",
+                "data: {\"type\":\"message_stop\"}",
+                "", "");
+        return new MockResponse().setHeader("Content-Type", "text/event-stream").setBody(sse);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.EmailCampaign;
+import com.example.hotelservice.repository.EmailCampaignRepository;
+import com.example.hotelservice.repository.GuestRepository;
+import com.example.hotelservice.repository.GuestRepository.CampaignRecipient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailCampaignSenderTest {
+
+    private record Recipient(Long id, String name, String email) implements CampaignRecipient {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+    }
+
+    private EmailCampaignRepository campaignRepository;
+    private GuestRepository guestRepository;
+    private JavaMailSender mailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailCampaignSender sender;
+    private List<CampaignRecipient> guests;
+
+    @BeforeEach
+    void setUp() {
+        campaignRepository = mock(EmailCampaignRepository.class);
+        guestRepository = mock(GuestRepository.class);
+        mailSender = mock(JavaMailSender.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // page 4, batch 2, effectively unthrottled, 3 attempts, 1 ms backoff
+        sender = new EmailCampaignSender(campaignRepository, guestRepository, mailSender, Runnable::run,
+                meterRegistry, 4, 2, 100_000, 3, 1, 120);
+
+        guests = new ArrayList<>();
+        LongStream.rangeClosed(1, 7).forEach(id -> guests.add(new Recipient(id, "Oaspete " + id, "guest" + id + "@example.com")));
+        when(guestRepository.findRecipientsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int size = invocation.getArgument(1, Pageable.class).getPageSize();
+            return guests.stream().filter(g -> g.getId() > afterId).limit(size).toList();
+        });
+        when(campaignRepository.findStatusById(1L)).thenReturn(EmailCampaign.RUNNING);
+    }
+
+    private void givenCampaign(long lastGuestId) {
+        EmailCampaign campaign = EmailCampaign.builder()
+                .id(1L)
+                .name("Oferta de iarnă")
+                .subject("Salut, {{guestName}}")
+                .body("Ofertă pentru {{guestEmail}}")
+                .status(EmailCampaign.RUNNING)
+                .lastGuestId(lastGuestId)
+                .sentCount(0L)
+                .failedCount(0L)
+                .build();
+        when(campaignRepository.findById(1L)).thenReturn(Optional.of(campaign));
+    }
+
+    @Test
+    void run_shouldSendEveryGuestInBatchesAndCheckpointEachBatch() {
+        givenCampaign(0);
+
+        sender.run(1L);
+
+        ArgumentCaptor<SimpleMailMessage[]> batches = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender, times(4)).send(batches.capture());
+        SimpleMailMessage first = batches.getAllValues().get(0)[0];
+        assertEquals("Salut, Oaspete 1", first.getSubject());
+        assertEquals("Ofertă pentru guest1@example.com", first.getText());
+
+        verify(campaignRepository).checkpoint(eq(1L), eq(2L), eq(2L), eq(0L), any());
+        verify(campaignRepository).checkpoint(eq(1L), eq(4L), eq(2L), eq(0L), any());
+        verify(campaignRepository).checkpoint(eq(1L), eq(7L), eq(1L), eq(0L), any());
+        verify(campaignRepository).finish(eq(1L), eq(EmailCampaign.COMPLETED), isNull(), any());
+        assertEquals(7.0, meterRegistry.get("email.campaign.sent").tag("result", "sent").counter().count());
+    }
+
+    @Test
+    void run_shouldContinueAfterCheckpoint() {
+        givenCampaign(4);
+
+        sender.run(1L);
+
+        verify(guestRepository).findRecipientsAfter(eq(4L), any(Pageable.class));
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        verify(campaignRepository).checkpoint(eq(1L), eq(7L), eq(1L), eq(0L), any());
+    }
+
+    @Test
+    void run_whenPaused_shouldStopBeforeNextBatchAndReleaseCampaign() {
+        givenCampaign(0);
+        when(campaignRepository.findStatusById(1L)).thenReturn(EmailCampaign.RUNNING, EmailCampaign.PAUSED);
+
+        sender.run(1L);
+
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        verify(campaignRepository).checkpoint(eq(1L), eq(2L), eq(2L), eq(0L), any());
+        verify(campaignRepository).release(1L);
+        verify(campaignRepository, never()).finish(any(), any(), any(), any());
+    }
+
+    @Test
+    void run_withRejectedRecipients_shouldCountThemAsFailedAndGoOn() {
+        givenCampaign(0);
+        guests.subList(2, 7).clear();
+        doAnswer(invocation -> {
+            SimpleMailMessage rejected = invocation.getArgument(1);
+            throw new MailSendException(Map.of(rejected, new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        sender.run(1L);
+
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        verify(campaignRepository).checkpoint(eq(1L), eq(2L), eq(1L), eq(1L), any());
+        verify(campaignRepository).finish(eq(1L), eq(EmailCampaign.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    void run_whenServerKeepsFailing_shouldRetryThenPauseAtCheckpoint() {
+        givenCampaign(0);
+        doThrow(new MailAuthenticationException("535 authentication failed"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        sender.run(1L);
+
+        verify(mailSender, times(3)).send(any(SimpleMailMessage[].class));
+        verify(campaignRepository, never()).checkpoint(eq(1L), eq(2L), anyLong(), anyLong(), any());
+        verify(campaignRepository).finish(eq(1L), eq(EmailCampaign.PAUSED), eq("535 authentication failed"), isNull());
+    }
+
+    @Test
+    void launch_whenCampaignIsHeldByAnotherRun_shouldNotStartIt() {
+        when(campaignRepository.claim(eq(1L), any(), any())).thenReturn(0);
+
+        sender.launch(1L);
+
+        verify(campaignRepository, never()).findById(any());
+        verify(mailSender, never()).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void launch_whenNoCampaignThreadIsFree_shouldNotClaimIt() {
+        EmailCampaignSender busy = new EmailCampaignSender(campaignRepository, guestRepository, mailSender,
+                task -> {
+                    throw new TaskRejectedException("toate firele sunt ocupate");
+                },
+                meterRegistry, 4, 2, 100_000, 3, 1, 120);
+
+        assertFalse(busy.launch(1L));
+
+        verify(campaignRepository, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    void resumeStalled_shouldClaimWhenTheRunStarts() {
+        givenCampaign(4);
+        when(campaignRepository.findStalledIds(any())).thenReturn(List.of(1L));
+        when(campaignRepository.claim(eq(1L), any(), any())).thenReturn(1);
+
+        sender.resumeStalled();
+
+        verify(campaignRepository).claim(eq(1L), any(), any());
+        verify(campaignRepository).checkpoint(eq(1L), eq(7L), eq(1L), eq(0L), any());
+    }
+}
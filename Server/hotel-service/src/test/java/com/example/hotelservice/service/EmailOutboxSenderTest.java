@@ -0,0 +1,239 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.EmailOutbox;
+import com.example.hotelservice.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        meterRegistry = new SimpleMeterRegistry();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "hotel@example.com");
+    }
+
+    private EmailOutboxSender sender(int maxAttempts) {
+        return sender(maxAttempts, Runnable::run);
+    }
+
+    private EmailOutboxSender sender(int maxAttempts, Executor mailExecutor) {
+        return new EmailOutboxSender(repository, mailSender, new EmailTemplates("ro"), new ObjectMapper(),
+                transactionTemplate, mailExecutor, meterRegistry,
+                10, 5, 2, maxAttempts, 30, 3600, 300, 14, 2);
+    }
+
+    private static EmailOutbox pending(long id, String recipient) {
+        return EmailOutbox.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Confirmare Rezervare - R" + id)
+                .body("Bună ziua!")
+                .status(EmailOutbox.PENDING)
+                .attempts(0)
+                .createdAt(LocalDateTime.now())
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void sendBatch_shouldDeliverAllAndMarkSent() {
+        List<EmailOutbox> batch = new ArrayList<>(List.of(pending(1, "ana@example.com"), pending(2, "ion@example.com")));
+        when(repository.findDueForUpdate(any(), eq(10))).thenReturn(batch);
+
+        assertEquals(2, sender(3).sendBatch());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertTrue(batch.stream().allMatch(e -> EmailOutbox.SENT.equals(e.getStatus()) && e.getSentAt() != null));
+        assertEquals(2.0, meterRegistry.get("email.outbox.sent").counter().count());
+    }
+
+    @Test
+    void sendBatch_withTemplatedEmail_shouldRenderBodyBeforeSending() throws Exception {
+        EmailOutbox email = pending(1, "ana@example.com");
+        email.setBody(null);
+        email.setTemplate(EmailTemplates.RESERVATION_CANCELLATION);
+        email.setLocale("ro");
+        email.setTemplateParams("{\"guestName\":\"Ana\",\"reservationCode\":\"R42\"}");
+        when(repository.findDueForUpdate(any(), eq(10))).thenReturn(new ArrayList<>(List.of(email)));
+
+        sender(3).sendBatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertTrue(((String) received[0].getContent()).contains("codul R42 a fost anulată"));
+        assertEquals(EmailOutbox.SENT, email.getStatus());
+    }
+
+    @Test
+    void sendBatch_withUnknownTemplate_shouldFailOnlyThatEmail() {
+        EmailOutbox broken = pending(1, "ana@example.com");
+        broken.setBody(null);
+        broken.setTemplate("missing");
+        broken.setTemplateParams("{}");
+        EmailOutbox ok = pending(2, "ion@example.com");
+        when(repository.findDueForUpdate(any(), eq(10))).thenReturn(new ArrayList<>(List.of(broken, ok)));
+
+        sender(3).sendBatch();
+
+        assertEquals(EmailOutbox.PENDING, broken.getStatus());
+        assertEquals(1, broken.getAttempts());
+        assertEquals(EmailOutbox.SENT, ok.getStatus());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void sendBatch_whenServerDown_shouldScheduleRetryWithBackoff() {
+        greenMail.stop();
+        try {
+            EmailOutbox email = pending(1, "ana@example.com");
+            when(repository.findDueForUpdate(any(), eq(10))).thenReturn(new ArrayList<>(List.of(email)));
+
+            sender(3).sendBatch();
+
+            assertEquals(EmailOutbox.PENDING, email.getStatus());
+            assertEquals(1, email.getAttempts());
+            assertNotNull(email.getLastError());
+            assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+            assertEquals(1.0, meterRegistry.get("email.outbox.failed").tag("result", "retry").counter().count());
+        } finally {
+            greenMail.start();
+        }
+    }
+
+    @Test
+    void sendBatch_whenAttemptsExhausted_shouldDeadLetter() {
+        greenMail.stop();
+        try {
+            EmailOutbox email = pending(1, "ana@example.com");
+            email.setAttempts(2);
+            when(repository.findDueForUpdate(any(), eq(10))).thenReturn(new ArrayList<>(List.of(email)));
+
+            sender(3).sendBatch();
+
+            assertEquals(EmailOutbox.DEAD, email.getStatus());
+            assertEquals(3, email.getAttempts());
+            assertEquals(1.0, meterRegistry.get("email.outbox.failed").tag("result", "dead").counter().count());
+        } finally {
+            greenMail.start();
+        }
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToMax() {
+        EmailOutboxSender sender = sender(8);
+
+        assertEquals(Duration.ofSeconds(30), sender.backoff(1));
+        assertEquals(Duration.ofSeconds(120), sender.backoff(3));
+        assertEquals(Duration.ofSeconds(3600), sender.backoff(10));
+    }
+
+    @Test
+    void poll_shouldExposeBacklogGauges() {
+        when(repository.findDueForUpdate(any(), anyInt())).thenReturn(new ArrayList<>());
+        when(repository.countByStatus(EmailOutbox.PENDING)).thenReturn(4L);
+        EmailOutbox oldest = pending(1, "ana@example.com");
+        oldest.setCreatedAt(LocalDateTime.now().minusHours(1));
+        oldest.setNextAttemptAt(LocalDateTime.now().minusMinutes(2));
+        when(repository.findFirstByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(eq(EmailOutbox.PENDING), any()))
+                .thenReturn(Optional.of(oldest));
+
+        sender(3).poll();
+
+        assertEquals(4.0, meterRegistry.get("email.outbox.pending").gauge().value());
+        double lag = meterRegistry.get("email.outbox.lag.seconds").gauge().value();
+        assertTrue(lag >= 119 && lag < 3600);
+    }
+
+    @Test
+    void poll_withOnlyHeldOrBackedOffEmails_shouldReportNoLag() {
+        when(repository.findDueForUpdate(any(), anyInt())).thenReturn(new ArrayList<>());
+        when(repository.countByStatus(EmailOutbox.PENDING)).thenReturn(2L);
+        when(repository.findFirstByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(eq(EmailOutbox.PENDING), any()))
+                .thenReturn(Optional.empty());
+
+        sender(3).poll();
+
+        assertEquals(0.0, meterRegistry.get("email.outbox.lag.seconds").gauge().value());
+    }
+
+    @Test
+    void purgeSent_shouldDeleteInBatchesUntilDone() {
+        when(repository.deleteSentBefore(any(), eq(2))).thenReturn(2, 2, 1);
+
+        sender(3).purgeSent();
+
+        verify(repository, times(3)).deleteSentBefore(any(), eq(2));
+    }
+
+    @Test
+    void poll_withBusySenders_shouldNotClaimMoreBatches() {
+        when(repository.findDueForUpdate(any(), anyInt())).thenAnswer(invocation -> fullBatch());
+        List<Runnable> running = new ArrayList<>();
+        EmailOutboxSender sender = sender(3, running::add);
+
+        sender.poll();
+        sender.poll();
+
+        assertEquals(2, running.size());
+        verify(repository, times(2)).findDueForUpdate(any(), anyInt());
+
+        running.get(0).run();
+        sender.poll();
+
+        assertEquals(3, running.size());
+    }
+
+    private static List<EmailOutbox> fullBatch() {
+        List<EmailOutbox> batch = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            batch.add(pending(id, "oaspete" + id + "@example.com"));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.EmailOutbox;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.entity.RoomServiceRequest;
+import com.example.hotelservice.repository.EmailOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailServiceTest {
+
+    private EmailOutboxRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailService emailService;
+    private RoomServiceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailService(repository, new EmailTemplates("ro"), new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(emailService, "coalesceWindowSeconds", 120L);
+
+        Guest guest = new Guest();
+        guest.setName("Ana");
+        guest.setEmail("ana@example.com");
+        request = new RoomServiceRequest();
+        request.setId(42L);
+        request.setGuest(guest);
+        request.setRequest("Pizza");
+        request.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void sendRoomServiceStatusUpdate_withNothingHeld_shouldHoldNewEmailForWindow() {
+        when(repository.findHeldForUpdate("room_service:42")).thenReturn(Optional.empty());
+
+        emailService.sendRoomServiceStatusUpdate(request, "PENDING", "IN_PROGRESS");
+
+        ArgumentCaptor<EmailOutbox> saved = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(repository).save(saved.capture());
+        EmailOutbox email = saved.getValue();
+        assertEquals("room_service:42", email.getCoalesceKey());
+        assertEquals("PENDING,IN_PROGRESS", email.getStatusTrail());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(100)));
+    }
+
+    @Test
+    void sendRoomServiceStatusUpdate_withHeldEmail_shouldFoldTransitionAndReleaseOnFinalStatus() {
+        EmailOutbox held = EmailOutbox.builder()
+                .id(7L)
+                .recipient("ana@example.com")
+                .subject("Actualizare Comandă Room Service #42")
+                .body("...")
+                .status(EmailOutbox.PENDING)
+                .attempts(0)
+                .coalesceKey("room_service:42")
+                .statusTrail("PENDING,IN_PROGRESS")
+                .nextAttemptAt(LocalDateTime.now().plusSeconds(90))
+                .build();
+        when(repository.findHeldForUpdate("room_service:42")).thenReturn(Optional.of(held));
+
+        emailService.sendRoomServiceStatusUpdate(request, "IN_PROGRESS", "COMPLETED");
+
+        verify(repository).save(same(held));
+        assertEquals("PENDING,IN_PROGRESS,COMPLETED", held.getStatusTrail());
+        assertEquals("Actualizare Comandă Room Service #42", held.getSubject());
+        assertTrue(held.getTemplateParams().contains("\"statusTrail\":\"PENDING → IN_PROGRESS → COMPLETED\""));
+        assertTrue(held.getTemplateParams().contains("\"previousStatus\":\"PENDING\""));
+        assertFalse(held.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(1.0, meterRegistry.get("email.coalesced").counter().count());
+    }
+
+    @Test
+    void sendRoomServiceStatusUpdate_forGuestWithLocale_shouldUseTheirLanguage() {
+        request.getGuest().setLocale("en");
+        when(repository.findHeldForUpdate("room_service:42")).thenReturn(Optional.empty());
+
+        emailService.sendRoomServiceStatusUpdate(request, "PENDING", "IN_PROGRESS");
+
+        ArgumentCaptor<EmailOutbox> saved = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(repository).save(saved.capture());
+        assertEquals("en", saved.getValue().getLocale());
+        assertEquals("Room Service Order Update #42", saved.getValue().getSubject());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.hotelservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplatesTest {
+
+    private final EmailTemplates templates = new EmailTemplates("ro");
+
+    @Test
+    void renderBody_withStatusTemplate_shouldResolveSectionsAndMessages() {
+        Map<String, String> params = new HashMap<>();
+        params.put("guestName", "Ana");
+        params.put("requestId", "42");
+        params.put("roomNumber", "101");
+        params.put("requestType", "CLEANING");
+        params.put("priority", "HIGH");
+        params.put("previousStatus", "PENDING");
+        params.put("currentStatus", "COMPLETED");
+        params.put("statusTrail", "PENDING → IN_PROGRESS → COMPLETED");
+        params.put("createdAt", "01/10/2026 10:00");
+
+        String body = templates.get(EmailTemplates.HOUSEKEEPING_STATUS, "ro").renderBody(params);
+
+        assertTrue(body.startsWith("Bună ziua Ana,"));
+        assertTrue(body.contains("Descriere: Fără descriere\n"));
+        assertTrue(body.contains("Evoluție status: PENDING → IN_PROGRESS → COMPLETED\nData: 01/10/2026 10:00"));
+        assertTrue(body.contains("Cererea dumneavoastră a fost finalizată cu succes. Mulțumim!"));
+        assertTrue(body.endsWith("Echipa Hotel Admin"));
+    }
+
+    @Test
+    void renderBody_withUnknownStatusAndNoTrail_shouldUseDefaultsAndSkipSection() {
+        Map<String, String> params = Map.of("currentStatus", "ON_HOLD", "statusTrail", "", "description", "Prosoape");
+
+        String body = templates.get(EmailTemplates.HOUSEKEEPING_STATUS, "ro").renderBody(params);
+
+        assertTrue(body.contains("Statusul cererii a fost actualizat."));
+        assertTrue(body.contains("Descriere: Prosoape\n"));
+        assertFalse(body.contains("Evoluție status"));
+    }
+
+    @Test
+    void get_withMissingLocale_shouldFallBackToDefault() {
+        assertEquals("Anulare Rezervare - R1", templates.get(EmailTemplates.RESERVATION_CANCELLATION, "de")
+                .renderSubject(Map.of("reservationCode", "R1")));
+        assertEquals("Reservation Cancelled - R1", templates.get(EmailTemplates.RESERVATION_CANCELLATION, "en")
+                .renderSubject(Map.of("reservationCode", "R1")));
+    }
+
+    @Test
+    void compile_withUnclosedSection_shouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("broken.ro.txt", "Subiect\n\n{{#a}}text", Map.of()));
+    }
+
+    @Test
+    void matchLocale_shouldPickFirstLanguageWithTemplates() {
+        assertEquals("en", templates.matchLocale("de-DE,en-GB;q=0.8,ro;q=0.5"));
+        assertEquals("ro", templates.matchLocale("ro-RO"));
+        assertNull(templates.matchLocale("fr"));
+        assertNull(templates.matchLocale(null));
+        assertNull(templates.matchLocale(";;;"));
+    }
+}
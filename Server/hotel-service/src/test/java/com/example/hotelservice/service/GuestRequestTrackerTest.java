@@ -0,0 +1,116 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.GuestRequestChangesDTO;
+import com.example.hotelservice.dto.GuestRequestDTO;
+import com.example.hotelservice.dto.NotificationDTO;
+import com.example.hotelservice.entity.Guest;
+import com.example.hotelservice.entity.HousekeepingRequest;
+import com.example.hotelservice.entity.RoomServiceRequest;
+import com.example.hotelservice.repository.GuestRepository;
+import com.example.hotelservice.repository.HousekeepingRequestRepository;
+import com.example.hotelservice.repository.RoomServiceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GuestRequestTrackerTest {
+
+    private static final String EMAIL = "maria@example.com";
+
+    private GuestRepository guestRepository;
+    private RoomServiceRequestRepository roomServiceRequestRepository;
+    private HousekeepingRequestRepository housekeepingRequestRepository;
+    private NotificationPublisher notificationPublisher;
+    private GuestRequestTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        guestRepository = mock(GuestRepository.class);
+        roomServiceRequestRepository = mock(RoomServiceRequestRepository.class);
+        housekeepingRequestRepository = mock(HousekeepingRequestRepository.class);
+        notificationPublisher = mock(NotificationPublisher.class);
+        tracker = new GuestRequestTracker(guestRepository, roomServiceRequestRepository,
+                housekeepingRequestRepository, notificationPublisher);
+        when(guestRepository.findRequestsVersionByEmail(EMAIL)).thenReturn(Optional.of(version(7L, 5L)));
+    }
+
+    @Test
+    void changesSince_currentVersion_shouldNotReadRequests() {
+        GuestRequestChangesDTO changes = tracker.changesSince(EMAIL, 5L);
+
+        assertEquals(5, changes.version());
+        assertTrue(changes.changes().isEmpty());
+        verifyNoInteractions(roomServiceRequestRepository, housekeepingRequestRepository);
+    }
+
+    @Test
+    void changesSince_olderVersion_shouldReturnOnlyChangedRequestsInOrder() {
+        when(roomServiceRequestRepository.findByGuestIdAndGuestVersionGreaterThan(7L, 2L))
+                .thenReturn(List.of(roomService(11L, "IN_PROGRESS", 5L)));
+        when(housekeepingRequestRepository.findByGuestIdAndGuestVersionGreaterThan(7L, 2L))
+                .thenReturn(List.of(housekeeping(21L, "PENDING", 3L)));
+
+        GuestRequestChangesDTO changes = tracker.changesSince(EMAIL, 2L);
+
+        assertEquals(List.of(3L, 5L), changes.changes().stream().map(GuestRequestDTO::version).toList());
+        assertEquals(GuestRequestDTO.HOUSEKEEPING, changes.changes().get(0).kind());
+        verify(roomServiceRequestRepository, never()).findByGuestIdOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void changesSince_missingOrUnknownVersion_shouldReturnAllRequests() {
+        when(roomServiceRequestRepository.findByGuestIdOrderByCreatedAtDesc(7L))
+                .thenReturn(List.of(roomService(11L, "COMPLETED", 4L), roomService(10L, "COMPLETED", null)));
+        when(housekeepingRequestRepository.findByGuestIdOrderByCreatedAtDesc(7L)).thenReturn(List.of());
+
+        assertEquals(2, tracker.changesSince(EMAIL, null).changes().size());
+        GuestRequestChangesDTO changes = tracker.changesSince(EMAIL, 9L);
+
+        assertEquals(5, changes.version());
+        assertEquals(List.of(10L, 11L), changes.changes().stream().map(GuestRequestDTO::id).toList());
+        verify(roomServiceRequestRepository, never()).findByGuestIdAndGuestVersionGreaterThan(any(), any());
+    }
+
+    @Test
+    void push_shouldNotifyOnlyTheGuest() {
+        Guest guest = new Guest();
+        guest.setId(7L);
+        guest.setEmail(EMAIL);
+
+        tracker.push(guest, GuestRequestDTO.of(roomService(11L, "COMPLETED", 6L)));
+
+        ArgumentCaptor<NotificationDTO> notification = ArgumentCaptor.forClass(NotificationDTO.class);
+        verify(notificationPublisher).publishToUser(eq(EMAIL), notification.capture());
+        verifyNoMoreInteractions(notificationPublisher);
+        assertEquals(GuestRequestTracker.REQUEST_UPDATE, notification.getValue().type());
+    }
+
+    private static GuestRepository.RequestsVersion version(Long id, Long requestsVersion) {
+        return new GuestRepository.RequestsVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getRequestsVersion() {
+                return requestsVersion;
+            }
+        };
+    }
+
+    private static RoomServiceRequest roomService(Long id, String status, Long guestVersion) {
+        return RoomServiceRequest.builder().id(id).request("Cafea").status(status).guestVersion(guestVersion).build();
+    }
+
+    private static HousekeepingRequest housekeeping(Long id, String status, Long guestVersion) {
+        return HousekeepingRequest.builder().id(id).requestType("Prosoape").status(status).guestVersion(guestVersion).build();
+    }
+}
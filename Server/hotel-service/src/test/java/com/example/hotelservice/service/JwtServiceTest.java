@@ -1,6 +1,7 @@
 package com.example.hotelservice.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
@@ -103,4 +104,25 @@ class JwtServiceTest {
         assertNotNull(expiration);
         assertTrue(expiration.after(new Date()));
     }
+
+    @Test
+    void verify_sameToken_shouldBeParsedOnce() {
+        String token = jwtService.generateToken(userDetails);
+
+        JwtService.VerifiedToken first = jwtService.verify(token);
+
+        assertSame(first, jwtService.verify(token));
+        assertEquals("test@example.com", first.username());
+        assertTrue(jwtService.isTokenValid(first, userDetails));
+    }
+
+    @Test
+    void verify_withTamperedSignature_shouldThrow() {
+        String token = jwtService.generateToken(userDetails);
+        jwtService.verify(token);
+        int at = token.length() - 10;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
 }
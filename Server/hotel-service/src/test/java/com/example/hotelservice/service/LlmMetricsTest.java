@@ -0,0 +1,124 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.ChatMetricsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LlmMetricsTest {
+
+    private static final String MODEL = "claude-haiku-4-5";
+    private static final LlmCallTags CHAT = new LlmCallTags("chat", "in_house");
+
+    private LlmMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        ChatResponseCache responseCache = mock(ChatResponseCache.class);
+        when(responseCache.getHitRate()).thenReturn(0.25);
+        // $1 per million input tokens, $5 output, $0.10 cache read, $1.25 cache write; never sample logs
+        metrics = new LlmMetrics(new SimpleMeterRegistry(), responseCache, 1.0, 5.0, 0.1, 1.25, 0.0);
+    }
+
+    @Test
+    void summarize_withNoCalls_shouldReturnZeros() {
+        ChatMetricsDTO summary = metrics.summarize();
+
+        assertEquals(0, summary.getTotalCalls());
+        assertEquals(0.0, summary.getFallbackRate());
+        assertEquals(0.0, summary.getTotalCostUsd());
+        assertEquals(0.25, summary.getCacheHitRate());
+        assertTrue(summary.getCalls().isEmpty());
+        assertTrue(summary.getUsage().isEmpty());
+    }
+
+    @Test
+    void summarize_shouldReportLatencyPercentiles() {
+        for (int ms = 1; ms <= 100; ms++) {
+            metrics.record(call(CHAT, ms, -1, LlmUsage.NONE), MODEL, "success");
+        }
+
+        ChatMetricsDTO.CallStats stats = metrics.summarize().getCalls().get(0);
+
+        assertEquals("chat", stats.getEndpoint());
+        assertEquals("in_house", stats.getCohort());
+        assertEquals(MODEL, stats.getModel());
+        assertEquals("success", stats.getOutcome());
+        assertEquals(100, stats.getCount());
+        assertEquals(50.5, stats.getMeanMs(), 0.001);
+        assertEquals(100.0, stats.getMaxMs(), 0.001);
+        assertEquals(50.0, stats.getP50Ms(), 5.0);
+        assertEquals(95.0, stats.getP95Ms(), 5.0);
+        assertEquals(99.0, stats.getP99Ms(), 5.0);
+        assertTrue(stats.getP50Ms() < stats.getP95Ms());
+        assertTrue(stats.getP95Ms() <= stats.getP99Ms());
+    }
+
+    @Test
+    void summarize_shouldAggregateTokensAndCostPerEndpoint() {
+        metrics.record(call(CHAT, 100, 40, new LlmUsage(1_000, 200, 4_000, 0)), MODEL, "success");
+        metrics.record(call(CHAT, 120, 60, new LlmUsage(500, 100, 0, 2_000)), MODEL, "success");
+        metrics.record(call(LlmCallTags.of("review_summary"), 300, -1, new LlmUsage(10_000, 500, 0, 0)), MODEL, "success");
+
+        ChatMetricsDTO summary = metrics.summarize();
+
+        // chat: 1500 * 1 + 300 * 5 + 4000 * 0.1 + 2000 * 1.25 = 5900 per million
+        // review_summary: 10000 * 1 + 500 * 5 = 12500 per million
+        assertEquals(0.0184, summary.getTotalCostUsd(), 1e-9);
+        assertEquals(2, summary.getUsage().size());
+
+        ChatMetricsDTO.UsageStats chat = usage(summary, "chat");
+        assertEquals(1_500, chat.getInputTokens());
+        assertEquals(300, chat.getOutputTokens());
+        assertEquals(4_000, chat.getCacheReadTokens());
+        assertEquals(2_000, chat.getCacheWriteTokens());
+        assertEquals(0.0059, chat.getCostUsd(), 1e-9);
+        assertTrue(chat.getTimeToFirstTokenP50Ms() > 0);
+
+        ChatMetricsDTO.UsageStats reviews = usage(summary, "review_summary");
+        assertEquals(LlmCallTags.NO_COHORT, reviews.getCohort());
+        assertEquals(10_000, reviews.getInputTokens());
+        assertEquals(0.0125, reviews.getCostUsd(), 1e-9);
+        assertEquals(0.0, reviews.getTimeToFirstTokenP50Ms());
+    }
+
+    @Test
+    void summarize_shouldCountFallbacksButNotErrors() {
+        for (int i = 0; i < 6; i++) {
+            metrics.record(call(CHAT, 100, 30, LlmUsage.NONE), MODEL, "success");
+        }
+        metrics.record(call(CHAT, 5, -1, LlmUsage.NONE), MODEL, "short_circuited");
+        metrics.record(call(CHAT, 5, -1, LlmUsage.NONE), MODEL, "rejected");
+        metrics.record(call(CHAT, 900, -1, LlmUsage.NONE), MODEL, "retries_exhausted");
+        metrics.record(call(CHAT, 50, -1, LlmUsage.NONE), MODEL, "error");
+
+        ChatMetricsDTO summary = metrics.summarize();
+
+        assertEquals(10, summary.getTotalCalls());
+        assertEquals(3, summary.getFallbackCalls());
+        assertEquals(0.3, summary.getFallbackRate(), 1e-9);
+        assertEquals(5, summary.getCalls().size());
+        assertEquals(0.0, summary.getTotalCostUsd());
+    }
+
+    private static LlmCall call(LlmCallTags tags, long latencyMs, long ttftMs, LlmUsage usage) {
+        LlmCall call = mock(LlmCall.class);
+        when(call.getTags()).thenReturn(tags);
+        when(call.elapsedNanos()).thenReturn(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+        when(call.timeToFirstTokenNanos()).thenReturn(ttftMs < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(ttftMs));
+        when(call.getUsage()).thenReturn(usage);
+        return call;
+    }
+
+    private static ChatMetricsDTO.UsageStats usage(ChatMetricsDTO summary, String endpoint) {
+        return summary.getUsage().stream()
+                .filter(row -> endpoint.equals(row.getEndpoint()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
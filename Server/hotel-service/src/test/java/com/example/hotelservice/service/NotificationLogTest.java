@@ -0,0 +1,98 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.NotificationReplayDTO;
+import com.example.hotelservice.entity.NotificationLogEntry;
+import com.example.hotelservice.repository.NotificationLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationLogTest {
+
+    private static final String CLEANER_TOPIC = "/topic/role.Cleaner";
+    private static final String CHEF_TOPIC = "/topic/role.Chef";
+
+    private NotificationLogRepository repository;
+    private NotificationLog notificationLog;
+    private Authentication cleaner;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(NotificationLogRepository.class);
+        notificationLog = new NotificationLog(repository, new SimpleMeterRegistry(), "simple", 4, 10, 48, 100);
+        cleaner = new UsernamePasswordAuthenticationToken("ion@hotel.ro", null,
+                List.of(new SimpleGrantedAuthority("ROLE_Cleaner")));
+    }
+
+    @Test
+    void replay_shouldReturnMissedEventsTheUserMaySeeFromRing() {
+        notificationLog.remember(1, List.of(CLEANER_TOPIC), json("a"));
+        notificationLog.remember(2, List.of(CHEF_TOPIC), json("b"));
+        notificationLog.remember(4, List.of(CLEANER_TOPIC), json("d"));
+        notificationLog.remember(5, List.of(NotificationPublisher.userDestination("ion@hotel.ro")), json("e"));
+
+        NotificationReplayDTO replay = notificationLog.replay(1L, cleaner);
+
+        assertTrue(replay.complete());
+        assertEquals(5, replay.latestSeq());
+        assertEquals(List.of(4L, 5L), replay.events().stream().map(NotificationReplayDTO.Event::seq).toList());
+        assertEquals("/user/queue/notifications", replay.events().get(1).destination());
+        assertEquals("{\"m\":\"e\"}", replay.events().get(1).payload());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void replay_withGapOlderThanRing_shouldReadTheLog() {
+        for (long seq = 1; seq <= 10; seq++) {
+            notificationLog.remember(seq, List.of(CLEANER_TOPIC), json("x" + seq));
+        }
+        when(repository.findBySeqGreaterThanOrderBySeqAsc(eq(3L), any())).thenReturn(List.of(
+                entry(4, CLEANER_TOPIC), entry(5, CHEF_TOPIC), entry(6, CLEANER_TOPIC)));
+        when(repository.findOldestSeq()).thenReturn(1L);
+
+        NotificationReplayDTO replay = notificationLog.replay(3L, cleaner);
+
+        assertTrue(replay.complete());
+        assertEquals(List.of(4L, 6L), replay.events().stream().map(NotificationReplayDTO.Event::seq).toList());
+    }
+
+    @Test
+    void replay_afterEventsWerePurged_shouldNotBeComplete() {
+        when(repository.findBySeqGreaterThanOrderBySeqAsc(eq(3L), any())).thenReturn(List.of(entry(40, CLEANER_TOPIC)));
+        when(repository.findOldestSeq()).thenReturn(40L);
+
+        NotificationReplayDTO replay = notificationLog.replay(3L, cleaner);
+
+        assertFalse(replay.complete());
+        assertEquals(40, replay.latestSeq());
+        assertEquals(1, replay.events().size());
+    }
+
+    @Test
+    void replay_withoutLastSeen_shouldOnlyReturnLatestSequence() {
+        notificationLog.remember(9, List.of(CHEF_TOPIC), json("z"));
+
+        NotificationReplayDTO replay = notificationLog.replay(null, cleaner);
+
+        assertEquals(9, replay.latestSeq());
+        assertTrue(replay.events().isEmpty());
+    }
+
+    private static byte[] json(String message) {
+        return ("{\"m\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static NotificationLogEntry entry(long seq, String destination) {
+        return NotificationLogEntry.builder().seq(seq).destinations(destination).payload("{}").build();
+    }
+}
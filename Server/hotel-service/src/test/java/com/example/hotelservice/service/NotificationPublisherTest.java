@@ -0,0 +1,119 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.dto.NotificationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationPublisherTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private NotificationLog notificationLog;
+    private NotificationPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        notificationLog = mock(NotificationLog.class);
+        publisher = new NotificationPublisher(messagingTemplate, mock(JdbcTemplate.class), notificationLog,
+                new ObjectMapper(), new SimpleMeterRegistry(), "simple");
+    }
+
+    @Test
+    void publishTo_shouldSerializeOnceAndShareBytesAcrossRoleTopics() {
+        publisher.publishTo(NotificationAudience.HOUSEKEEPING, NotificationDTO.of(
+                "HOUSEKEEPING_REQUEST", "Cerere Housekeeping Nouă", "Ana - Camera 204: CLEANING",
+                new NotificationDTO.Housekeeping(812L, "204", "CLEANING", "NORMAL", "PENDING")));
+
+        ArgumentCaptor<String> destinations = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> payloads = ArgumentCaptor.forClass(byte[].class);
+        verify(messagingTemplate, times(3)).convertAndSend(destinations.capture(), payloads.capture(), anyMap());
+
+        assertEquals(List.of("/topic/role.Admin", "/topic/role.Manager", "/topic/role.Cleaner"), destinations.getAllValues());
+        byte[] first = payloads.getAllValues().get(0);
+        assertTrue(payloads.getAllValues().stream().allMatch(payload -> payload == first));
+        String json = new String(first, StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"data\":{\"id\":812,\"roomNumber\":\"204\""));
+        assertFalse(json.contains("guest\""));
+    }
+
+    @Test
+    void publish_shouldNumberEventAndSendSequenceHeader() {
+        when(notificationLog.append(anyList(), any(byte[].class))).thenReturn(57L);
+
+        publisher.publish(NotificationPublisher.RESERVATIONS_TOPIC, NotificationDTO.of("X", "t", "m", null));
+
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate).convertAndSend(eq(NotificationPublisher.RESERVATIONS_TOPIC), payload.capture(), headers.capture());
+        verify(notificationLog).remember(57L, List.of(NotificationPublisher.RESERVATIONS_TOPIC), payload.getValue());
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(
+                MessageBuilder.createMessage(new byte[0], (MessageHeaders) headers.getValue()));
+        assertEquals("57", accessor.getFirstNativeHeader(NotificationPublisher.SEQ_HEADER));
+        assertEquals("application/json", accessor.getContentType().toString());
+    }
+
+    @Test
+    void publish_insideTransaction_shouldDeliverOnlyAfterCommit() {
+        when(notificationLog.append(anyList(), any(byte[].class))).thenReturn(8L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish(NotificationPublisher.RESERVATIONS_TOPIC, NotificationDTO.of("X", "t", "m", null));
+            verifyNoInteractions(messagingTemplate);
+            verify(notificationLog, never()).remember(anyLong(), anyList(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(messagingTemplate).convertAndSend(eq(NotificationPublisher.RESERVATIONS_TOPIC), any(byte[].class), anyMap());
+        verify(notificationLog).remember(eq(8L), anyList(), any(byte[].class));
+    }
+
+    @Test
+    void publish_whenLogCannotBeWritten_shouldFailTheCaller() {
+        when(notificationLog.append(anyList(), any(byte[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThrows(DataAccessResourceFailureException.class, () ->
+                publisher.publish(NotificationPublisher.RESERVATIONS_TOPIC, NotificationDTO.of("X", "t", "m", null)));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void deliverLogged_shouldSendLoggedJsonToEveryListedDestination() {
+        byte[] logged = "{\"type\":\"ROOM_SERVICE_REQUEST\",\"message\":\"a\\nb\"}".getBytes(StandardCharsets.UTF_8);
+        when(notificationLog.load(List.of(12L))).thenReturn(List.of(
+                new NotificationLog.Entry(12L, List.of("/topic/role.Admin", "/topic/role.Chef"), logged)));
+
+        publisher.deliverLogged(List.of(12L));
+
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/role.Admin"), payload.capture(), anyMap());
+        verify(messagingTemplate).convertAndSend(eq("/topic/role.Chef"), any(byte[].class), anyMap());
+        assertEquals("{\"type\":\"ROOM_SERVICE_REQUEST\",\"message\":\"a\\nb\"}",
+                new String(payload.getValue(), StandardCharsets.UTF_8));
+        verify(notificationLog).remember(eq(12L), eq(List.of("/topic/role.Admin", "/topic/role.Chef")), any(byte[].class));
+    }
+}
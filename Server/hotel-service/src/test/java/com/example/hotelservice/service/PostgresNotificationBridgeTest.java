@@ -0,0 +1,135 @@
+package com.example.hotelservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two nodes sharing one Postgres, each with its own broker: an event published on either reaches the
+ * role topics and user queues of both. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresNotificationBridgeTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // Stands in for the shared notification_log table.
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final Map<Long, NotificationLog.Entry> LOGGED = new ConcurrentHashMap<>();
+    private static final NotificationLog SHARED_LOG = mock(NotificationLog.class);
+
+    static {
+        when(SHARED_LOG.append(anyList(), any(byte[].class))).thenAnswer(invocation -> {
+            long seq = SEQUENCE.incrementAndGet();
+            LOGGED.put(seq, new NotificationLog.Entry(seq, invocation.getArgument(0), invocation.getArgument(1)));
+            return seq;
+        });
+        when(SHARED_LOG.load(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .map(LOGGED::get)
+                .toList());
+    }
+
+    private Node nodeA;
+    private Node nodeB;
+
+    private static final class Node {
+        final SimpMessagingTemplate broker = mock(SimpMessagingTemplate.class);
+        final DriverManagerDataSource dataSource =
+                new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        final NotificationPublisher publisher = new NotificationPublisher(broker, new JdbcTemplate(dataSource),
+                SHARED_LOG, new ObjectMapper(), new SimpleMeterRegistry(), NotificationPublisher.POSTGRES);
+        final PostgresNotificationListener listener = new PostgresNotificationListener(publisher,
+                new SimpleMeterRegistry(), POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), 100);
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        nodeA = new Node();
+        nodeB = new Node();
+        nodeA.listener.start();
+        nodeB.listener.start();
+        // LISTEN is issued asynchronously by the listener thread.
+        Thread.sleep(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.listener.stop();
+        nodeB.listener.stop();
+    }
+
+    @Test
+    void publishTo_shouldReachRoleTopicsOnAllNodes() {
+        nodeA.publisher.publishTo(NotificationAudience.HOUSEKEEPING,
+                Map.of("type", "HOUSEKEEPING_REQUEST", "message", "Camera 204"));
+
+        for (Node node : new Node[]{nodeA, nodeB}) {
+            for (String role : NotificationAudience.HOUSEKEEPING.getRoles()) {
+                ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+                verify(node.broker, timeout(5000)).convertAndSend(eq(NotificationAudience.topicFor(role)),
+                        payload.capture(), anyMap());
+                String json = new String(payload.getValue(), StandardCharsets.UTF_8);
+                assertTrue(json.contains("\"type\":\"HOUSEKEEPING_REQUEST\""));
+                assertTrue(json.contains("\"message\":\"Camera 204\""));
+            }
+            verify(node.broker, never()).convertAndSend(eq(NotificationAudience.topicFor("Chef")), any(Object.class), anyMap());
+        }
+    }
+
+    @Test
+    void publishToUser_shouldReachUserQueueOnAllNodes() {
+        nodeB.publisher.publishToUser("ana@example.com", Map.of("type", "REQUEST_UPDATE"));
+
+        for (Node node : new Node[]{nodeA, nodeB}) {
+            verify(node.broker, timeout(5000)).convertAndSend(eq("/user/ana@example.com/queue/notifications"),
+                    any(byte[].class), anyMap());
+        }
+    }
+
+    @Test
+    void publishTo_inRolledBackTransaction_shouldNotBeDelivered() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(nodeA.dataSource));
+
+        transaction.executeWithoutResult(status -> {
+            nodeA.publisher.publishTo(NotificationAudience.FRONT_DESK, Map.of("type", "RESERVATION_CANCELLED"));
+            status.setRollbackOnly();
+        });
+
+        verify(nodeB.broker, after(1500).never()).convertAndSend(anyString(), any(Object.class), anyMap());
+    }
+
+    @Test
+    void publishTo_withPayloadOverNotifyLimit_shouldStillReachAllNodes() {
+        // NOTIFY rejects payloads from 8000 bytes on; only the sequence number travels.
+        nodeA.publisher.publishTo(NotificationAudience.REVIEWS, Map.of("message", "x".repeat(10_000)));
+
+        for (Node node : new Node[]{nodeA, nodeB}) {
+            ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+            verify(node.broker, timeout(5000)).convertAndSend(eq(NotificationAudience.topicFor("Manager")),
+                    payload.capture(), anyMap());
+            assertTrue(payload.getValue().length > 10_000);
+        }
+    }
+}
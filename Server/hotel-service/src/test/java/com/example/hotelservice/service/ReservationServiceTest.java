@@ -19,7 +19,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -46,7 +45,10 @@ class ReservationServiceTest {
     private EmailService emailService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private NotificationPublisher notificationPublisher;
+
+    @Mock
+    private ActiveStayService activeStayService;
 
     @InjectMocks
     private ReservationService reservationService;
@@ -121,6 +123,7 @@ class ReservationServiceTest {
 
         assertNotNull(result);
         verify(reservationRepository).save(any(Reservation.class));
+        verify(activeStayService).evict(1L);
     }
 
     @Test
@@ -214,6 +217,7 @@ class ReservationServiceTest {
 
         verify(reservationRepository).delete(any(Reservation.class));
         verify(roomRepository).save(any(Room.class));
+        verify(activeStayService).evict(1L);
     }
 
     @Test
@@ -0,0 +1,93 @@
+package com.example.hotelservice.service;
+
+import com.example.hotelservice.entity.Review;
+import com.example.hotelservice.entity.RoomReviewSummary;
+import com.example.hotelservice.repository.ReviewRepository;
+import com.example.hotelservice.repository.RoomReviewSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoomReviewSummaryServiceTest {
+
+    private ReviewRepository reviewRepository;
+    private RoomReviewSummaryRepository summaryRepository;
+    private AtomicInteger modelCalls;
+    private RoomReviewSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = mock(ReviewRepository.class);
+        summaryRepository = mock(RoomReviewSummaryRepository.class);
+        modelCalls = new AtomicInteger();
+        // Local stand-in for the model
+        ReviewSummarizer stub = (roomNumber, reviews) -> {
+            modelCalls.incrementAndGet();
+            return "Camera " + roomNumber + ": " + reviews.size() + " recenzii.";
+        };
+        service = new RoomReviewSummaryService(reviewRepository, summaryRepository, stub, new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "maxReviewsPerRoom", 50);
+    }
+
+    private static ReviewRepository.RoomReviewStats stats(long roomId, String number, long count, long lastId) {
+        return new ReviewRepository.RoomReviewStats() {
+            public Long getRoomId() { return roomId; }
+            public String getRoomNumber() { return number; }
+            public Long getReviewCount() { return count; }
+            public Long getLastReviewId() { return lastId; }
+            public Double getAverageRating() { return 4.0; }
+        };
+    }
+
+    private static RoomReviewSummary summary(long roomId, long count, long lastId) {
+        return RoomReviewSummary.builder().roomId(roomId).roomNumber(String.valueOf(roomId))
+                .summary("vechi").reviewCount(count).lastReviewId(lastId).build();
+    }
+
+    @Test
+    void refreshSummaries_shouldOnlySummarizeChangedRooms() {
+        when(summaryRepository.findAll()).thenReturn(List.of(summary(1L, 2, 10), summary(2L, 1, 11)));
+        when(reviewRepository.findReviewStatsPerRoom()).thenReturn(List.of(
+                stats(1L, "101", 2, 10),
+                stats(2L, "102", 2, 15),
+                stats(3L, "103", 1, 12)));
+        when(reviewRepository.findByRoomIdOrderByCreatedAtDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(Review.builder().rating(5).comment("Foarte curat").build()));
+        when(summaryRepository.findByRoomId(anyLong())).thenReturn(Optional.empty());
+
+        int written = service.refreshSummaries();
+
+        assertEquals(2, written);
+        assertEquals(2, modelCalls.get());
+        verify(reviewRepository, never()).findByRoomIdOrderByCreatedAtDesc(eq(1L), any());
+        verify(reviewRepository).findByRoomIdOrderByCreatedAtDesc(2L, PageRequest.of(0, 50));
+        ArgumentCaptor<RoomReviewSummary> saved = ArgumentCaptor.forClass(RoomReviewSummary.class);
+        verify(summaryRepository, times(2)).save(saved.capture());
+        assertEquals(List.of(2L, 3L), saved.getAllValues().stream().map(RoomReviewSummary::getRoomId).toList());
+        assertEquals(15L, saved.getAllValues().get(0).getLastReviewId());
+    }
+
+    @Test
+    void refreshSummaries_shouldRemoveSummariesOfRoomsWithoutReviews() {
+        RoomReviewSummary orphan = summary(4L, 1, 9);
+        when(summaryRepository.findAll()).thenReturn(List.of(orphan));
+        when(reviewRepository.findReviewStatsPerRoom()).thenReturn(List.of());
+
+        service.refreshSummaries();
+
+        verify(summaryRepository).deleteAll(argThat(summaries -> summaries.iterator().next() == orphan));
+        assertEquals(0, modelCalls.get());
+    }
+}